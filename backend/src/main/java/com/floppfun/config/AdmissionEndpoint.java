@@ -0,0 +1,33 @@
+package com.floppfun.config;
+
+import com.floppfun.filter.AdaptiveConcurrencyLimiter;
+import com.floppfun.filter.AdmissionControlFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/admission: current concurrency limit, in-flight requests and rejections per class
+ */
+@Component
+@Endpoint(id = "admission")
+@ConditionalOnProperty(value = "floppfun.admission.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class AdmissionEndpoint {
+
+    private final AdmissionControlFilter admissionControlFilter;
+
+    @ReadOperation
+    public Map<String, Object> admission() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (AdaptiveConcurrencyLimiter limiter : admissionControlFilter.getLimiters()) {
+            result.put(limiter.getName(), limiter.snapshot());
+        }
+        return result;
+    }
+}
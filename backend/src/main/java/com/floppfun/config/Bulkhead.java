@@ -0,0 +1,123 @@
+package com.floppfun.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A named, bounded pool for one kind of slow dependency (RPC, IPFS, chart queries, batch jobs).
+ *
+ * Work beyond threads + queue capacity is rejected immediately, and callers stop waiting after the
+ * bulkhead's timeout (the task is interrupted), so a degraded dependency can only ever hold this pool's
+ * threads, never request or scheduler threads. Pool, queue, rejections and timeouts are exported to
+ * Micrometer under the bulkhead's name.
+ */
+@Slf4j
+public class Bulkhead implements AutoCloseable {
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Counter rejections;
+    private final Counter timeouts;
+
+    public Bulkhead(String name, int threads, int queueCapacity, Duration timeout, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.timeout = timeout;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, name);
+        this.rejections = Counter.builder("floppfun.bulkhead.rejections").tag("name", name).register(meterRegistry);
+        this.timeouts = Counter.builder("floppfun.bulkhead.timeouts").tag("name", name).register(meterRegistry);
+    }
+
+    /**
+     * Run a task in the bulkhead and wait for it, up to the bulkhead timeout
+     *
+     * @throws BulkheadException if the bulkhead is full or the task times out
+     * @throws Exception whatever the task itself throws
+     */
+    public <T> T call(Callable<T> task) throws Exception {
+        return call(task, timeout);
+    }
+
+    /**
+     * Run a task in the bulkhead and wait for it, up to the caller's remaining deadline if that is shorter
+     * than the bulkhead timeout
+     *
+     * @throws BulkheadException if the bulkhead is full or the task times out
+     * @throws Exception whatever the task itself throws
+     */
+    public <T> T call(Callable<T> task, Duration deadline) throws Exception {
+        long waitMillis = Math.max(0, Math.min(timeout.toMillis(), deadline.toMillis()));
+        Future<T> future = submit(task);
+        try {
+            return future.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeouts.increment();
+            throw new BulkheadException("Bulkhead '" + name + "' timed out after " + waitMillis + " ms");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ex ? ex : new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Run a task in the bulkhead without waiting for it
+     *
+     * @throws BulkheadException if the bulkhead is full
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new BulkheadException("Bulkhead '" + name + "' is full");
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The bulkhead refused or gave up on a task; the dependency behind it is saturated or slow
+     */
+    public static class BulkheadException extends RuntimeException {
+        public BulkheadException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.floppfun.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Bulkhead Configuration
+ * One bounded pool per slow dependency, so a stalled RPC node or IPFS upload can't drain
+ * request or scheduler threads (see {@link Bulkhead})
+ */
+@Configuration
+public class BulkheadConfig {
+
+    /**
+     * Solana RPC calls (sync jobs, holder tracking, trade confirmation)
+     */
+    @Bean(destroyMethod = "close")
+    public Bulkhead rpcBulkhead(
+            MeterRegistry meterRegistry,
+            @Value("${floppfun.bulkheads.rpc.threads:8}") int threads,
+            @Value("${floppfun.bulkheads.rpc.queue:64}") int queue,
+            @Value("${floppfun.bulkheads.rpc.timeout-ms:10000}") long timeoutMs) {
+        return new Bulkhead("rpc", threads, queue, Duration.ofMillis(timeoutMs), meterRegistry);
+    }
+
+    /**
+     * Pinata uploads during token creation
+     */
+    @Bean(destroyMethod = "close")
+    public Bulkhead ipfsBulkhead(
+            MeterRegistry meterRegistry,
+            @Value("${floppfun.bulkheads.ipfs.threads:4}") int threads,
+            @Value("${floppfun.bulkheads.ipfs.queue:16}") int queue,
+            @Value("${floppfun.bulkheads.ipfs.timeout-ms:30000}") long timeoutMs) {
+        return new Bulkhead("ipfs", threads, queue, Duration.ofMillis(timeoutMs), meterRegistry);
+    }
+
+    /**
+     * Price history (chart) aggregation queries
+     */
+    @Bean(destroyMethod = "close")
+    public Bulkhead chartBulkhead(
+            MeterRegistry meterRegistry,
+            @Value("${floppfun.bulkheads.chart.threads:4}") int threads,
+            @Value("${floppfun.bulkheads.chart.queue:32}") int queue,
+            @Value("${floppfun.bulkheads.chart.timeout-ms:3000}") long timeoutMs) {
+        return new Bulkhead("chart", threads, queue, Duration.ofMillis(timeoutMs), meterRegistry);
+    }
+
+    /**
+     * DB-bound scheduled batch jobs (portfolio snapshots and compaction)
+     */
+    @Bean(destroyMethod = "close")
+    public Bulkhead batchBulkhead(
+            MeterRegistry meterRegistry,
+            @Value("${floppfun.bulkheads.batch.threads:2}") int threads,
+            @Value("${floppfun.bulkheads.batch.queue:4}") int queue,
+            @Value("${floppfun.bulkheads.batch.timeout-ms:600000}") long timeoutMs) {
+        return new Bulkhead("batch", threads, queue, Duration.ofMillis(timeoutMs), meterRegistry);
+    }
+}
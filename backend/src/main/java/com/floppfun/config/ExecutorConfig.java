@@ -0,0 +1,26 @@
+package com.floppfun.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executor Configuration
+ * Virtual-thread executors for blocking fan-out work (JDBC, Redis)
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Executor for the token overview sections.
+     * One virtual thread per task, so blocking DB calls don't pin platform threads;
+     * TokenOverviewService caps how many sections run at once, below the Hikari pool size.
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService overviewExecutor() {
+        return Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("overview-", 0).factory());
+    }
+}
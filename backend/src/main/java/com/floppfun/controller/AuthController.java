@@ -3,11 +3,13 @@ package com.floppfun.controller;
 import com.floppfun.model.dto.UserDTO;
 import com.floppfun.model.entity.User;
 import com.floppfun.security.JwtTokenProvider;
+import com.floppfun.service.LoginNonceService;
 import com.floppfun.service.SolanaService;
 import com.floppfun.service.UserService;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,6 +25,27 @@ public class AuthController {
     private final JwtTokenProvider jwtTokenProvider;
     private final SolanaService solanaService;
     private final UserService userService;
+    private final LoginNonceService loginNonceService;
+
+    @Value("${floppfun.auth.require-nonce:true}")
+    private boolean requireNonce;
+
+    /**
+     * Issue a login challenge: a one-time nonce and the message the wallet must sign
+     */
+    @PostMapping("/nonce")
+    public ResponseEntity<?> nonce(@RequestBody NonceRequest request) {
+        if (request.getWalletAddress() == null || request.getWalletAddress().isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Wallet address required"));
+        }
+
+        LoginNonceService.Challenge challenge = loginNonceService.issue(request.getWalletAddress());
+        return ResponseEntity.ok(Map.of(
+                "nonce", challenge.nonce(),
+                "message", challenge.message(),
+                "expiresAt", challenge.expiresAt().toEpochMilli()
+        ));
+    }
 
     /**
      * Login with wallet signature
@@ -42,11 +65,16 @@ public class AuthController {
             return ResponseEntity.badRequest().body(Map.of("error", "Invalid wallet signature"));
         }
 
+        // Only checked after the signature, so nobody but the wallet owner can burn its nonce
+        if (requireNonce && !loginNonceService.consume(request.getWalletAddress(), request.getMessage())) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Login challenge expired or already used"));
+        }
+
         // Get or create user
         User user = userService.getOrCreateUser(request.getWalletAddress());
 
         // Generate JWT token
-        String token = jwtTokenProvider.generateToken(request.getWalletAddress());
+        String token = jwtTokenProvider.generateToken(request.getWalletAddress(), user.getId());
 
         // Return response
         Map<String, Object> response = new HashMap<>();
@@ -82,6 +110,11 @@ public class AuthController {
         ));
     }
 
+    @Data
+    static class NonceRequest {
+        private String walletAddress;
+    }
+
     @Data
     static class LoginRequest {
         private String walletAddress;
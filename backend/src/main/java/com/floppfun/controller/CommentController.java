@@ -2,9 +2,9 @@ package com.floppfun.controller;
 
 import com.floppfun.dto.CommentCreateRequest;
 import com.floppfun.dto.CommentDTO;
-import com.floppfun.model.entity.User;
-import com.floppfun.repository.UserRepository;
+import com.floppfun.security.AuthenticatedUser;
 import com.floppfun.service.CommentService;
+import com.floppfun.service.CommentStreamService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,7 +22,13 @@ import org.springframework.web.bind.annotation.*;
 public class CommentController {
 
     private final CommentService commentService;
-    private final UserRepository userRepository;
+    private final CommentStreamService commentStreamService;
+
+    // Position in /topic/comments/{tokenId} that a fetched page reflects
+    private static final String COMMENT_SEQUENCE_HEADER = "X-Comment-Seq";
+
+    private static final int MAX_REPLIES_PER_COMMENT = 10;
+    private static final int MAX_THREAD_DEPTH = 5;
 
     /**
      * Get comments for a token
@@ -36,9 +42,57 @@ public class CommentController {
 
         Long currentUserId = getCurrentUserId(authentication);
         Pageable pageable = PageRequest.of(page, size);
+        // Read the stream position before the page, so replaying later events over it can't miss anything
+        long seq = commentStreamService.getCurrentSequence(tokenId);
         Page<CommentDTO> comments = commentService.getTokenComments(tokenId, currentUserId, pageable);
 
-        return ResponseEntity.ok(comments);
+        return ResponseEntity.ok()
+                .header(COMMENT_SEQUENCE_HEADER, Long.toString(seq))
+                .body(comments);
+    }
+
+    /**
+     * Get threaded comments for a token: top-level comments with their first replies nested
+     */
+    @GetMapping("/threads")
+    public ResponseEntity<Page<CommentDTO>> getCommentThreads(
+            @PathVariable Long tokenId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "3") int replies,
+            @RequestParam(defaultValue = "2") int depth,
+            Authentication authentication) {
+
+        Long currentUserId = getCurrentUserId(authentication);
+        Pageable pageable = PageRequest.of(page, size);
+        long seq = commentStreamService.getCurrentSequence(tokenId);
+        Page<CommentDTO> threads = commentService.getTokenCommentThreads(
+                tokenId, currentUserId, pageable, clampReplies(replies), clampDepth(depth));
+
+        return ResponseEntity.ok()
+                .header(COMMENT_SEQUENCE_HEADER, Long.toString(seq))
+                .body(threads);
+    }
+
+    /**
+     * Get replies to a comment (expand a branch), each with its first replies nested
+     */
+    @GetMapping("/{commentId}/replies")
+    public ResponseEntity<Page<CommentDTO>> getCommentReplies(
+            @PathVariable Long tokenId,
+            @PathVariable Long commentId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "3") int replies,
+            @RequestParam(defaultValue = "1") int depth,
+            Authentication authentication) {
+
+        Long currentUserId = getCurrentUserId(authentication);
+        Pageable pageable = PageRequest.of(page, size);
+        Page<CommentDTO> threads = commentService.getCommentReplies(
+                commentId, currentUserId, pageable, clampReplies(replies), clampDepth(depth));
+
+        return ResponseEntity.ok(threads);
     }
 
     /**
@@ -132,21 +186,19 @@ public class CommentController {
         return ResponseEntity.ok().build();
     }
 
+    // Bound the size of a single thread response
+    private static int clampReplies(int replies) {
+        return Math.max(0, Math.min(replies, MAX_REPLIES_PER_COMMENT));
+    }
+
+    private static int clampDepth(int depth) {
+        return Math.max(0, Math.min(depth, MAX_THREAD_DEPTH));
+    }
+
     /**
-     * Get current user ID from authentication
-     * Authentication contains wallet address, so we need to look up the user ID
+     * Get current user ID from the authenticated principal (carried in the JWT, no lookup)
      */
     private Long getCurrentUserId(Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return null;
-        }
-
-        // Authentication.getName() returns the wallet address (from JWT token)
-        String walletAddress = authentication.getName();
-
-        // Look up user by wallet address
-        return userRepository.findByWalletAddress(walletAddress)
-                .map(User::getId)
-                .orElse(null);
+        return AuthenticatedUser.userIdOf(authentication);
     }
 }
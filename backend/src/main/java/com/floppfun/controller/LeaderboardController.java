@@ -0,0 +1,38 @@
+package com.floppfun.controller;
+
+import com.floppfun.dto.PnlPositionDTO;
+import com.floppfun.dto.TraderPnlDTO;
+import com.floppfun.service.PnlLedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/leaderboard")
+@RequiredArgsConstructor
+public class LeaderboardController {
+
+    private final PnlLedgerService pnlLedgerService;
+
+    /**
+     * Get top traders by realized PnL across all tokens
+     */
+    @GetMapping("/traders")
+    public ResponseEntity<List<TraderPnlDTO>> getTopTraders(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(pnlLedgerService.getTraderLeaderboard(limit));
+    }
+
+    /**
+     * Get top traders of a token by realized PnL, with unrealized PnL of open positions
+     */
+    @GetMapping("/tokens/{tokenId}")
+    public ResponseEntity<List<PnlPositionDTO>> getTopTokenTraders(
+            @PathVariable Long tokenId,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(pnlLedgerService.getTokenLeaderboard(tokenId, limit));
+    }
+}
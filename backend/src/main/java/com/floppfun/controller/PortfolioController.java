@@ -1,10 +1,12 @@
 package com.floppfun.controller;
 
 import com.floppfun.dto.Portfolio24hChangeDTO;
+import com.floppfun.dto.PortfolioDTO;
+import com.floppfun.dto.PortfolioHistoryPointDTO;
 import com.floppfun.dto.PortfolioSnapshotRequest;
-import com.floppfun.model.entity.User;
-import com.floppfun.repository.UserRepository;
+import com.floppfun.security.AuthenticatedUser;
 import com.floppfun.service.PortfolioSnapshotService;
+import com.floppfun.service.PortfolioValuationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -12,6 +14,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -20,7 +23,20 @@ import java.math.BigDecimal;
 public class PortfolioController {
 
     private final PortfolioSnapshotService portfolioSnapshotService;
-    private final UserRepository userRepository;
+    private final PortfolioValuationService portfolioValuationService;
+
+    /**
+     * Get current portfolio valuation: total value, per-token value and unrealized PnL (requires authentication)
+     */
+    @GetMapping
+    public ResponseEntity<PortfolioDTO> getPortfolio(Authentication authentication) {
+        Long userId = getCurrentUserId(authentication);
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        return ResponseEntity.ok(portfolioValuationService.valuePortfolio(userId));
+    }
 
     /**
      * Store a portfolio snapshot (requires authentication)
@@ -57,20 +73,26 @@ public class PortfolioController {
     }
 
     /**
-     * Get current user ID from authentication
-     * Authentication contains wallet address, so we need to look up the user ID
+     * Get portfolio value history (requires authentication)
+     * Range options: 24h, 7d, 30d, 90d, 1y, all
      */
-    private Long getCurrentUserId(Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return null;
+    @GetMapping("/history")
+    public ResponseEntity<List<PortfolioHistoryPointDTO>> getHistory(
+            @RequestParam(defaultValue = "7d") String range,
+            Authentication authentication) {
+
+        Long userId = getCurrentUserId(authentication);
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
         }
 
-        // Authentication.getName() returns the wallet address (from JWT token)
-        String walletAddress = authentication.getName();
+        return ResponseEntity.ok(portfolioSnapshotService.getHistory(userId, range));
+    }
 
-        // Look up user by wallet address
-        return userRepository.findByWalletAddress(walletAddress)
-                .map(User::getId)
-                .orElse(null);
+    /**
+     * Get current user ID from the authenticated principal (carried in the JWT, no lookup)
+     */
+    private Long getCurrentUserId(Authentication authentication) {
+        return AuthenticatedUser.userIdOf(authentication);
     }
 }
@@ -5,11 +5,15 @@ import com.floppfun.dto.TokenHolderDTO;
 import com.floppfun.model.dto.PriceHistoryDTO;
 import com.floppfun.model.dto.TokenCreateRequest;
 import com.floppfun.model.dto.TokenDTO;
+import com.floppfun.model.dto.TokenOverviewDTO;
 import com.floppfun.model.entity.Token;
+import com.floppfun.security.AuthenticatedUser;
 import com.floppfun.service.TokenService;
 import com.floppfun.service.TokenPriceService;
 import com.floppfun.service.PriceHistoryService;
 import com.floppfun.service.TokenHolderService;
+import com.floppfun.service.TokenResponseCache;
+import com.floppfun.service.TokenOverviewService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,6 +36,8 @@ public class TokenController {
     private final TokenPriceService tokenPriceService;
     private final PriceHistoryService priceHistoryService;
     private final TokenHolderService tokenHolderService;
+    private final TokenResponseCache tokenResponseCache;
+    private final TokenOverviewService tokenOverviewService;
 
     /**
      * Get all tokens (paginated)
@@ -42,8 +48,8 @@ public class TokenController {
             @RequestParam(defaultValue = "20") int size) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<TokenDTO> tokens = tokenService.getAllTokens(pageable)
-                .map(tokenService::toDTO);
+        Page<TokenDTO> tokens = tokenResponseCache.getTokenPage("all", pageable,
+                () -> tokenService.getAllTokenViews(pageable));
 
         return ResponseEntity.ok(tokens);
     }
@@ -53,8 +59,18 @@ public class TokenController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<TokenDTO> getTokenById(@PathVariable Long id) {
-        return tokenService.getTokenById(id)
-                .map(token -> ResponseEntity.ok(tokenService.toDTO(token)))
+        return tokenResponseCache.getToken(id, () -> tokenService.getTokenViewById(id))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get token page overview (token, stats, holders, price history, trades, comments) in one call
+     */
+    @GetMapping("/{id}/overview")
+    public ResponseEntity<TokenOverviewDTO> getTokenOverview(@PathVariable Long id, Authentication authentication) {
+        return tokenOverviewService.getOverview(id, AuthenticatedUser.userIdOf(authentication))
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -63,8 +79,9 @@ public class TokenController {
      */
     @GetMapping("/mint/{mintAddress}")
     public ResponseEntity<TokenDTO> getTokenByMintAddress(@PathVariable String mintAddress) {
-        return tokenService.getTokenByMintAddress(mintAddress)
-                .map(token -> ResponseEntity.ok(tokenService.toDTO(token)))
+        return tokenResponseCache.getTokenByMint(mintAddress,
+                        () -> tokenService.getTokenViewByMintAddress(mintAddress))
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -77,8 +94,8 @@ public class TokenController {
             @RequestParam(defaultValue = "20") int size) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<TokenDTO> tokens = tokenService.getTrendingTokens(pageable)
-                .map(tokenService::toDTO);
+        Page<TokenDTO> tokens = tokenResponseCache.getTokenPage("trending", pageable,
+                () -> tokenService.getTrendingTokenViews(pageable));
 
         return ResponseEntity.ok(tokens);
     }
@@ -93,8 +110,7 @@ public class TokenController {
             @RequestParam(defaultValue = "20") int size) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<TokenDTO> tokens = tokenService.searchTokens(q, pageable)
-                .map(tokenService::toDTO);
+        Page<TokenDTO> tokens = tokenService.searchTokenViews(q, pageable);
 
         return ResponseEntity.ok(tokens);
     }
@@ -109,8 +125,7 @@ public class TokenController {
             @RequestParam(defaultValue = "20") int size) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<TokenDTO> tokens = tokenService.getTokensByCreatorId(creatorId, pageable)
-                .map(tokenService::toDTO);
+        Page<TokenDTO> tokens = tokenService.getTokenViewsByCreatorId(creatorId, pageable);
 
         return ResponseEntity.ok(tokens);
     }
@@ -171,7 +186,8 @@ public class TokenController {
             @PathVariable Long id,
             @RequestParam(defaultValue = "20") int limit) {
 
-        List<TokenHolderDTO> holders = tokenHolderService.getTopHolders(id, limit);
+        List<TokenHolderDTO> holders = tokenResponseCache.getTopHolders(id, limit,
+                () -> tokenHolderService.getTopHolders(id, limit));
         return ResponseEntity.ok(holders);
     }
 
@@ -16,8 +16,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
-
 @Slf4j
 @RestController
 @RequestMapping("/trades")
@@ -81,9 +79,7 @@ public class TradingController {
             @RequestParam(defaultValue = "20") int size) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<TransactionDTO> transactions = transactionRepository
-                .findByTokenIdOrderByCreatedAtDesc(tokenId, pageable)
-                .map(this::toDTO);
+        Page<TransactionDTO> transactions = tradingService.getTokenTransactions(tokenId, pageable);
 
         return ResponseEntity.ok(transactions);
     }
@@ -98,9 +94,7 @@ public class TradingController {
             @RequestParam(defaultValue = "20") int size) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<TransactionDTO> transactions = transactionRepository
-                .findByUserIdOrderByCreatedAtDesc(userId, pageable)
-                .map(this::toDTO);
+        Page<TransactionDTO> transactions = tradingService.getUserTransactions(userId, pageable);
 
         return ResponseEntity.ok(transactions);
     }
@@ -113,26 +107,6 @@ public class TradingController {
         Transaction transaction = transactionRepository.findBySignature(signature)
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
 
-        return ResponseEntity.ok(toDTO(transaction));
-    }
-
-    private TransactionDTO toDTO(Transaction tx) {
-        return TransactionDTO.builder()
-                .id(tx.getId())
-                .signature(tx.getSignature())
-                .tokenId(tx.getToken().getId())
-                .tokenSymbol(tx.getToken().getSymbol())
-                .tokenName(tx.getToken().getName())
-                .userId(tx.getUser().getId())
-                .userWalletAddress(tx.getUser().getWalletAddress())
-                .transactionType(tx.getTransactionType().name())
-                .solAmount(tx.getSolAmount())
-                .tokenAmount(tx.getTokenAmount())
-                .pricePerToken(tx.getPricePerToken())
-                .platformFee(BigDecimal.valueOf(tx.getPlatformFee()))
-                .status(tx.getStatus().name())
-                .blockTime(tx.getBlockTime())
-                .createdAt(tx.getCreatedAt())
-                .build();
+        return ResponseEntity.ok(tradingService.toDTO(transaction));
     }
 }
@@ -1,9 +1,13 @@
 package com.floppfun.controller;
 
+import com.floppfun.dto.UserPnlDTO;
+import com.floppfun.model.dto.HoldingView;
 import com.floppfun.model.dto.UserDTO;
 import com.floppfun.model.entity.User;
-import com.floppfun.model.entity.UserHolding;
 import com.floppfun.repository.UserHoldingRepository;
+import com.floppfun.security.AuthenticatedUser;
+import com.floppfun.service.PnlLedgerService;
+import com.floppfun.service.TokenPriceTable;
 import com.floppfun.service.UserService;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
@@ -12,6 +16,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +30,8 @@ public class UserController {
 
     private final UserService userService;
     private final UserHoldingRepository userHoldingRepository;
+    private final TokenPriceTable tokenPriceTable;
+    private final PnlLedgerService pnlLedgerService;
 
     /**
      * Get user profile by ID
@@ -52,8 +59,12 @@ public class UserController {
      */
     @GetMapping("/profile")
     public ResponseEntity<UserDTO> getCurrentUser(Authentication authentication) {
-        String walletAddress = authentication.getName();
-        User user = userService.getUserByWallet(walletAddress)
+        Long userId = AuthenticatedUser.userIdOf(authentication);
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        User user = userService.getUserById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         return ResponseEntity.ok(userService.toDTO(user));
@@ -85,20 +96,21 @@ public class UserController {
      */
     @GetMapping("/{id}/holdings")
     public ResponseEntity<List<Map<String, Object>>> getUserHoldings(@PathVariable Long id) {
-        List<UserHolding> holdings = userHoldingRepository.findActiveHoldingsByUserId(id);
+        // One projection query for holdings + token columns (no per-holding token loads)
+        List<HoldingView> holdings = userHoldingRepository.findActiveHoldingViewsByUserId(id);
 
         List<Map<String, Object>> response = holdings.stream()
                 .map(holding -> {
                     Map<String, Object> map = new HashMap<>();
-                    map.put("tokenId", holding.getToken().getId());
-                    map.put("tokenName", holding.getToken().getName());
-                    map.put("tokenSymbol", holding.getToken().getSymbol());
-                    map.put("mintAddress", holding.getToken().getMintAddress());
-                    map.put("imageUrl", holding.getToken().getImageUrl());
-                    map.put("amount", holding.getAmount());
-                    map.put("averagePrice", holding.getAveragePrice());
-                    map.put("currentPrice", holding.getToken().getCurrentPrice());
-                    map.put("updatedAt", holding.getUpdatedAt());
+                    map.put("tokenId", holding.tokenId());
+                    map.put("tokenName", holding.tokenName());
+                    map.put("tokenSymbol", holding.tokenSymbol());
+                    map.put("mintAddress", holding.mintAddress());
+                    map.put("imageUrl", holding.imageUrl());
+                    map.put("amount", holding.amount());
+                    map.put("averagePrice", holding.averagePrice());
+                    map.put("currentPrice", currentPrice(holding));
+                    map.put("updatedAt", holding.updatedAt());
                     return map;
                 })
                 .collect(Collectors.toList());
@@ -106,6 +118,19 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get user PnL: realized, unrealized and fees per token and in total
+     */
+    @GetMapping("/{id}/pnl")
+    public ResponseEntity<UserPnlDTO> getUserPnl(@PathVariable Long id) {
+        return ResponseEntity.ok(pnlLedgerService.getUserPnl(id));
+    }
+
+    private BigDecimal currentPrice(HoldingView holding) {
+        BigDecimal price = tokenPriceTable.getPrice(holding.tokenId());
+        return price != null ? price : holding.currentPrice();
+    }
+
     @Data
     static class UpdateProfileRequest {
         private String username;
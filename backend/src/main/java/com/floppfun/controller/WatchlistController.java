@@ -1,7 +1,11 @@
 package com.floppfun.controller;
 
 import com.floppfun.model.dto.TokenDTO;
+import com.floppfun.security.AuthenticatedUser;
 import com.floppfun.service.WatchlistService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -9,6 +13,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @RestController
@@ -84,19 +89,36 @@ public class WatchlistController {
     }
 
     /**
-     * Get current user ID from authentication
+     * Check a batch of tokens against the watchlist (one request per page of tokens)
      */
-    private Long getCurrentUserId(Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return null;
-        }
+    @PostMapping("/check")
+    public ResponseEntity<Map<Long, Boolean>> checkWatchlistBatch(
+            @Valid @RequestBody WatchlistBatchCheckRequest request,
+            Authentication authentication) {
 
-        try {
-            return Long.parseLong(authentication.getName());
-        } catch (NumberFormatException e) {
-            log.warn("Failed to parse user ID from authentication: {}", authentication.getName());
-            return null;
+        Long userId = getCurrentUserId(authentication);
+        if (userId == null) {
+            throw new RuntimeException("Authentication required");
         }
+
+        return ResponseEntity.ok(watchlistService.checkWatchlist(userId, request.getTokenIds()));
+    }
+
+    /**
+     * Get current user ID from the authenticated principal (carried in the JWT, no lookup)
+     */
+    private Long getCurrentUserId(Authentication authentication) {
+        return AuthenticatedUser.userIdOf(authentication);
+    }
+
+    /**
+     * Request for batch watchlist check
+     */
+    @lombok.Data
+    public static class WatchlistBatchCheckRequest {
+        @NotEmpty(message = "tokenIds is required")
+        @Size(max = 500, message = "At most 500 token IDs per request")
+        private List<Long> tokenIds;
     }
 
     /**
@@ -10,4 +10,7 @@ public class CommentCreateRequest {
     @NotBlank(message = "Comment content is required")
     @Size(min = 1, max = 1000, message = "Comment must be between 1 and 1000 characters")
     private String content;
+
+    // Set to reply to an existing comment on the same token
+    private Long parentCommentId;
 }
@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -12,12 +13,15 @@ import java.time.LocalDateTime;
 public class CommentDTO {
     private Long id;
     private Long tokenId;
+    private Long parentCommentId;
     private Long userId;
     private String userWalletAddress;
     private String userName;
     private String content;
     private Integer likesCount;
+    private Integer repliesCount;
     private Boolean isLikedByCurrentUser;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private List<CommentDTO> replies; // Only set by thread queries
 }
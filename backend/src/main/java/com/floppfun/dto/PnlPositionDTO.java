@@ -0,0 +1,33 @@
+package com.floppfun.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PnlPositionDTO {
+    private Long userId;
+    private String walletAddress;
+    private String username;
+    private Long tokenId;
+    private String tokenName;
+    private String tokenSymbol;
+    private Long positionAmount;      // Raw token units
+    private BigDecimal costBasis;     // SOL
+    private BigDecimal totalBought;   // SOL, fees included
+    private BigDecimal totalSold;     // SOL, after fees
+    private BigDecimal realizedPnl;   // SOL
+    private BigDecimal unrealizedPnl; // SOL, at the current price
+    private BigDecimal totalPnl;      // SOL
+    private BigDecimal feesPaid;      // SOL
+    private Integer buyCount;
+    private Integer sellCount;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,25 @@
+package com.floppfun.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioDTO {
+    private Long userId;
+    private BigDecimal totalValue;     // SOL, token holdings only
+    private BigDecimal totalCostBasis; // SOL
+    private BigDecimal unrealizedPnl;  // SOL
+    private BigDecimal unrealizedPnlPercent;
+    private Integer tokenCount;
+    private List<PortfolioHoldingDTO> holdings;
+    private LocalDateTime valuedAt;
+}
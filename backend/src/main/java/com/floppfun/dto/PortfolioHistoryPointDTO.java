@@ -0,0 +1,17 @@
+package com.floppfun.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioHistoryPointDTO {
+    private LocalDateTime timestamp;
+    private BigDecimal totalValue;
+    private BigDecimal tokenValue;
+}
@@ -0,0 +1,30 @@
+package com.floppfun.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioHoldingDTO {
+    private Long tokenId;
+    private String tokenName;
+    private String tokenSymbol;
+    private String mintAddress;
+    private String imageUrl;
+    private Long amount;              // Raw token units
+    private BigDecimal balance;       // Whole tokens (amount / 10^decimals)
+    private BigDecimal averagePrice;  // SOL per token
+    private BigDecimal currentPrice;  // SOL per token
+    private BigDecimal value;         // SOL
+    private BigDecimal costBasis;     // SOL
+    private BigDecimal unrealizedPnl; // SOL
+    private BigDecimal unrealizedPnlPercent;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,25 @@
+package com.floppfun.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TraderPnlDTO {
+    private Integer rank;
+    private Long userId;
+    private String walletAddress;
+    private String username;
+    private String avatarUrl;
+    private BigDecimal realizedPnl; // SOL
+    private BigDecimal feesPaid;    // SOL
+    private Integer tradeCount;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,22 @@
+package com.floppfun.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPnlDTO {
+    private Long userId;
+    private BigDecimal realizedPnl;   // SOL
+    private BigDecimal unrealizedPnl; // SOL, at current prices
+    private BigDecimal totalPnl;      // SOL
+    private BigDecimal feesPaid;      // SOL
+    private List<PnlPositionDTO> positions;
+}
@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 @Table(name = "comments",
     indexes = {
         @Index(name = "idx_token_created", columnList = "token_id,created_at DESC"),
-        @Index(name = "idx_user_comments", columnList = "user_id,created_at DESC")
+        @Index(name = "idx_user_comments", columnList = "user_id,created_at DESC"),
+        @Index(name = "idx_comments_parent_created", columnList = "parent_comment_id,created_at")
     }
 )
 @Data
@@ -39,6 +40,13 @@ public class Comment {
     @Column(name = "likes_count", nullable = false)
     private Integer likesCount = 0;
 
+    // Plain FK column: threads are loaded with a recursive query, never by walking the association
+    @Column(name = "parent_comment_id")
+    private Long parentCommentId;
+
+    @Column(name = "replies_count", nullable = false)
+    private Integer repliesCount = 0;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
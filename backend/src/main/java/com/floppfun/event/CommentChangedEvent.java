@@ -0,0 +1,20 @@
+package com.floppfun.event;
+
+import com.floppfun.dto.CommentDTO;
+
+/**
+ * Published by CommentService whenever a comment on a token changes.
+ * Streamed to /topic/comments/{tokenId} after the transaction commits.
+ *
+ * @param comment full comment for CREATED/UPDATED, null otherwise
+ */
+public record CommentChangedEvent(Long tokenId, Long commentId, Long parentCommentId, Type type, CommentDTO comment) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        LIKED,
+        UNLIKED
+    }
+}
@@ -0,0 +1,15 @@
+package com.floppfun.event;
+
+/**
+ * Published whenever the persisted state of a token changes.
+ * Listeners that depend on committed data should use @TransactionalEventListener.
+ */
+public record TokenStateChangedEvent(Long tokenId, Reason reason) {
+
+    public enum Reason {
+        CREATED,  // New token saved
+        TRADE,    // Buy/sell recorded through the API
+        SYNC,     // Reserves/price refreshed from the bonding curve account
+        HOLDERS   // Holder balances or holder count refreshed
+    }
+}
@@ -0,0 +1,10 @@
+package com.floppfun.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by TradingService when a client-submitted trade is recorded as PENDING.
+ * Listeners that depend on committed data should use @TransactionalEventListener.
+ */
+public record TradeRecordedEvent(String signature, LocalDateTime submittedAt) {
+}
@@ -0,0 +1,20 @@
+package com.floppfun.event;
+
+import com.floppfun.model.entity.Transaction;
+
+import java.math.BigDecimal;
+
+/**
+ * Published by TradingService when a pending trade is confirmed or failed on-chain.
+ * The trader's status update and the public trade/price broadcasts go out after the transaction commits.
+ *
+ * @param trade the applied trade and the token's new state, null for a failed trade
+ */
+public record TradeSettledEvent(String walletAddress, String signature, Transaction.TransactionStatus status,
+                                AppliedTrade trade) {
+
+    public record AppliedTrade(Long tokenId, String tokenSymbol, Transaction.TransactionType type, Long tokenAmount,
+                               BigDecimal pricePerToken, BigDecimal tokenPrice, BigDecimal marketCap,
+                               BigDecimal volume24h) {
+    }
+}
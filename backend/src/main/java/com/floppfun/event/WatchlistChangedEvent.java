@@ -0,0 +1,8 @@
+package com.floppfun.event;
+
+/**
+ * Published by WatchlistService when a user adds or removes a token.
+ * Listeners that depend on committed data should use @TransactionalEventListener.
+ */
+public record WatchlistChangedEvent(Long userId, Long tokenId, boolean added) {
+}
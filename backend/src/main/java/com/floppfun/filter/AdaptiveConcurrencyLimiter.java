@@ -0,0 +1,128 @@
+package com.floppfun.filter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gradient concurrency limiter: the number of requests allowed in flight adapts to observed latency.
+ *
+ * A long-term exponential average of request latency approximates the "no queueing" latency. Each
+ * completed request compares it against its own latency: while they agree the limit grows by about
+ * sqrt(limit), and as latency rises above the long-term average (requests queueing for threads or
+ * DB connections) the limit shrinks proportionally. Requests beyond the limit are refused immediately
+ * instead of joining the queue.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    // Latency up to this multiple of the long-term average still counts as healthy
+    private static final double TOLERANCE = 1.5;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final int longWindow;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private volatile double limit;
+    private double longRttNanos;
+    private long samples;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      double smoothing, int longWindow) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.longWindow = longWindow;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Reserve a slot. Returns the number of requests in flight including this one, to be handed back to
+     * {@link #release}, or 0 (and counts a rejection) if the limit is reached.
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.incrementAndGet();
+                return 0;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Release a slot and feed the request's latency into the limit
+     *
+     * @param inFlightAtStart what {@link #tryAcquire} returned when the request was admitted
+     */
+    public void release(long rttNanos, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        onSample(rttNanos, inFlightAtStart);
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        if (rttNanos <= 0) {
+            return;
+        }
+
+        // Long-term average: plain mean while warming up, then exponential over longWindow samples
+        samples++;
+        double weight = 1.0 / Math.min(samples, longWindow);
+        longRttNanos = longRttNanos + (rttNanos - longRttNanos) * weight;
+
+        // After a sustained latency drop, let the baseline catch up faster
+        if (longRttNanos / rttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        // Not using half the limit says nothing about whether more would fit
+        if (inFlightAtStart < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / rttNanos));
+        double queueSize = Math.sqrt(limit);
+        double target = limit * gradient + queueSize;
+        double next = limit * (1 - smoothing) + target * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Current state, for the admission actuator endpoint
+     */
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("limit", (int) limit);
+        state.put("inFlight", inFlight.get());
+        state.put("rejected", rejected.get());
+        state.put("minLimit", minLimit);
+        state.put("maxLimit", maxLimit);
+        state.put("longRttMs", longRttNanos / 1_000_000.0);
+        return state;
+    }
+}
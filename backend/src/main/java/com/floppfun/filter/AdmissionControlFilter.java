@@ -0,0 +1,121 @@
+package com.floppfun.filter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Admission control: sheds load with a fast 503 when more requests are in flight than the backend can
+ * currently serve, instead of letting them queue on Tomcat threads for a DB connection until all time out.
+ *
+ * Reads (GET/HEAD), trades (POST /trades/buy, /trades/sell and /tokens/create) and all other writes have
+ * separate {@link AdaptiveConcurrencyLimiter}s, so a trading surge can't starve page loads or profile and
+ * comment writes, and the reverse. Runs after rate limiting; actuator, WebSocket and CORS
+ * preflight requests are never shed. State is exposed at /actuator/admission and as Micrometer meters.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "floppfun.admission.enabled", havingValue = "true", matchIfMissing = true)
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 2)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final List<String> TRADE_PATHS = List.of("/trades/buy", "/trades/sell", "/tokens/create");
+
+    private final AdaptiveConcurrencyLimiter readLimiter;
+    private final AdaptiveConcurrencyLimiter tradeLimiter;
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+    private final int retryAfterSeconds;
+
+    public AdmissionControlFilter(
+            MeterRegistry meterRegistry,
+            @Value("${floppfun.admission.reads.initial-limit:100}") int readInitial,
+            @Value("${floppfun.admission.reads.min-limit:20}") int readMin,
+            @Value("${floppfun.admission.reads.max-limit:400}") int readMax,
+            @Value("${floppfun.admission.trades.initial-limit:10}") int tradeInitial,
+            @Value("${floppfun.admission.trades.min-limit:2}") int tradeMin,
+            @Value("${floppfun.admission.trades.max-limit:50}") int tradeMax,
+            @Value("${floppfun.admission.writes.initial-limit:20}") int writeInitial,
+            @Value("${floppfun.admission.writes.min-limit:4}") int writeMin,
+            @Value("${floppfun.admission.writes.max-limit:100}") int writeMax,
+            @Value("${floppfun.admission.smoothing:0.2}") double smoothing,
+            @Value("${floppfun.admission.long-window:600}") int longWindow,
+            @Value("${floppfun.admission.retry-after:1}") int retryAfterSeconds) {
+        this.readLimiter = new AdaptiveConcurrencyLimiter("reads", readInitial, readMin, readMax, smoothing, longWindow);
+        this.tradeLimiter = new AdaptiveConcurrencyLimiter("trades", tradeInitial, tradeMin, tradeMax, smoothing, longWindow);
+        this.writeLimiter = new AdaptiveConcurrencyLimiter("writes", writeInitial, writeMin, writeMax, smoothing, longWindow);
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        for (AdaptiveConcurrencyLimiter limiter : getLimiters()) {
+            Gauge.builder("floppfun.admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("class", limiter.getName())
+                    .register(meterRegistry);
+            Gauge.builder("floppfun.admission.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("class", limiter.getName())
+                    .register(meterRegistry);
+            FunctionCounter.builder("floppfun.admission.rejections", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                    .tag("class", limiter.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    public List<AdaptiveConcurrencyLimiter> getLimiters() {
+        return List.of(readLimiter, tradeLimiter, writeLimiter);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = path(request);
+        return path.startsWith("/actuator") || path.startsWith("/ws") || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String method = request.getMethod();
+        AdaptiveConcurrencyLimiter limiter = limiterFor(method, path(request));
+
+        int inFlightAtStart = limiter.tryAcquire();
+        if (inFlightAtStart == 0) {
+            log.warn("Shedding {} {}: {} limit {} reached", method, request.getRequestURI(),
+                    limiter.getName(), limiter.getLimit());
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\":\"Server busy. Please retry shortly.\"}");
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start, inFlightAtStart);
+        }
+    }
+
+    private AdaptiveConcurrencyLimiter limiterFor(String method, String path) {
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            return readLimiter;
+        }
+        return "POST".equals(method) && TRADE_PATHS.contains(path) ? tradeLimiter : writeLimiter;
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
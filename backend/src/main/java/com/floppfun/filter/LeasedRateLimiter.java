@@ -0,0 +1,181 @@
+package com.floppfun.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Two-tier rate limiter: an in-process lease in front of the cluster-wide Redis token bucket.
+ *
+ * Instead of one Redis call per request, an instance takes a chunk of tokens (lease-size, capped at a tenth
+ * of the limit so strict limits stay exact) and spends it from memory. Unspent tokens are dropped when the
+ * lease ages out, so the cluster-wide limit holds approximately and errs on the strict side. A rejected
+ * key is answered from memory until Redis said a token would be back.
+ *
+ * When Redis is unreachable the limiter stops calling it for redis-retry-interval and applies the
+ * degraded mode: LOCAL (per-instance bucket at the same limit), OPEN (allow) or CLOSED (reject).
+ */
+@Slf4j
+@Component
+public class LeasedRateLimiter {
+
+    public enum DegradedMode { LOCAL, OPEN, CLOSED }
+
+    private final TokenBucketRateLimiter redisLimiter;
+    private final int leaseSize;
+    private final long leaseTtlMillis;
+    private final DegradedMode degradedMode;
+    private final long redisRetryIntervalMillis;
+    private final Cache<String, Lease> leases;
+    private final Cache<String, LocalBucket> localBuckets;
+
+    private volatile long redisUnavailableUntil;
+
+    public LeasedRateLimiter(
+            TokenBucketRateLimiter redisLimiter,
+            @Value("${floppfun.rate-limit.lease-size:10}") int leaseSize,
+            @Value("${floppfun.rate-limit.lease-ttl-ms:1000}") long leaseTtlMillis,
+            @Value("${floppfun.rate-limit.degraded-mode:LOCAL}") DegradedMode degradedMode,
+            @Value("${floppfun.rate-limit.redis-retry-interval-ms:5000}") long redisRetryIntervalMillis,
+            @Value("${floppfun.rate-limit.max-keys:100000}") long maxKeys,
+            MeterRegistry meterRegistry) {
+        this.redisLimiter = redisLimiter;
+        this.leaseSize = Math.max(1, leaseSize);
+        this.leaseTtlMillis = leaseTtlMillis;
+        this.degradedMode = degradedMode;
+        this.redisRetryIntervalMillis = redisRetryIntervalMillis;
+        this.leases = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofMillis(leaseTtlMillis * 2))
+                .build();
+        this.localBuckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+
+        // Both maps are bounded by max-keys; these show how close they run to it
+        Gauge.builder("floppfun.rate_limit.keys", leases, Cache::estimatedSize)
+                .description("Rate limit keys tracked in memory")
+                .tag("tier", "lease")
+                .register(meterRegistry);
+        Gauge.builder("floppfun.rate_limit.keys", localBuckets, Cache::estimatedSize)
+                .description("Rate limit keys tracked in memory")
+                .tag("tier", "degraded")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Decide one request against the bucket for a key
+     */
+    public Decision tryAcquire(String key, int maxRequests, int durationSeconds) {
+        long now = System.currentTimeMillis();
+        if (now < redisUnavailableUntil) {
+            return degraded(key, maxRequests, durationSeconds, now);
+        }
+
+        Lease lease = leases.get(key, k -> new Lease());
+        synchronized (lease) {
+            if (lease.tokens > 0 && now < lease.expiresAt) {
+                lease.tokens--;
+                return Decision.allowed(lease.clusterRemaining + lease.tokens, lease.resetAt - now);
+            }
+            if (now < lease.blockedUntil) {
+                // Redis already said no; don't ask again until a token can have refilled
+                return Decision.rejected(lease.resetAt - now, lease.blockedUntil - now);
+            }
+
+            TokenBucketRateLimiter.Grant grant;
+            try {
+                grant = redisLimiter.tryAcquire(key, maxRequests, durationSeconds, chunkSize(maxRequests));
+            } catch (Exception e) {
+                redisUnavailableUntil = now + redisRetryIntervalMillis;
+                log.warn("Rate limiter Redis unavailable, {} mode for {} ms: {}",
+                        degradedMode, redisRetryIntervalMillis, e.getMessage());
+                return degraded(key, maxRequests, durationSeconds, now);
+            }
+
+            if (grant.granted() == 0) {
+                lease.tokens = 0;
+                lease.blockedUntil = now + grant.retryAfterMillis();
+                lease.resetAt = now + grant.resetMillis();
+                return Decision.rejected(grant.resetMillis(), grant.retryAfterMillis());
+            }
+
+            lease.tokens = grant.granted() - 1;
+            lease.clusterRemaining = grant.remaining();
+            lease.expiresAt = now + leaseTtlMillis;
+            lease.resetAt = now + grant.resetMillis();
+            return Decision.allowed(lease.clusterRemaining + lease.tokens, grant.resetMillis());
+        }
+    }
+
+    private int chunkSize(int maxRequests) {
+        return Math.max(1, Math.min(leaseSize, maxRequests / 10));
+    }
+
+    private Decision degraded(String key, int maxRequests, int durationSeconds, long now) {
+        return switch (degradedMode) {
+            case OPEN -> null;
+            case CLOSED -> Decision.rejected(redisUnavailableUntil - now, redisUnavailableUntil - now);
+            case LOCAL -> localBuckets.get(key, k -> new LocalBucket(maxRequests, now))
+                    .tryAcquire(maxRequests, durationSeconds * 1000L, now);
+        };
+    }
+
+    /**
+     * Outcome of a rate limit check (remaining/reset describe the cluster-wide bucket as last seen)
+     */
+    public record Decision(boolean allowed, long remaining, long resetMillis, long retryAfterMillis) {
+
+        static Decision allowed(long remaining, long resetMillis) {
+            return new Decision(true, remaining, Math.max(0, resetMillis), 0);
+        }
+
+        static Decision rejected(long resetMillis, long retryAfterMillis) {
+            return new Decision(false, 0, Math.max(0, resetMillis), Math.max(0, retryAfterMillis));
+        }
+    }
+
+    /**
+     * Tokens leased from Redis for one key on this instance. Guarded by its own monitor.
+     */
+    private static final class Lease {
+        private long tokens;
+        private long clusterRemaining;
+        private long expiresAt;
+        private long resetAt;
+        private long blockedUntil;
+    }
+
+    /**
+     * In-memory token bucket used only while Redis is unreachable (same algorithm as the Lua script)
+     */
+    private static final class LocalBucket {
+        private double tokens;
+        private long ts;
+
+        private LocalBucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.ts = now;
+        }
+
+        private synchronized Decision tryAcquire(int capacity, long windowMillis, long now) {
+            double rate = (double) capacity / windowMillis;
+            tokens = Math.min(capacity, tokens + Math.max(0, now - ts) * rate);
+            ts = Math.max(ts, now);
+
+            long resetMillis = (long) Math.ceil((capacity - tokens) / rate);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return Decision.allowed((long) tokens, (long) Math.ceil((capacity - tokens) / rate));
+            }
+            return Decision.rejected(resetMillis, (long) Math.ceil((1 - tokens) / rate));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.floppfun.filter;
+
+import com.floppfun.security.AuthenticatedUser;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+/**
+ * Builds rate limit keys from the matched route template and the caller.
+ *
+ * Filters run before the DispatcherServlet, so the route is looked up here with the MVC handler mapping
+ * ("/tokens/{id}" rather than "/tokens/123"), which bounds key cardinality by the number of endpoints.
+ * Authenticated callers are keyed by wallet, anonymous ones by client IP; wallets are additionally held
+ * to a per-IP ceiling (see {@link #resolveIpCeiling}), so minting wallets doesn't multiply one client's
+ * budget. Requests that match no handler share one "unmatched" route per caller.
+ */
+@Slf4j
+@Component
+public class RateLimitKeyResolver {
+
+    static final String UNMATCHED_ROUTE = "unmatched";
+
+    private final RequestMappingHandlerMapping handlerMapping;
+
+    public RateLimitKeyResolver(@Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping) {
+        this.handlerMapping = handlerMapping;
+    }
+
+    /**
+     * Get the route of a request as "METHOD /template"
+     */
+    public String resolveRoute(HttpServletRequest request) {
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            pattern = lookupPattern(request);
+        }
+        return pattern != null ? request.getMethod() + " " + pattern : UNMATCHED_ROUTE;
+    }
+
+    /**
+     * Get the caller part of the key: the authenticated wallet, or the client IP
+     */
+    public String resolveCaller(HttpServletRequest request) {
+        AuthenticatedUser user = AuthenticatedUser.from(SecurityContextHolder.getContext().getAuthentication());
+        return user != null ? "w:" + user.walletAddress() : "ip:" + getClientIP(request);
+    }
+
+    /**
+     * Get the per-IP ceiling key for a caller keyed by wallet, or null if the caller is already keyed by IP
+     */
+    public String resolveIpCeiling(HttpServletRequest request, String caller) {
+        return caller.startsWith("w:") ? "ipc:" + getClientIP(request) : null;
+    }
+
+    private String lookupPattern(HttpServletRequest request) {
+        boolean parsedHere = false;
+        try {
+            if (!ServletRequestPathUtils.hasParsedRequestPath(request)) {
+                ServletRequestPathUtils.parseAndCache(request);
+                parsedHere = true;
+            }
+            if (handlerMapping.getHandler(request) == null) {
+                return null;
+            }
+            return (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        } catch (Exception e) {
+            log.debug("No route for {} {}: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
+            return null;
+        } finally {
+            // Leave path parsing to the DispatcherServlet, as if we had never looked
+            if (parsedHere) {
+                ServletRequestPathUtils.clearParsedRequestPath(request);
+            }
+        }
+    }
+
+    /**
+     * Get client IP address, considering proxies
+     */
+    private String getClientIP(HttpServletRequest request) {
+        String xForwardedFor = request.getHeader("X-Forwarded-For");
+        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
+            int comma = xForwardedFor.indexOf(',');
+            return (comma >= 0 ? xForwardedFor.substring(0, comma) : xForwardedFor).trim();
+        }
+
+        String xRealIp = request.getHeader("X-Real-IP");
+        if (xRealIp != null && !xRealIp.isEmpty()) {
+            return xRealIp;
+        }
+
+        return request.getRemoteAddr();
+    }
+}
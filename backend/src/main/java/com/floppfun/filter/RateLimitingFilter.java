@@ -1,5 +1,7 @@
 package com.floppfun.filter;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,24 +10,37 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Rate Limiting Filter using Redis
- * Implements token bucket algorithm with Upstash Redis compatibility
+ * Implements token bucket algorithm with Upstash Redis compatibility (a Lua bucket in Redis, see
+ * {@link TokenBucketRateLimiter}, spent through local leases, see {@link LeasedRateLimiter}).
+ * Buckets are per route template and caller (see {@link RateLimitKeyResolver}); runs after the security
+ * filter chain so authenticated callers are keyed by wallet. Wallet callers first spend from a per-IP bucket
+ * of ip-ceiling-multiplier times the route's limit. Responses carry RateLimit-Limit/Remaining/Reset
+ * headers, rejections add Retry-After and are counted per route.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 @ConditionalOnProperty(value = "floppfun.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
 public class RateLimitingFilter extends OncePerRequestFilter {
 
-    private final RedisTemplate<String, String> redisTemplate;
+    private final LeasedRateLimiter rateLimiter;
+    private final RateLimitKeyResolver keyResolver;
+    private final MeterRegistry meterRegistry;
+
+    // One counter per route template, so bounded by the number of endpoints
+    private final Map<String, Counter> rejectionCounters = new ConcurrentHashMap<>();
 
     @Value("${floppfun.rate-limit.general.requests:100}")
     private int generalRequestsLimit;
@@ -51,109 +66,100 @@ public class RateLimitingFilter extends OncePerRequestFilter {
     @Value("${floppfun.rate-limit.trade.duration:60}")
     private int tradeDuration;
 
+    @Value("${floppfun.rate-limit.ip-ceiling-multiplier:5}")
+    private int ipCeilingMultiplier;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        String clientIp = getClientIP(request);
-        String requestPath = request.getRequestURI();
+        String route = keyResolver.resolveRoute(request);
+        String caller = keyResolver.resolveCaller(request);
 
         // Determine rate limit based on endpoint
-        RateLimitConfig config = getRateLimitConfig(requestPath);
+        RateLimitConfig config = getRateLimitConfig(route);
+
+        // Many wallets behind one IP still share a ceiling. Checked first, so a request the ceiling turns
+        // away isn't charged to the wallet's own bucket.
+        String ipCeiling = keyResolver.resolveIpCeiling(request, caller);
+        if (ipCeiling != null) {
+            LeasedRateLimiter.Decision ceiling = rateLimiter.tryAcquire(route + ":" + ipCeiling,
+                    config.maxRequests * ipCeilingMultiplier, config.duration);
+            if (ceiling != null && !ceiling.allowed()) {
+                response.setHeader("RateLimit-Limit", String.valueOf(config.maxRequests));
+                response.setHeader("RateLimit-Remaining", "0");
+                response.setHeader("RateLimit-Reset", String.valueOf(toSeconds(ceiling.resetMillis())));
+                reject(response, ceiling, route, config.name, ipCeiling);
+                return;
+            }
+        }
 
         // Check rate limit
-        if (!checkRateLimit(clientIp, requestPath, config)) {
-            log.warn("Rate limit exceeded for IP: {} on path: {}", clientIp, requestPath);
-            response.setStatus(429); // Too Many Requests
-            response.setContentType("application/json");
-            response.getWriter().write(
-                String.format("{\"error\":\"Rate limit exceeded. Try again in %d seconds.\"}", config.duration)
-            );
+        LeasedRateLimiter.Decision result = rateLimiter.tryAcquire(route + ":" + caller, config.maxRequests, config.duration);
+        if (result != null) {
+            response.setHeader("RateLimit-Limit", String.valueOf(config.maxRequests));
+            response.setHeader("RateLimit-Remaining", String.valueOf(result.remaining()));
+            response.setHeader("RateLimit-Reset", String.valueOf(toSeconds(result.resetMillis())));
+        }
+
+        if (result != null && !result.allowed()) {
+            reject(response, result, route, config.name, caller);
             return;
         }
 
         filterChain.doFilter(request, response);
     }
 
-    /**
-     * Check if request is within rate limit using Redis
-     */
-    private boolean checkRateLimit(String clientIp, String path, RateLimitConfig config) {
-        try {
-            String key = "rate_limit:" + sanitizeKey(path) + ":" + clientIp;
-
-            // Get current count
-            String currentCountStr = redisTemplate.opsForValue().get(key);
-            int currentCount = currentCountStr != null ? Integer.parseInt(currentCountStr) : 0;
-
-            if (currentCount >= config.maxRequests) {
-                return false;
-            }
-
-            // Increment counter
-            Long newCount = redisTemplate.opsForValue().increment(key);
-
-            // Set expiry on first request
-            if (newCount != null && newCount == 1) {
-                redisTemplate.expire(key, config.duration, TimeUnit.SECONDS);
-            }
-
-            return true;
-
-        } catch (Exception e) {
-            log.error("Error checking rate limit for IP {}: {}", clientIp, e.getMessage());
-            // Fail open - allow request if Redis is down
-            return true;
-        }
+    private void reject(HttpServletResponse response, LeasedRateLimiter.Decision result, String route, String tier,
+                        String caller) throws IOException {
+        long retryAfter = toSeconds(result.retryAfterMillis());
+        rejectionCounter(route, tier).increment();
+        log.warn("Rate limit exceeded for {} on {}", caller, route);
+        response.setStatus(429); // Too Many Requests
+        response.setHeader("Retry-After", String.valueOf(retryAfter));
+        response.setContentType("application/json");
+        response.getWriter().write(
+            String.format("{\"error\":\"Rate limit exceeded. Try again in %d seconds.\"}", retryAfter)
+        );
     }
 
-    /**
-     * Get rate limit configuration based on request path
-     */
-    private RateLimitConfig getRateLimitConfig(String path) {
-        if (path.contains("/auth/")) {
-            return new RateLimitConfig(authRequestsLimit, authDuration);
-        } else if (path.contains("/tokens") && path.endsWith("/create")) {
-            return new RateLimitConfig(tokenCreateRequestsLimit, tokenCreateDuration);
-        } else if (path.contains("/trade/") || path.contains("/buy") || path.contains("/sell")) {
-            return new RateLimitConfig(tradeRequestsLimit, tradeDuration);
-        } else {
-            return new RateLimitConfig(generalRequestsLimit, generalDuration);
-        }
+    private Counter rejectionCounter(String route, String tier) {
+        return rejectionCounters.computeIfAbsent(route, r -> Counter.builder("floppfun.rate_limit.rejections")
+                .description("Requests rejected by the rate limiter")
+                .tag("route", r)
+                .tag("tier", tier)
+                .register(meterRegistry));
     }
 
-    /**
-     * Get client IP address, considering proxies
-     */
-    private String getClientIP(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
-        }
-
-        return request.getRemoteAddr();
+    private static long toSeconds(long millis) {
+        return Math.max(0, (millis + 999) / 1000);
     }
 
     /**
-     * Sanitize path for use in Redis key
+     * Get rate limit configuration based on the route ("METHOD /template")
      */
-    private String sanitizeKey(String path) {
-        return path.replaceAll("[^a-zA-Z0-9/_-]", "_");
+    private RateLimitConfig getRateLimitConfig(String route) {
+        if (route.contains("/auth/")) {
+            return new RateLimitConfig("auth", authRequestsLimit, authDuration);
+        } else if (route.startsWith("POST /tokens/create")) {
+            return new RateLimitConfig("token-create", tokenCreateRequestsLimit, tokenCreateDuration);
+        } else if (route.startsWith("POST /trades/")) {
+            return new RateLimitConfig("trade", tradeRequestsLimit, tradeDuration);
+        } else {
+            return new RateLimitConfig("general", generalRequestsLimit, generalDuration);
+        }
     }
 
     /**
      * Rate limit configuration holder
      */
     private static class RateLimitConfig {
+        final String name;
         final int maxRequests;
         final int duration;
 
-        RateLimitConfig(int maxRequests, int duration) {
+        RateLimitConfig(String name, int maxRequests, int duration) {
+            this.name = name;
             this.maxRequests = maxRequests;
             this.duration = duration;
         }
@@ -0,0 +1,64 @@
+package com.floppfun.filter;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Redis token bucket (scripts/token_bucket.lua): refill, take and expire in one atomic EVALSHA.
+ *
+ * A bucket holds up to maxRequests tokens and refills continuously at maxRequests per window, so a client
+ * can burst to the limit and then sustain the configured rate. RedisTemplate runs the script by SHA and
+ * only sends the body on NOSCRIPT.
+ */
+@Component
+public class TokenBucketRateLimiter {
+
+    private static final String KEY_PREFIX = "rate_limit:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final DefaultRedisScript<List> script;
+
+    public TokenBucketRateLimiter(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.script = new DefaultRedisScript<>();
+        this.script.setLocation(new ClassPathResource("scripts/token_bucket.lua"));
+        this.script.setResultType(List.class);
+    }
+
+    /**
+     * Take up to the given number of tokens from a bucket (fewer if fewer are available)
+     *
+     * @throws org.springframework.dao.DataAccessException if Redis is unavailable
+     */
+    public Grant tryAcquire(String key, int maxRequests, int durationSeconds, int tokens) {
+        List<?> result = redisTemplate.execute(script, List.of(KEY_PREFIX + key),
+                String.valueOf(maxRequests),
+                String.valueOf(durationSeconds * 1000L),
+                String.valueOf(System.currentTimeMillis()),
+                String.valueOf(tokens));
+
+        if (result == null || result.size() < 4) {
+            throw new IllegalStateException("Unexpected rate limit script result: " + result);
+        }
+        return new Grant(
+                toLong(result.get(0)),
+                toLong(result.get(1)),
+                toLong(result.get(2)),
+                toLong(result.get(3)));
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.parseLong(value.toString());
+    }
+
+    /**
+     * Outcome of one acquire: tokens granted, remaining whole tokens, time until the bucket is full again,
+     * and (when nothing was granted) time until a retry can succeed
+     */
+    public record Grant(long granted, long remaining, long resetMillis, long retryAfterMillis) {
+    }
+}
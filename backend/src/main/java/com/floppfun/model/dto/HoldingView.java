@@ -0,0 +1,22 @@
+package com.floppfun.model.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a user holding joined with the token columns needed to display and value it.
+ * Selected with a JPQL constructor expression, so no UserHolding/Token entities are hydrated.
+ */
+public record HoldingView(
+        Long tokenId,
+        String tokenName,
+        String tokenSymbol,
+        String mintAddress,
+        String imageUrl,
+        Integer decimals,
+        BigDecimal currentPrice,
+        Long amount,
+        BigDecimal averagePrice,
+        LocalDateTime updatedAt
+) {
+}
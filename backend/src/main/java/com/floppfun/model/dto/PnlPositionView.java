@@ -0,0 +1,29 @@
+package com.floppfun.model.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a PnL ledger row joined with the user and token columns needed to display it.
+ * Selected with a JPQL constructor expression, so no PnlLedger/Token/User entities are hydrated.
+ */
+public record PnlPositionView(
+        Long userId,
+        String walletAddress,
+        String username,
+        Long tokenId,
+        String tokenName,
+        String tokenSymbol,
+        Integer decimals,
+        BigDecimal currentPrice,
+        Long positionAmount,
+        Long costBasis,
+        Long totalBought,
+        Long totalSold,
+        Long realizedPnl,
+        Long feesPaid,
+        Integer buyCount,
+        Integer sellCount,
+        LocalDateTime updatedAt
+) {
+}
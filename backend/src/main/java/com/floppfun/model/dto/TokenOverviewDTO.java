@@ -0,0 +1,32 @@
+package com.floppfun.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.floppfun.dto.CommentDTO;
+import com.floppfun.dto.TokenHolderDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Everything the token page needs in one payload.
+ * Sections that failed or timed out are null and listed in {@code unavailableSections}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenOverviewDTO {
+    private TokenDTO token;
+    private BigDecimal priceChange24h;
+    private BigDecimal volume24h;
+    private List<TokenHolderDTO> holders;
+    private List<PriceHistoryDTO> priceHistory;
+    private List<TransactionDTO> trades;
+    private List<CommentDTO> comments;
+    private List<String> unavailableSections;
+}
@@ -0,0 +1,9 @@
+package com.floppfun.model.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Current price and market cap of a token (read-only projection for live feeds)
+ */
+public record TokenQuote(Long tokenId, BigDecimal price, BigDecimal marketCap) {
+}
@@ -0,0 +1,49 @@
+package com.floppfun.model.dto;
+
+import com.floppfun.model.entity.Token;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of exactly the columns exposed by {@link TokenDTO} (creator flattened).
+ * Selected with a JPQL constructor expression, so no Token/User entities are hydrated or dirty-tracked.
+ */
+public record TokenView(
+        Long id,
+        String mintAddress,
+        String name,
+        String symbol,
+        String description,
+        String imageUrl,
+        String metadataUri,
+        Long totalSupply,
+        Integer decimals,
+        BigDecimal currentPrice,
+        BigDecimal marketCap,
+        BigDecimal volume24h,
+        Integer holdersCount,
+        Token.TokenStatus status,
+        BigDecimal bondingCurveProgress,
+        String website,
+        String twitter,
+        String telegram,
+        String discord,
+        Boolean isNsfw,
+        Boolean isFeatured,
+        LocalDateTime createdAt,
+        LocalDateTime lastTradeAt,
+        Long creatorId,
+        String creatorWalletAddress,
+        String creatorUsername,
+        String creatorAvatarUrl,
+        String creatorBio,
+        String creatorTwitterHandle,
+        String creatorTelegramHandle,
+        Boolean creatorIsVerified,
+        BigDecimal creatorTotalVolumeTraded,
+        Integer creatorTokensCreated,
+        Integer creatorReputationScore,
+        LocalDateTime creatorCreatedAt
+) {
+}
@@ -0,0 +1,18 @@
+package com.floppfun.model.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a user's PnL totals joined with their profile columns.
+ */
+public record TraderPnlView(
+        Long userId,
+        String walletAddress,
+        String username,
+        String avatarUrl,
+        Long realizedPnl,
+        Long feesPaid,
+        Integer tradeCount,
+        LocalDateTime updatedAt
+) {
+}
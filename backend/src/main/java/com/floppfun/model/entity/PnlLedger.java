@@ -0,0 +1,119 @@
+package com.floppfun.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+
+/**
+ * Running PnL position of one user in one token, updated with every recorded trade.
+ * All SOL amounts are lamports; cost basis uses the average-cost method and includes buy fees.
+ */
+@Entity
+@Table(name = "pnl_ledger",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "unique_pnl_ledger_user_token", columnNames = {"user_id", "token_id"})
+    },
+    indexes = {
+        @Index(name = "idx_pnl_ledger_token_realized", columnList = "token_id,realized_pnl DESC"),
+        @Index(name = "idx_pnl_ledger_user", columnList = "user_id")
+    }
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PnlLedger {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "token_id", nullable = false)
+    private Long tokenId;
+
+    @Column(name = "position_amount", nullable = false)
+    @Builder.Default
+    private Long positionAmount = 0L;   // Raw token units currently held (as far as recorded trades show)
+
+    @Column(name = "cost_basis", nullable = false)
+    @Builder.Default
+    private Long costBasis = 0L;        // Cost of the open position
+
+    @Column(name = "total_bought", nullable = false)
+    @Builder.Default
+    private Long totalBought = 0L;      // SOL spent on buys, fees included
+
+    @Column(name = "total_sold", nullable = false)
+    @Builder.Default
+    private Long totalSold = 0L;        // SOL received from sells, after fees
+
+    @Column(name = "realized_pnl", nullable = false)
+    @Builder.Default
+    private Long realizedPnl = 0L;
+
+    @Column(name = "fees_paid", nullable = false)
+    @Builder.Default
+    private Long feesPaid = 0L;
+
+    @Column(name = "buy_count", nullable = false)
+    @Builder.Default
+    private Integer buyCount = 0;
+
+    @Column(name = "sell_count", nullable = false)
+    @Builder.Default
+    private Integer sellCount = 0;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * Apply a buy: the full SOL paid (fee included) becomes cost basis
+     */
+    public void applyBuy(long tokenAmount, long solPaid, long fee) {
+        positionAmount += tokenAmount;
+        costBasis += solPaid;
+        totalBought += solPaid;
+        feesPaid += fee;
+        buyCount++;
+    }
+
+    /**
+     * Apply a sell at average cost and return the realized PnL of this sell.
+     * Selling more than the recorded position releases the whole remaining cost basis.
+     */
+    public long applySell(long tokenAmount, long solReceived, long fee) {
+        long costOfSold;
+        if (positionAmount <= 0 || tokenAmount >= positionAmount) {
+            costOfSold = costBasis;
+        } else {
+            costOfSold = BigInteger.valueOf(costBasis)
+                    .multiply(BigInteger.valueOf(tokenAmount))
+                    .divide(BigInteger.valueOf(positionAmount))
+                    .longValueExact();
+        }
+
+        long realized = solReceived - costOfSold;
+        positionAmount = Math.max(0, positionAmount - tokenAmount);
+        costBasis -= costOfSold;
+        totalSold += solReceived;
+        realizedPnl += realized;
+        feesPaid += fee;
+        sellCount++;
+        return realized;
+    }
+}
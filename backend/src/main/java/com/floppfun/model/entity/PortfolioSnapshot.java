@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 @Table(name = "portfolio_snapshots",
     indexes = {
         @Index(name = "idx_portfolio_snapshots_user", columnList = "user_id"),
-        @Index(name = "idx_portfolio_snapshots_created_at", columnList = "created_at")
+        @Index(name = "idx_portfolio_snapshots_created_at", columnList = "created_at"),
+        @Index(name = "idx_portfolio_snapshots_user_created", columnList = "user_id,created_at")
     }
 )
 @Data
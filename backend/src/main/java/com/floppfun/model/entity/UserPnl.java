@@ -0,0 +1,45 @@
+package com.floppfun.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-user totals of {@link PnlLedger}, kept alongside it so the trader leaderboard is an index scan.
+ * Updated with atomic increments (see PnlLedgerService), amounts in lamports.
+ */
+@Entity
+@Table(name = "user_pnl",
+    indexes = {
+        @Index(name = "idx_user_pnl_realized", columnList = "realized_pnl DESC")
+    }
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPnl {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "realized_pnl", nullable = false)
+    @Builder.Default
+    private Long realizedPnl = 0L;
+
+    @Column(name = "fees_paid", nullable = false)
+    @Builder.Default
+    private Long feesPaid = 0L;
+
+    @Column(name = "trade_count", nullable = false)
+    @Builder.Default
+    private Integer tradeCount = 0;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
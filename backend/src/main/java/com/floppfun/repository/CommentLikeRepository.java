@@ -6,7 +6,10 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface CommentLikeRepository extends JpaRepository<CommentLike, Long> {
@@ -21,6 +24,22 @@ public interface CommentLikeRepository extends JpaRepository<CommentLike, Long>
         @Param("userId") Long userId
     );
 
+    /**
+     * Get which of the given comments a user has liked (one query per page)
+     */
+    @Query("SELECT cl.comment.id FROM CommentLike cl WHERE cl.user.id = :userId " +
+           "AND cl.comment.id IN :commentIds")
+    Set<Long> findLikedCommentIds(
+        @Param("userId") Long userId,
+        @Param("commentIds") Collection<Long> commentIds
+    );
+
+    /**
+     * Get IDs of all users who liked a comment
+     */
+    @Query("SELECT cl.user.id FROM CommentLike cl WHERE cl.comment.id = :commentId")
+    List<Long> findUserIdsByCommentId(@Param("commentId") Long commentId);
+
     /**
      * Count likes for a comment
      */
@@ -3,19 +3,45 @@ package com.floppfun.repository;
 import com.floppfun.entity.Comment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    // Thread queries: the caller supplies the anchor SELECT (roots), these wrap it in the recursive CTE
+    String THREAD_CTE_PREFIX =
+        "WITH RECURSIVE thread AS ( (";
+
+    // Recursive step takes the first :replyLimit children of each node via LATERAL, then joins authors once.
+    // Aliases are quoted so Postgres keeps the camelCase names the ThreadRow projection expects.
+    String THREAD_CTE_SUFFIX =
+        ") UNION ALL " +
+        "SELECT r.id, r.token_id, r.user_id, r.parent_comment_id, r.content, r.likes_count, r.replies_count, " +
+        "       r.created_at, r.updated_at, t.depth + 1 " +
+        "FROM thread t CROSS JOIN LATERAL (" +
+        "    SELECT * FROM comments c WHERE c.parent_comment_id = t.id " +
+        "    ORDER BY c.created_at ASC, c.id ASC LIMIT :replyLimit) r " +
+        "WHERE t.depth < :maxDepth " +
+        ") " +
+        "SELECT th.id AS \"id\", th.token_id AS \"tokenId\", th.parent_comment_id AS \"parentCommentId\", " +
+        "       th.user_id AS \"userId\", u.wallet_address AS \"userWalletAddress\", u.username AS \"userName\", " +
+        "       th.content AS \"content\", th.likes_count AS \"likesCount\", th.replies_count AS \"repliesCount\", " +
+        "       th.depth AS \"depth\", th.created_at AS \"createdAt\", th.updated_at AS \"updatedAt\" " +
+        "FROM thread th JOIN users u ON u.id = th.user_id";
+
     /**
-     * Get comments for a token (paginated)
+     * Get comments for a token (paginated), authors fetched in the same query
      */
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT c FROM Comment c WHERE c.token.id = :tokenId " +
            "ORDER BY c.createdAt DESC")
     Page<Comment> findByTokenId(@Param("tokenId") Long tokenId, Pageable pageable);
@@ -23,6 +49,7 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     /**
      * Get comments by user (paginated)
      */
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT c FROM Comment c WHERE c.user.id = :userId " +
            "ORDER BY c.createdAt DESC")
     Page<Comment> findByUserId(@Param("userId") Long userId, Pageable pageable);
@@ -35,7 +62,90 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     /**
      * Get latest comments for a token (limited)
      */
+    @EntityGraph(attributePaths = "user")
     @Query("SELECT c FROM Comment c WHERE c.token.id = :tokenId " +
            "ORDER BY c.createdAt DESC LIMIT :limit")
     List<Comment> findLatestByTokenId(@Param("tokenId") Long tokenId, @Param("limit") int limit);
+
+    /**
+     * Get the token a comment belongs to, without loading the comment
+     */
+    @Query("SELECT c.token.id FROM Comment c WHERE c.id = :commentId")
+    Optional<Long> findTokenIdById(@Param("commentId") Long commentId);
+
+    /**
+     * Get a comment's persisted like count, without loading the comment
+     */
+    @Query("SELECT c.likesCount FROM Comment c WHERE c.id = :commentId")
+    Optional<Integer> findLikesCountById(@Param("commentId") Long commentId);
+
+    /**
+     * Count top-level comments for a token
+     */
+    long countByTokenIdAndParentCommentIdIsNull(Long tokenId);
+
+    /**
+     * Count direct replies to a comment
+     */
+    long countByParentCommentId(Long parentCommentId);
+
+    /**
+     * Load a page of top-level comments plus up to :replyLimit replies per comment, :maxDepth levels deep.
+     * Roots come newest first; replies oldest first. One round trip for the whole visible thread.
+     */
+    @Query(value = THREAD_CTE_PREFIX +
+           "SELECT id, token_id, user_id, parent_comment_id, content, likes_count, replies_count, " +
+           "       created_at, updated_at, 0 AS depth " +
+           "FROM comments WHERE token_id = :tokenId AND parent_comment_id IS NULL " +
+           "ORDER BY created_at DESC, id DESC LIMIT :limit OFFSET :offset" +
+           THREAD_CTE_SUFFIX, nativeQuery = true)
+    List<ThreadRow> findThreadPage(
+        @Param("tokenId") Long tokenId,
+        @Param("offset") long offset,
+        @Param("limit") int limit,
+        @Param("replyLimit") int replyLimit,
+        @Param("maxDepth") int maxDepth
+    );
+
+    /**
+     * Load a page of replies to one comment, each with its own first :replyLimit replies (expanding a branch)
+     */
+    @Query(value = THREAD_CTE_PREFIX +
+           "SELECT id, token_id, user_id, parent_comment_id, content, likes_count, replies_count, " +
+           "       created_at, updated_at, 0 AS depth " +
+           "FROM comments WHERE parent_comment_id = :parentId " +
+           "ORDER BY created_at ASC, id ASC LIMIT :limit OFFSET :offset" +
+           THREAD_CTE_SUFFIX, nativeQuery = true)
+    List<ThreadRow> findReplyThreads(
+        @Param("parentId") Long parentId,
+        @Param("offset") long offset,
+        @Param("limit") int limit,
+        @Param("replyLimit") int replyLimit,
+        @Param("maxDepth") int maxDepth
+    );
+
+    /**
+     * Adjust a comment's reply count in place (no read-modify-write)
+     */
+    @Modifying
+    @Query("UPDATE Comment c SET c.repliesCount = c.repliesCount + :delta WHERE c.id = :commentId")
+    int incrementRepliesCount(@Param("commentId") Long commentId, @Param("delta") int delta);
+
+    /**
+     * Flattened row of a thread query
+     */
+    interface ThreadRow {
+        Long getId();
+        Long getTokenId();
+        Long getParentCommentId();
+        Long getUserId();
+        String getUserWalletAddress();
+        String getUserName();
+        String getContent();
+        Integer getLikesCount();
+        Integer getRepliesCount();
+        Integer getDepth();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+    }
 }
@@ -0,0 +1,52 @@
+package com.floppfun.repository;
+
+import com.floppfun.model.dto.PnlPositionView;
+import com.floppfun.model.entity.PnlLedger;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PnlLedgerRepository extends JpaRepository<PnlLedger, Long> {
+
+    /**
+     * Load a ledger row for update, so concurrent trades by the same user in the same token apply in turn
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM PnlLedger l WHERE l.userId = :userId AND l.tokenId = :tokenId")
+    Optional<PnlLedger> findForUpdate(@Param("userId") Long userId, @Param("tokenId") Long tokenId);
+
+    @Query("SELECT new com.floppfun.model.dto.PnlPositionView(" +
+           "u.id, u.walletAddress, u.username, t.id, t.name, t.symbol, t.decimals, t.currentPrice, " +
+           "l.positionAmount, l.costBasis, l.totalBought, l.totalSold, l.realizedPnl, l.feesPaid, " +
+           "l.buyCount, l.sellCount, l.updatedAt) " +
+           "FROM PnlLedger l JOIN Token t ON t.id = l.tokenId JOIN User u ON u.id = l.userId " +
+           "WHERE l.tokenId = :tokenId ORDER BY l.realizedPnl DESC, l.id")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    List<PnlPositionView> findTokenLeaderboard(@Param("tokenId") Long tokenId, Pageable pageable);
+
+    @Query("SELECT new com.floppfun.model.dto.PnlPositionView(" +
+           "u.id, u.walletAddress, u.username, t.id, t.name, t.symbol, t.decimals, t.currentPrice, " +
+           "l.positionAmount, l.costBasis, l.totalBought, l.totalSold, l.realizedPnl, l.feesPaid, " +
+           "l.buyCount, l.sellCount, l.updatedAt) " +
+           "FROM PnlLedger l JOIN Token t ON t.id = l.tokenId JOIN User u ON u.id = l.userId " +
+           "WHERE l.userId = :userId ORDER BY l.updatedAt DESC")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    List<PnlPositionView> findPositionsByUserId(@Param("userId") Long userId);
+}
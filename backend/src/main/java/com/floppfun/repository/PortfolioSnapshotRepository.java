@@ -3,11 +3,15 @@ package com.floppfun.repository;
 import com.floppfun.model.entity.PortfolioSnapshot;
 import com.floppfun.model.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -19,19 +23,46 @@ public interface PortfolioSnapshotRepository extends JpaRepository<PortfolioSnap
     Optional<PortfolioSnapshot> findFirstByUserOrderByCreatedAtDesc(User user);
 
     /**
-     * Find snapshot from approximately 24 hours ago
+     * Find the latest snapshot at or before a point in time (single probe of the (user_id, created_at) index)
      */
-    @Query("SELECT ps FROM PortfolioSnapshot ps WHERE ps.user = :user " +
-           "AND ps.createdAt >= :startTime AND ps.createdAt <= :endTime " +
-           "ORDER BY ps.createdAt DESC")
-    Optional<PortfolioSnapshot> findSnapshot24hAgo(
-        @Param("user") User user,
-        @Param("startTime") LocalDateTime startTime,
-        @Param("endTime") LocalDateTime endTime
+    Optional<PortfolioSnapshot> findFirstByUserIdAndCreatedAtLessThanEqualOrderByCreatedAtDesc(
+        Long userId,
+        LocalDateTime time
     );
 
     /**
-     * Delete old snapshots (older than 30 days) to save space
+     * Get a user's value history since a point in time, one point (the last) per :bucket
+     * ('minute', 'hour' or 'day'), oldest first
      */
-    void deleteByCreatedAtBefore(LocalDateTime cutoffDate);
+    @Query(value = "SELECT DISTINCT ON (s.bucket) " +
+                   "       s.created_at AS \"timestamp\", s.total_value AS \"totalValue\", s.token_value AS \"tokenValue\" " +
+                   "FROM (SELECT date_trunc(:bucket, created_at) AS bucket, created_at, total_value, token_value " +
+                   "      FROM portfolio_snapshots " +
+                   "      WHERE user_id = :userId AND created_at >= :since) s " +
+                   // The bucket is computed once: each :bucket occurrence is bound as its own parameter,
+                   // and Postgres won't match DISTINCT ON to ORDER BY across different parameters
+                   "ORDER BY s.bucket, s.created_at DESC",
+           nativeQuery = true)
+    List<HistoryPoint> findHistory(
+        @Param("userId") Long userId,
+        @Param("since") LocalDateTime since,
+        @Param("bucket") String bucket
+    );
+
+    /**
+     * Delete snapshots older than the retention cutoff in one statement
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PortfolioSnapshot ps WHERE ps.createdAt < :cutoffDate")
+    int deleteByCreatedAtBefore(@Param("cutoffDate") LocalDateTime cutoffDate);
+
+    /**
+     * One point of a portfolio value history
+     */
+    interface HistoryPoint {
+        LocalDateTime getTimestamp();
+        BigDecimal getTotalValue();
+        BigDecimal getTokenValue();
+    }
 }
@@ -22,6 +22,15 @@ public interface PriceHistoryRepository extends JpaRepository<PriceHistory, Long
             Instant endTime
     );
 
+    /**
+     * Find price history for a token ID within a time range (no Token entity needed)
+     */
+    List<PriceHistory> findByTokenIdAndTimestampBetweenOrderByTimestampAsc(
+            Long tokenId,
+            Instant startTime,
+            Instant endTime
+    );
+
     /**
      * Find price history for a token after a certain time
      */
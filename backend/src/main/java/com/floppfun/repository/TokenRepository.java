@@ -1,14 +1,22 @@
 package com.floppfun.repository;
 
+import com.floppfun.model.dto.TokenQuote;
+import com.floppfun.model.dto.TokenView;
 import com.floppfun.model.entity.Token;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +31,13 @@ public interface TokenRepository extends JpaRepository<Token, Long> {
 
     boolean existsByMintAddress(String mintAddress);
 
+    /**
+     * Load a token for update, so concurrent trade confirmations apply their reserve changes in turn
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Token t WHERE t.id = :id")
+    Optional<Token> findForUpdate(@Param("id") Long id);
+
     @Query("SELECT t FROM Token t LEFT JOIN FETCH t.creator WHERE t.status = :status ORDER BY t.createdAt DESC")
     Page<Token> findByStatusOrderByCreatedAtDesc(@Param("status") Token.TokenStatus status, Pageable pageable);
 
@@ -49,4 +64,89 @@ public interface TokenRepository extends JpaRepository<Token, Long> {
 
     @Query("SELECT t FROM Token t LEFT JOIN FETCH t.creator WHERE t.status = :status")
     List<Token> findByStatus(@Param("status") Token.TokenStatus status);
+
+    // Read-only projections (TokenView) - select only the TokenDTO columns, no entity hydration
+
+    String TOKEN_VIEW_SELECT = "SELECT new com.floppfun.model.dto.TokenView(" +
+            "t.id, t.mintAddress, t.name, t.symbol, t.description, t.imageUrl, t.metadataUri, " +
+            "t.totalSupply, t.decimals, t.currentPrice, t.marketCap, t.volume24h, t.holdersCount, " +
+            "t.status, t.bondingCurveProgress, t.website, t.twitter, t.telegram, t.discord, " +
+            "t.isNsfw, t.isFeatured, t.createdAt, t.lastTradeAt, " +
+            "c.id, c.walletAddress, c.username, c.avatarUrl, c.bio, c.twitterHandle, c.telegramHandle, " +
+            "c.isVerified, c.totalVolumeTraded, c.tokensCreated, c.reputationScore, c.createdAt) " +
+            "FROM Token t LEFT JOIN t.creator c ";
+
+    @Query(TOKEN_VIEW_SELECT + "WHERE t.id = :id")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    Optional<TokenView> findViewById(@Param("id") Long id);
+
+    @Query(TOKEN_VIEW_SELECT + "WHERE t.mintAddress = :mintAddress")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    Optional<TokenView> findViewByMintAddress(@Param("mintAddress") String mintAddress);
+
+    @Query(value = TOKEN_VIEW_SELECT + "WHERE t.status = :status ORDER BY t.createdAt DESC",
+           countQuery = "SELECT COUNT(t) FROM Token t WHERE t.status = :status")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    Page<TokenView> findViewsByStatus(@Param("status") Token.TokenStatus status, Pageable pageable);
+
+    @Query(value = TOKEN_VIEW_SELECT + "WHERE t.status = :status ORDER BY t.volume24h DESC",
+           countQuery = "SELECT COUNT(t) FROM Token t WHERE t.status = :status")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    Page<TokenView> findTrendingViews(@Param("status") Token.TokenStatus status, Pageable pageable);
+
+    @Query(value = TOKEN_VIEW_SELECT + "WHERE c.id = :creatorId ORDER BY t.createdAt DESC",
+           countQuery = "SELECT COUNT(t) FROM Token t WHERE t.creator.id = :creatorId")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    Page<TokenView> findViewsByCreatorId(@Param("creatorId") Long creatorId, Pageable pageable);
+
+    @Query(value = TOKEN_VIEW_SELECT + "WHERE " +
+           "LOWER(t.name) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(t.symbol) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(t.description) LIKE LOWER(CONCAT('%', :query, '%'))",
+           countQuery = "SELECT COUNT(t) FROM Token t WHERE " +
+           "LOWER(t.name) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(t.symbol) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(t.description) LIKE LOWER(CONCAT('%', :query, '%'))")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    Page<TokenView> searchViews(@Param("query") String query, Pageable pageable);
+
+    @Query(TOKEN_VIEW_SELECT + "JOIN Watchlist w ON w.token = t WHERE w.user.id = :userId ORDER BY w.createdAt DESC")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    List<TokenView> findWatchlistViews(@Param("userId") Long userId);
+
+    @Query("SELECT new com.floppfun.model.dto.TokenQuote(t.id, t.currentPrice, t.marketCap) " +
+           "FROM Token t WHERE t.id IN :ids")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    List<TokenQuote> findQuotesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.floppfun.model.dto.TokenQuote(t.id, t.currentPrice, t.marketCap) FROM Token t")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    List<TokenQuote> findAllQuotes();
 }
@@ -3,12 +3,14 @@ package com.floppfun.repository;
 import com.floppfun.model.entity.Transaction;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,19 +21,27 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 
     boolean existsBySignature(String signature);
 
-    Page<Transaction> findByTokenIdOrderByCreatedAtDesc(Long tokenId, Pageable pageable);
+    @EntityGraph(attributePaths = {"token", "user"})
+    List<Transaction> findByIdInOrderByIdAsc(Collection<Long> ids);
 
+    // Token-wide history, counts and volume only include CONFIRMED trades; a user's own history also shows
+    // their PENDING and FAILED ones
+    @EntityGraph(attributePaths = {"token", "user"})
+    Page<Transaction> findByTokenIdAndStatusOrderByCreatedAtDesc(Long tokenId, Transaction.TransactionStatus status,
+                                                                 Pageable pageable);
+
+    @EntityGraph(attributePaths = {"token", "user"})
     Page<Transaction> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
 
-    @Query("SELECT t FROM Transaction t WHERE t.token.id = :tokenId AND t.createdAt > :since ORDER BY t.createdAt DESC")
+    @Query("SELECT t FROM Transaction t WHERE t.token.id = :tokenId AND t.status = 'CONFIRMED' AND t.createdAt > :since ORDER BY t.createdAt DESC")
     List<Transaction> findRecentTokenTransactions(@Param("tokenId") Long tokenId, @Param("since") LocalDateTime since);
 
-    @Query("SELECT t FROM Transaction t WHERE t.createdAt > :since ORDER BY t.createdAt DESC")
+    @Query("SELECT t FROM Transaction t WHERE t.status = 'CONFIRMED' AND t.createdAt > :since ORDER BY t.createdAt DESC")
     List<Transaction> findRecentTransactions(@Param("since") LocalDateTime since, Pageable pageable);
 
-    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.token.id = :tokenId AND t.transactionType = :type")
+    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.token.id = :tokenId AND t.transactionType = :type AND t.status = 'CONFIRMED'")
     Long countByTokenIdAndType(@Param("tokenId") Long tokenId, @Param("type") Transaction.TransactionType type);
 
-    @Query("SELECT SUM(t.solAmount) FROM Transaction t WHERE t.token.id = :tokenId AND t.createdAt > :since")
+    @Query("SELECT SUM(t.solAmount) FROM Transaction t WHERE t.token.id = :tokenId AND t.status = 'CONFIRMED' AND t.createdAt > :since")
     Long calculateVolumeForToken(@Param("tokenId") Long tokenId, @Param("since") LocalDateTime since);
 }
@@ -1,8 +1,12 @@
 package com.floppfun.repository;
 
+import com.floppfun.model.dto.HoldingView;
 import com.floppfun.model.entity.UserHolding;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -23,4 +27,14 @@ public interface UserHoldingRepository extends JpaRepository<UserHolding, Long>
 
     @Query("SELECT h FROM UserHolding h WHERE h.user.id = :userId AND h.amount > 0 ORDER BY h.updatedAt DESC")
     List<UserHolding> findActiveHoldingsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new com.floppfun.model.dto.HoldingView(" +
+           "t.id, t.name, t.symbol, t.mintAddress, t.imageUrl, t.decimals, t.currentPrice, " +
+           "h.amount, h.averagePrice, h.updatedAt) " +
+           "FROM UserHolding h JOIN h.token t WHERE h.user.id = :userId AND h.amount > 0 ORDER BY h.updatedAt DESC")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    List<HoldingView> findActiveHoldingViewsByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,27 @@
+package com.floppfun.repository;
+
+import com.floppfun.model.dto.TraderPnlView;
+import com.floppfun.model.entity.UserPnl;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserPnlRepository extends JpaRepository<UserPnl, Long> {
+
+    @Query("SELECT new com.floppfun.model.dto.TraderPnlView(" +
+           "u.id, u.walletAddress, u.username, u.avatarUrl, p.realizedPnl, p.feesPaid, p.tradeCount, p.updatedAt) " +
+           "FROM UserPnl p JOIN User u ON u.id = p.userId " +
+           "ORDER BY p.realizedPnl DESC, p.userId")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    List<TraderPnlView> findTraderLeaderboard(Pageable pageable);
+}
@@ -24,6 +24,12 @@ public interface WatchlistRepository extends JpaRepository<Watchlist, Long> {
            "ORDER BY w.createdAt DESC")
     List<Watchlist> findByUserId(@Param("userId") Long userId);
 
+    /**
+     * Get IDs of all tokens in a user's watchlist
+     */
+    @Query("SELECT w.token.id FROM Watchlist w WHERE w.user.id = :userId")
+    List<Long> findTokenIdsByUserId(@Param("userId") Long userId);
+
     /**
      * Check if token is in user's watchlist
      */
@@ -0,0 +1,30 @@
+package com.floppfun.scheduler;
+
+import com.floppfun.service.CommentLikeCounter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler to write buffered comment like counts to the database
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommentLikeFlushScheduler {
+
+    private final CommentLikeCounter commentLikeCounter;
+
+    /**
+     * Flush like count deltas every 5 seconds
+     */
+    @Scheduled(fixedDelayString = "${floppfun.comments.likes.flush-interval:5000}")
+    public void flushLikeCounts() {
+        try {
+            commentLikeCounter.flush();
+        } catch (Exception e) {
+            log.error("Comment like flush failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.floppfun.scheduler;
+
+import com.floppfun.config.Bulkhead;
+import com.floppfun.service.PortfolioSnapshotBatchService;
+import com.floppfun.service.PortfolioSnapshotCompactionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler to snapshot every user's portfolio server-side and compact old snapshots.
+ * Both jobs run in the batch bulkhead, off the shared scheduling threads.
+ *
+ * Enable/disable with property: floppfun.portfolio.snapshot.enabled=true/false
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(
+    value = "floppfun.portfolio.snapshot.enabled",
+    havingValue = "true",
+    matchIfMissing = true // Enabled by default
+)
+public class PortfolioSnapshotScheduler {
+
+    private final PortfolioSnapshotBatchService portfolioSnapshotBatchService;
+    private final PortfolioSnapshotCompactionService portfolioSnapshotCompactionService;
+    private final Bulkhead batchBulkhead;
+
+    public PortfolioSnapshotScheduler(
+            PortfolioSnapshotBatchService portfolioSnapshotBatchService,
+            PortfolioSnapshotCompactionService portfolioSnapshotCompactionService,
+            @Qualifier("batchBulkhead") Bulkhead batchBulkhead) {
+        this.portfolioSnapshotBatchService = portfolioSnapshotBatchService;
+        this.portfolioSnapshotCompactionService = portfolioSnapshotCompactionService;
+        this.batchBulkhead = batchBulkhead;
+    }
+
+    /**
+     * Snapshot all portfolios every 15 minutes
+     */
+    @Scheduled(fixedDelayString = "${floppfun.portfolio.snapshot.interval:900000}",
+               initialDelayString = "${floppfun.portfolio.snapshot.initial-delay:60000}")
+    public void snapshotPortfolios() {
+        try {
+            batchBulkhead.call(portfolioSnapshotBatchService::snapshotAll);
+        } catch (Exception e) {
+            log.error("Scheduled portfolio snapshot failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Downsample old snapshots every hour
+     */
+    @Scheduled(fixedDelayString = "${floppfun.portfolio.compaction.interval:3600000}",
+               initialDelayString = "${floppfun.portfolio.compaction.initial-delay:300000}")
+    public void compactSnapshots() {
+        try {
+            batchBulkhead.call(portfolioSnapshotCompactionService::compact);
+        } catch (Exception e) {
+            log.error("Portfolio snapshot compaction failed: {}", e.getMessage(), e);
+        }
+    }
+}
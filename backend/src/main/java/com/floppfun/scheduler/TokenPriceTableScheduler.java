@@ -0,0 +1,30 @@
+package com.floppfun.scheduler;
+
+import com.floppfun.service.TokenPriceTable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler to reload the in-memory token price table
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenPriceTableScheduler {
+
+    private final TokenPriceTable tokenPriceTable;
+
+    /**
+     * Reload all token prices every 15 seconds (picks up changes made by other instances)
+     */
+    @Scheduled(fixedDelayString = "${floppfun.portfolio.price-table-refresh-interval:15000}")
+    public void refreshPriceTable() {
+        try {
+            tokenPriceTable.refreshAll();
+        } catch (Exception e) {
+            log.error("Price table refresh failed: {}", e.getMessage(), e);
+        }
+    }
+}
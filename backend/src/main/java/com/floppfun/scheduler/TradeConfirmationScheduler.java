@@ -0,0 +1,51 @@
+package com.floppfun.scheduler;
+
+import com.floppfun.service.TradeConfirmationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler to confirm pending trades on-chain
+ *
+ * Enable/disable with property: floppfun.trading.confirmation.enabled=true/false
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+    value = "floppfun.trading.confirmation.enabled",
+    havingValue = "true",
+    matchIfMissing = true // Enabled by default
+)
+public class TradeConfirmationScheduler {
+
+    private final TradeConfirmationService tradeConfirmationService;
+
+    /**
+     * Check queued trade signatures every 500ms (up to 256 per RPC call)
+     */
+    @Scheduled(fixedDelayString = "${floppfun.trading.confirmation.interval:500}")
+    public void verifyPendingTrades() {
+        try {
+            tradeConfirmationService.verifyPending();
+        } catch (Exception e) {
+            log.error("Trade confirmation failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Pick up PENDING trades queued by other (or restarted) instances every minute
+     */
+    @Scheduled(fixedDelayString = "${floppfun.trading.confirmation.rescan-interval:60000}",
+               initialDelayString = "${floppfun.trading.confirmation.rescan-interval:60000}")
+    public void requeuePendingTrades() {
+        try {
+            tradeConfirmationService.requeuePending();
+        } catch (Exception e) {
+            log.error("Pending trade rescan failed: {}", e.getMessage(), e);
+        }
+    }
+}
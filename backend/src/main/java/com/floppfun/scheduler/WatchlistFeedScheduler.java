@@ -0,0 +1,30 @@
+package com.floppfun.scheduler;
+
+import com.floppfun.service.WatchlistFeedService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler to push batched watchlist price updates to connected users
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WatchlistFeedScheduler {
+
+    private final WatchlistFeedService watchlistFeedService;
+
+    /**
+     * Publish a watchlist tick every second
+     */
+    @Scheduled(fixedDelayString = "${floppfun.watchlist.feed.interval:1000}")
+    public void publishWatchlistTick() {
+        try {
+            watchlistFeedService.publishTick();
+        } catch (Exception e) {
+            log.error("Watchlist feed tick failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.floppfun.security;
+
+import org.springframework.security.core.Authentication;
+
+import java.security.Principal;
+
+/**
+ * Principal published for JWT-authenticated requests and STOMP sessions.
+ * getName() is the wallet address, so code using Authentication.getName() and /user destinations is unchanged.
+ */
+public record AuthenticatedUser(Long userId, String walletAddress) implements Principal {
+
+    @Override
+    public String getName() {
+        return walletAddress;
+    }
+
+    /**
+     * Get the authenticated user behind a principal or Authentication, or null if anonymous
+     */
+    public static AuthenticatedUser from(Principal principal) {
+        if (principal instanceof AuthenticatedUser user) {
+            return user;
+        }
+        if (principal instanceof Authentication authentication && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user;
+        }
+        return null;
+    }
+
+    /**
+     * Get the authenticated user's ID, or null if anonymous
+     */
+    public static Long userIdOf(Principal principal) {
+        AuthenticatedUser user = from(principal);
+        return user != null ? user.userId() : null;
+    }
+}
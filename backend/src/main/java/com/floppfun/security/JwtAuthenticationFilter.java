@@ -30,15 +30,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String walletAddress = tokenProvider.getWalletAddressFromToken(jwt);
+            AuthenticatedUser user = StringUtils.hasText(jwt) ? tokenProvider.getAuthenticatedUser(jwt) : null;
 
+            if (user != null) {
                 UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(walletAddress, null, Collections.emptyList());
+                        new UsernamePasswordAuthenticationToken(user, null, Collections.emptyList());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-                log.debug("Set authentication for wallet: {}", walletAddress);
+                log.debug("Set authentication for wallet: {}", user.walletAddress());
             }
         } catch (Exception ex) {
             log.error("Could not set user authentication in security context", ex);
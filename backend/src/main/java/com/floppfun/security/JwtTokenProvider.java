@@ -1,38 +1,92 @@
 package com.floppfun.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Issues and verifies JWTs.
+ *
+ * One immutable, thread-safe parser is built at startup and shared by all requests. Verified tokens are
+ * cached by SHA-256 digest until the earlier of their own expiry and the cache TTL, so repeat requests
+ * with the same bearer skip parsing and the HMAC check entirely. Invalid tokens are never cached.
+ */
 @Slf4j
 @Component
 public class JwtTokenProvider {
 
+    private static final String USER_ID_CLAIM = "uid";
+
     private final SecretKey secretKey;
     private final long expirationTime;
+    private final WalletUserIdCache walletUserIdCache;
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verifiedTokens;
 
     public JwtTokenProvider(
             @Value("${floppfun.jwt.secret}") String secret,
-            @Value("${floppfun.jwt.expiration}") long expirationTime) {
+            @Value("${floppfun.jwt.expiration}") long expirationTime,
+            @Value("${floppfun.jwt.verified-cache.max-size:10000}") long verifiedCacheMaxSize,
+            @Value("${floppfun.jwt.verified-cache.ttl:300}") long verifiedCacheTtlSeconds,
+            WalletUserIdCache walletUserIdCache,
+            MeterRegistry meterRegistry) {
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.expirationTime = expirationTime;
+        this.walletUserIdCache = walletUserIdCache;
+        this.parser = Jwts.parser()
+                .verifyWith(secretKey)
+                .build();
+
+        long maxTtlNanos = TimeUnit.SECONDS.toNanos(verifiedCacheTtlSeconds);
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        long untilExpiry = TimeUnit.MILLISECONDS.toNanos(value.expiresAtMillis() - System.currentTimeMillis());
+                        return Math.max(0, Math.min(untilExpiry, maxTtlNanos));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt-verified");
     }
 
     /**
-     * Generate JWT token for a wallet address
+     * Generate JWT token for a wallet address, carrying the user ID so requests need no user lookup
      */
-    public String generateToken(String walletAddress) {
+    public String generateToken(String walletAddress, Long userId) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expirationTime);
 
         return Jwts.builder()
                 .subject(walletAddress)
+                .claim(USER_ID_CLAIM, userId)
                 .issuedAt(now)
                 .expiration(expiryDate)
                 .signWith(secretKey)
@@ -43,13 +97,47 @@ public class JwtTokenProvider {
      * Extract wallet address from JWT token
      */
     public String getWalletAddressFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+    }
 
-        return claims.getSubject();
+    /**
+     * Validate a JWT token and resolve its principal with at most one verification.
+     * Tokens without the uid claim (issued before it existed) fall back to the wallet -> ID cache.
+     *
+     * @return the authenticated user, or null if the token is invalid or its user does not exist
+     */
+    public AuthenticatedUser getAuthenticatedUser(String token) {
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            // The cache TTL can't outlive the token, but the entry may be read in the same tick it expires
+            return cached.expiresAtMillis() > System.currentTimeMillis() ? cached.user() : null;
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("Invalid JWT token: {}", e.getMessage());
+            return null;
+        }
+
+        String walletAddress = claims.getSubject();
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        if (userId == null) {
+            userId = walletUserIdCache.getUserId(walletAddress);
+            if (userId == null) {
+                return null;
+            }
+        }
+
+        AuthenticatedUser user = new AuthenticatedUser(userId, walletAddress);
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(digest, new VerifiedToken(user, claims.getExpiration().getTime()));
+        }
+        return user;
     }
 
     /**
@@ -57,10 +145,7 @@ public class JwtTokenProvider {
      */
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token);
+            parser.parseSignedClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
@@ -73,15 +158,24 @@ public class JwtTokenProvider {
      */
     public boolean isTokenExpired(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            Claims claims = parser.parseSignedClaims(token).getPayload();
 
             return claims.getExpiration().before(new Date());
         } catch (JwtException e) {
             return true;
         }
     }
+
+    // MessageDigest instances are not thread-safe, so each call gets its own
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record VerifiedToken(AuthenticatedUser user, long expiresAtMillis) {
+    }
 }
@@ -0,0 +1,47 @@
+package com.floppfun.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Collections;
+
+/**
+ * Authenticates STOMP sessions from the JWT sent in the CONNECT frame's Authorization header.
+ * The session principal is an {@link AuthenticatedUser} whose name is the wallet address, which is what /user/queue/... destinations resolve against.
+ * Connections without a valid token stay anonymous and can still use public /topic destinations.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private final JwtTokenProvider tokenProvider;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || !StompCommand.CONNECT.equals(accessor.getCommand())) {
+            return message;
+        }
+
+        String bearerToken = accessor.getFirstNativeHeader("Authorization");
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+            String jwt = bearerToken.substring(7);
+            AuthenticatedUser user = tokenProvider.getAuthenticatedUser(jwt);
+            if (user != null) {
+                accessor.setUser(new UsernamePasswordAuthenticationToken(user, null, Collections.emptyList()));
+                log.debug("Authenticated STOMP session for wallet: {}", user.walletAddress());
+            }
+        }
+        return message;
+    }
+}
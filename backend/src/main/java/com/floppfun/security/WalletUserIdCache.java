@@ -0,0 +1,54 @@
+package com.floppfun.security;
+
+import com.floppfun.model.entity.User;
+import com.floppfun.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Bounded wallet address -> user ID cache for tokens issued before the uid claim existed.
+ * Wallet-to-ID never changes once a user exists, so entries only leave by size or age; misses are not cached.
+ */
+@Component
+public class WalletUserIdCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, Long> userIds;
+
+    public WalletUserIdCache(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${floppfun.jwt.user-id-cache.max-size:50000}") long maxSize,
+            @Value("${floppfun.jwt.user-id-cache.expire-after-write:86400}") long expireAfterWriteSeconds) {
+        this.userRepository = userRepository;
+        this.userIds = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, userIds, "wallet-user-id");
+    }
+
+    /**
+     * Get the user ID for a wallet, or null if no such user exists
+     */
+    public Long getUserId(String walletAddress) {
+        Long userId = userIds.getIfPresent(walletAddress);
+        if (userId != null) {
+            return userId;
+        }
+        userId = userRepository.findByWalletAddress(walletAddress)
+                .map(User::getId)
+                .orElse(null);
+        if (userId != null) {
+            userIds.put(walletAddress, userId);
+        }
+        return userId;
+    }
+}
@@ -1,15 +1,15 @@
 package com.floppfun.service;
 
+import com.floppfun.event.TokenStateChangedEvent;
 import com.floppfun.model.entity.Token;
 import com.floppfun.repository.TokenRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import okhttp3.*;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.p2p.solanaj.core.PublicKey;
 
 import java.math.BigDecimal;
@@ -18,6 +18,7 @@ import java.math.RoundingMode;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Base64;
 import java.util.List;
 import java.util.Arrays;
@@ -31,15 +32,15 @@ import java.util.Arrays;
 public class BlockchainSyncService {
 
     private final TokenRepository tokenRepository;
-    private final OkHttpClient httpClient = new OkHttpClient();
-    private final ObjectMapper objectMapper = new ObjectMapper();
-
-    @Value("${floppfun.solana.rpc-url}")
-    private String rpcUrl;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SolanaAccountCache solanaAccountCache;
 
     @Value("${floppfun.solana.program-id}")
     private String bondingCurveProgramId;
 
+    @Value("${floppfun.solana.rpc.hot-token-window-minutes:60}")
+    private long hotTokenWindowMinutes;
+
     private static final long LAMPORTS_PER_SOL = 1_000_000_000L;
     private static final int DECIMALS = 6; // Token decimals (pump.fun standard)
 
@@ -54,8 +55,8 @@ public class BlockchainSyncService {
             // Get bonding curve account PDA
             String bondingCurvePda = deriveBondingCurvePda(token.getMintAddress());
 
-            // Fetch account data from blockchain
-            BondingCurveState state = fetchBondingCurveState(bondingCurvePda);
+            // Fetch account data from blockchain; recently traded tokens go ahead of quiet ones
+            BondingCurveState state = fetchBondingCurveState(bondingCurvePda, syncPriority(token));
 
             if (state == null) {
                 log.warn("Bonding curve account not found for token {}", token.getMintAddress());
@@ -100,53 +101,33 @@ public class BlockchainSyncService {
         log.info("Blockchain sync completed: {} successful, {} failed", successCount, failCount);
     }
 
+    private RpcPriority syncPriority(Token token) {
+        LocalDateTime lastTradeAt = token.getLastTradeAt();
+        boolean hot = lastTradeAt != null && lastTradeAt.isAfter(LocalDateTime.now().minusMinutes(hotTokenWindowMinutes));
+        return hot ? RpcPriority.HOT_SYNC : RpcPriority.BACKFILL;
+    }
+
     /**
      * Fetch bonding curve state from blockchain
      */
-    private BondingCurveState fetchBondingCurveState(String bondingCurvePda) {
+    private BondingCurveState fetchBondingCurveState(String bondingCurvePda, RpcPriority priority) {
         try {
-            // Build RPC request
-            String jsonRequest = String.format(
-                    "{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"getAccountInfo\",\"params\":[\"%s\",{\"encoding\":\"base64\"}]}",
-                    bondingCurvePda
-            );
+            JsonNode result = solanaAccountCache.getAccountInfo(priority, bondingCurvePda, "base64", 0);
 
-            RequestBody body = RequestBody.create(
-                    jsonRequest,
-                    MediaType.parse("application/json")
-            );
-
-            Request request = new Request.Builder()
-                    .url(rpcUrl)
-                    .post(body)
-                    .build();
-
-            // Execute request
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    log.error("RPC request failed: {}", response.code());
-                    return null;
-                }
-
-                String responseBody = response.body().string();
-                JsonNode root = objectMapper.readTree(responseBody);
-                JsonNode result = root.get("result");
-
-                if (result == null || result.get("value").isNull()) {
-                    log.warn("Account not found: {}", bondingCurvePda);
-                    return null;
-                }
-
-                // Decode account data
-                String base64Data = result.get("value").get("data").get(0).asText();
-                byte[] accountData = Base64.getDecoder().decode(base64Data);
-
-                // Parse bonding curve state
-                return parseBondingCurveAccount(accountData);
+            if (result.path("value").isMissingNode() || result.path("value").isNull()) {
+                log.warn("Account not found: {}", bondingCurvePda);
+                return null;
             }
 
+            // Decode account data
+            String base64Data = result.get("value").get("data").get(0).asText();
+            byte[] accountData = Base64.getDecoder().decode(base64Data);
+
+            // Parse bonding curve state
+            return parseBondingCurveAccount(accountData);
+
         } catch (Exception e) {
-            log.error("Failed to fetch bonding curve state: {}", e.getMessage(), e);
+            log.error("Failed to fetch bonding curve state: {}", e.getMessage());
             return null;
         }
     }
@@ -232,6 +213,7 @@ public class BlockchainSyncService {
 
         // Save updated token
         tokenRepository.save(token);
+        eventPublisher.publishEvent(new TokenStateChangedEvent(token.getId(), TokenStateChangedEvent.Reason.SYNC));
     }
 
     /**
@@ -0,0 +1,305 @@
+package com.floppfun.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Comment like membership and counts, kept in Redis.
+ *
+ * - Membership: one set of user IDs per comment (comment-likes:members:{id}), warmed from
+ *   comment_likes on first use. SADD/SREM decide like/unlike without touching the comments row.
+ * - Counts: +1/-1 deltas accumulate in one hash (HINCRBY) and are written behind to Postgres by
+ *   {@link #flush()} as batched "likes_count = likes_count + delta" updates.
+ *
+ * If Redis is unavailable callers fall back to the database path (row lookup + atomic UPDATE). The
+ * like set of a comment changed that way is then stale, so it is evicted once Redis is reachable again
+ * and reloaded from comment_likes on next use.
+ */
+@Service
+@Slf4j
+public class CommentLikeCounter {
+
+    private static final String MEMBERS_PREFIX = "comment-likes:members:";
+    private static final String PENDING_KEY = "comment-likes:pending";
+    private static final String FLUSHING_KEY = "comment-likes:flushing";
+    private static final String FLUSH_ID_KEY = "comment-likes:flush-id";
+    private static final String FLUSH_LOCK_KEY = "comment-likes:flush-lock";
+
+    // Keeps an empty-but-warm set alive so we don't reload it from the DB on every check
+    private static final String WARM_MARKER = "-";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate flushTransaction;
+    private final DefaultRedisScript<Long> releaseLockScript;
+    private final Duration membersTtl;
+    private final Duration flushLockTtl;
+
+    // Like sets changed through the database fallback whose eviction hasn't reached Redis yet
+    private final Set<Long> staleMembers = ConcurrentHashMap.newKeySet();
+
+    public CommentLikeCounter(
+            RedisTemplate<String, String> redisTemplate,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${floppfun.comments.likes.members-ttl:86400}") long membersTtlSeconds,
+            @Value("${floppfun.comments.likes.flush-lock-ttl:30}") long flushLockTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.releaseLockScript = new DefaultRedisScript<>();
+        this.releaseLockScript.setLocation(new ClassPathResource("scripts/release_lock.lua"));
+        this.releaseLockScript.setResultType(Long.class);
+        this.membersTtl = Duration.ofSeconds(membersTtlSeconds);
+        this.flushLockTtl = Duration.ofSeconds(flushLockTtlSeconds);
+    }
+
+    /**
+     * Add the user to the comment's like set.
+     * Returns false if the user had already liked it. The count delta is applied after the
+     * surrounding transaction commits; on rollback the membership is undone.
+     *
+     * @throws DataAccessException if Redis is unavailable
+     */
+    public boolean addLike(Long commentId, Long userId, Supplier<List<Long>> persistedLikers) {
+        String membersKey = warmMembers(commentId, persistedLikers);
+        Long added = redisTemplate.opsForSet().add(membersKey, userId.toString());
+        if (added == null || added == 0) {
+            return false;
+        }
+        afterCompletion(
+                () -> redisTemplate.opsForHash().increment(PENDING_KEY, commentId.toString(), 1),
+                () -> redisTemplate.opsForSet().remove(membersKey, userId.toString()));
+        return true;
+    }
+
+    /**
+     * Remove the user from the comment's like set.
+     * Returns false if the user had not liked it.
+     *
+     * @throws DataAccessException if Redis is unavailable
+     */
+    public boolean removeLike(Long commentId, Long userId, Supplier<List<Long>> persistedLikers) {
+        String membersKey = warmMembers(commentId, persistedLikers);
+        Long removed = redisTemplate.opsForSet().remove(membersKey, userId.toString());
+        if (removed == null || removed == 0) {
+            return false;
+        }
+        afterCompletion(
+                () -> redisTemplate.opsForHash().increment(PENDING_KEY, commentId.toString(), -1),
+                () -> redisTemplate.opsForSet().add(membersKey, userId.toString()));
+        return true;
+    }
+
+    /**
+     * Get unflushed like deltas for the given comments (missing = 0).
+     * Returns an empty map if Redis is unavailable, so callers just show the persisted count.
+     */
+    public Map<Long, Long> getPendingDeltas(Collection<Long> commentIds) {
+        Map<Long, Long> deltas = new HashMap<>();
+        if (commentIds.isEmpty()) {
+            return deltas;
+        }
+        List<Object> fields = new ArrayList<>(commentIds.size());
+        commentIds.forEach(id -> fields.add(id.toString()));
+        try {
+            List<Object> pending = redisTemplate.opsForHash().multiGet(PENDING_KEY, fields);
+            List<Object> flushing = redisTemplate.opsForHash().multiGet(FLUSHING_KEY, fields);
+            int i = 0;
+            for (Long id : commentIds) {
+                long delta = parse(pending.get(i)) + parse(flushing.get(i));
+                if (delta != 0) {
+                    deltas.put(id, delta);
+                }
+                i++;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not read pending comment like counts: {}", e.getMessage());
+        }
+        return deltas;
+    }
+
+    /**
+     * Forget the like set and pending delta of a deleted comment
+     */
+    public void evict(Long commentId) {
+        try {
+            redisTemplate.delete(MEMBERS_PREFIX + commentId);
+            redisTemplate.opsForHash().delete(PENDING_KEY, commentId.toString());
+        } catch (DataAccessException e) {
+            log.warn("Could not evict like state for comment {}: {}", commentId, e.getMessage());
+        }
+    }
+
+    /**
+     * Write accumulated deltas to Postgres in one batch.
+     *
+     * The pending hash is renamed aside first, so likes arriving during the flush go into a fresh hash,
+     * and the batch gets a flush id. The deltas and the flush id are written in one transaction, so a
+     * batch whose Redis cleanup failed is recognised on retry and only cleaned up. The lock is held under
+     * a per-flush token and only released by its owner; if it expires mid-flush and another instance
+     * picks up the same batch, the flush id still keeps it from being applied twice.
+     */
+    public void flush() {
+        retryStaleEvictions();
+
+        String lockToken = UUID.randomUUID().toString();
+        Boolean locked = redisTemplate.opsForValue().setIfAbsent(FLUSH_LOCK_KEY, lockToken, flushLockTtl);
+        if (!Boolean.TRUE.equals(locked)) {
+            return;
+        }
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.hasKey(FLUSHING_KEY))) {
+                if (!Boolean.TRUE.equals(redisTemplate.hasKey(PENDING_KEY))) {
+                    return;
+                }
+                redisTemplate.rename(PENDING_KEY, FLUSHING_KEY);
+            }
+            // Kept if this batch is left behind, so its retry reuses the id
+            redisTemplate.opsForValue().setIfAbsent(FLUSH_ID_KEY, UUID.randomUUID().toString());
+            String flushId = redisTemplate.opsForValue().get(FLUSH_ID_KEY);
+
+            Map<Object, Object> entries = redisTemplate.opsForHash().entries(FLUSHING_KEY);
+            List<Object[]> batch = new ArrayList<>(entries.size());
+            entries.forEach((commentId, delta) -> {
+                long value = parse(delta);
+                if (value != 0) {
+                    batch.add(new Object[]{value, Long.parseLong(commentId.toString())});
+                }
+            });
+
+            Boolean applied = flushTransaction.execute(status -> applyBatch(flushId, batch));
+            redisTemplate.delete(List.of(FLUSHING_KEY, FLUSH_ID_KEY));
+
+            if (Boolean.TRUE.equals(applied)) {
+                log.debug("Flushed like counts for {} comments", batch.size());
+            } else {
+                log.info("Comment like batch {} was already applied, discarding it", flushId);
+            }
+        } finally {
+            redisTemplate.execute(releaseLockScript, List.of(FLUSH_LOCK_KEY), lockToken);
+        }
+    }
+
+    /**
+     * Apply one batch unless its flush id is already recorded. Runs inside the flush transaction.
+     */
+    private boolean applyBatch(String flushId, List<Object[]> batch) {
+        int recorded = jdbcTemplate.update(
+                "INSERT INTO comment_like_flushes (flush_id) VALUES (?) ON CONFLICT (flush_id) DO NOTHING",
+                flushId);
+        if (recorded == 0) {
+            return false;
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "UPDATE comments SET likes_count = GREATEST(likes_count + ?, 0) WHERE id = ?",
+                    batch);
+        }
+        // Ids only need to outlive a retry of their batch
+        jdbcTemplate.update("DELETE FROM comment_like_flushes WHERE flushed_at < CURRENT_TIMESTAMP - INTERVAL '1 day'");
+        return true;
+    }
+
+    /**
+     * Database fallback when Redis is down: atomic in-place increment, no read-modify-write.
+     * The comment's like set in Redis no longer matches comment_likes, so it is evicted after commit
+     * (or on a later flush, if Redis is still unreachable then).
+     */
+    public void applyDirectly(Long commentId, int delta) {
+        jdbcTemplate.update(
+                "UPDATE comments SET likes_count = GREATEST(likes_count + ?, 0) WHERE id = ?",
+                delta, commentId);
+        afterCompletion(() -> {
+            staleMembers.add(commentId);
+            retryStaleEvictions();
+        }, () -> { });
+    }
+
+    private void retryStaleEvictions() {
+        for (Long commentId : staleMembers) {
+            try {
+                redisTemplate.delete(MEMBERS_PREFIX + commentId);
+                staleMembers.remove(commentId);
+            } catch (DataAccessException e) {
+                log.debug("Redis still unavailable, keeping like set of comment {} marked stale", commentId);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Make sure the comment's like set exists in Redis, loading it from the database if needed
+     */
+    private String warmMembers(Long commentId, Supplier<List<Long>> persistedLikers) {
+        String membersKey = MEMBERS_PREFIX + commentId;
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(membersKey))) {
+            List<Long> likers = persistedLikers.get();
+            String[] members = new String[likers.size() + 1];
+            members[0] = WARM_MARKER;
+            for (int i = 0; i < likers.size(); i++) {
+                members[i + 1] = likers.get(i).toString();
+            }
+            redisTemplate.opsForSet().add(membersKey, members);
+        }
+        redisTemplate.expire(membersKey, membersTtl);
+        return membersKey;
+    }
+
+    /**
+     * Run onCommit in afterCommit, which comes before the after-commit event listeners registered later
+     * in the same transaction (so the stream sees the new count), and onRollback otherwise
+     */
+    private void afterCompletion(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                runQuietly(onCommit);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    runQuietly(onRollback);
+                }
+            }
+        });
+    }
+
+    private void runQuietly(Runnable action) {
+        try {
+            action.run();
+        } catch (DataAccessException e) {
+            log.error("Failed to finalize comment like in Redis: {}", e.getMessage());
+        }
+    }
+
+    private static long parse(Object value) {
+        return value == null ? 0 : Long.parseLong(value.toString());
+    }
+}
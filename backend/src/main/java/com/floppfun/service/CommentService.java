@@ -2,6 +2,7 @@ package com.floppfun.service;
 
 import com.floppfun.dto.CommentCreateRequest;
 import com.floppfun.dto.CommentDTO;
+import com.floppfun.event.CommentChangedEvent;
 import com.floppfun.entity.Comment;
 import com.floppfun.entity.CommentLike;
 import com.floppfun.model.entity.Token;
@@ -12,11 +13,22 @@ import com.floppfun.repository.TokenRepository;
 import com.floppfun.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -26,6 +38,15 @@ public class CommentService {
     private final CommentLikeRepository commentLikeRepository;
     private final TokenRepository tokenRepository;
     private final UserRepository userRepository;
+    private final CommentLikeCounter commentLikeCounter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final String DELETED_CONTENT = "[deleted]";
+
+    private static final Comparator<CommentDTO> THREAD_ROOTS_NEWEST_FIRST =
+        Comparator.comparing(CommentDTO::getCreatedAt).thenComparing(CommentDTO::getId).reversed();
+    private static final Comparator<CommentDTO> THREAD_REPLIES_OLDEST_FIRST =
+        Comparator.comparing(CommentDTO::getCreatedAt).thenComparing(CommentDTO::getId);
 
     /**
      * Get comments for a token
@@ -33,8 +54,38 @@ public class CommentService {
     @Transactional(readOnly = true)
     public Page<CommentDTO> getTokenComments(Long tokenId, Long currentUserId, Pageable pageable) {
         Page<Comment> comments = commentRepository.findByTokenId(tokenId, pageable);
+        Set<Long> likedIds = findLikedCommentIds(comments.getContent(), currentUserId);
+        Map<Long, Long> pendingLikes = commentLikeCounter.getPendingDeltas(
+            comments.getContent().stream().map(Comment::getId).toList());
+
+        return comments.map(comment -> toDTO(comment, likedIds.contains(comment.getId()),
+            pendingLikes.getOrDefault(comment.getId(), 0L)));
+    }
+
+    /**
+     * Get a page of top-level comments with their first replies nested (one query for the whole thread)
+     */
+    @Transactional(readOnly = true)
+    public Page<CommentDTO> getTokenCommentThreads(Long tokenId, Long currentUserId, Pageable pageable,
+                                                   int replyLimit, int maxDepth) {
+        List<CommentRepository.ThreadRow> rows = commentRepository.findThreadPage(
+            tokenId, pageable.getOffset(), pageable.getPageSize(), replyLimit, maxDepth);
+        List<CommentDTO> roots = assembleThreads(rows, currentUserId, THREAD_ROOTS_NEWEST_FIRST);
+
+        return new PageImpl<>(roots, pageable, commentRepository.countByTokenIdAndParentCommentIdIsNull(tokenId));
+    }
+
+    /**
+     * Get a page of replies to a comment, each with its first replies nested (expanding a branch)
+     */
+    @Transactional(readOnly = true)
+    public Page<CommentDTO> getCommentReplies(Long commentId, Long currentUserId, Pageable pageable,
+                                              int replyLimit, int maxDepth) {
+        List<CommentRepository.ThreadRow> rows = commentRepository.findReplyThreads(
+            commentId, pageable.getOffset(), pageable.getPageSize(), replyLimit, maxDepth);
+        List<CommentDTO> roots = assembleThreads(rows, currentUserId, THREAD_REPLIES_OLDEST_FIRST);
 
-        return comments.map(comment -> toDTO(comment, currentUserId));
+        return new PageImpl<>(roots, pageable, commentRepository.countByParentCommentId(commentId));
     }
 
     /**
@@ -48,16 +99,33 @@ public class CommentService {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found"));
 
+        Long parentId = request.getParentCommentId();
+        if (parentId != null) {
+            Comment parent = commentRepository.findById(parentId)
+                .orElseThrow(() -> new RuntimeException("Parent comment not found"));
+            if (!parent.getToken().getId().equals(tokenId)) {
+                throw new RuntimeException("Parent comment belongs to another token");
+            }
+        }
+
         Comment comment = new Comment();
         comment.setToken(token);
         comment.setUser(user);
         comment.setContent(request.getContent());
         comment.setLikesCount(0);
+        comment.setParentCommentId(parentId);
+        comment.setRepliesCount(0);
 
         Comment savedComment = commentRepository.save(comment);
+        if (parentId != null) {
+            commentRepository.incrementRepliesCount(parentId, 1);
+        }
         log.info("Comment created: id={}, tokenId={}, userId={}", savedComment.getId(), tokenId, userId);
 
-        return toDTO(savedComment, userId);
+        CommentDTO dto = toDTO(savedComment, false, 0L);
+        eventPublisher.publishEvent(new CommentChangedEvent(
+            tokenId, savedComment.getId(), parentId, CommentChangedEvent.Type.CREATED, dto));
+        return dto;
     }
 
     /**
@@ -77,7 +145,9 @@ public class CommentService {
         Comment updatedComment = commentRepository.save(comment);
 
         log.info("Comment updated: id={}", commentId);
-        return toDTO(updatedComment, userId);
+        Long pendingLikes = commentLikeCounter.getPendingDeltas(List.of(commentId)).getOrDefault(commentId, 0L);
+        publishUpdated(updatedComment, pendingLikes);
+        return toDTO(updatedComment, isLikedBy(commentId, userId), pendingLikes);
     }
 
     /**
@@ -93,8 +163,25 @@ public class CommentService {
             throw new RuntimeException("Not authorized to delete this comment");
         }
 
+        // Keep a tombstone when others replied, so the thread below it stays intact
+        if (comment.getRepliesCount() > 0) {
+            comment.setContent(DELETED_CONTENT);
+            commentRepository.save(comment);
+            log.info("Comment deleted (tombstoned, has replies): id={}", commentId);
+            publishUpdated(comment,
+                commentLikeCounter.getPendingDeltas(List.of(commentId)).getOrDefault(commentId, 0L));
+            return;
+        }
+
         commentRepository.delete(comment);
+        if (comment.getParentCommentId() != null) {
+            commentRepository.incrementRepliesCount(comment.getParentCommentId(), -1);
+        }
+        commentLikeCounter.evict(commentId);
         log.info("Comment deleted: id={}", commentId);
+
+        eventPublisher.publishEvent(new CommentChangedEvent(comment.getToken().getId(), commentId,
+            comment.getParentCommentId(), CommentChangedEvent.Type.DELETED, null));
     }
 
     /**
@@ -102,27 +189,51 @@ public class CommentService {
      */
     @Transactional
     public void likeComment(Long commentId, Long userId) {
-        Comment comment = commentRepository.findById(commentId)
+        Long tokenId = commentRepository.findTokenIdById(commentId)
             .orElseThrow(() -> new RuntimeException("Comment not found"));
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
 
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-
-        // Check if already liked
-        if (commentLikeRepository.findByCommentIdAndUserId(commentId, userId).isPresent()) {
-            throw new RuntimeException("Already liked this comment");
+        boolean counted;
+        try {
+            // Membership decided in Redis; the count is written behind by the flush job
+            if (!commentLikeCounter.addLike(commentId, userId,
+                    () -> commentLikeRepository.findUserIdsByCommentId(commentId))) {
+                throw new RuntimeException("Already liked this comment");
+            }
+            counted = true;
+        } catch (DataAccessException e) {
+            log.warn("Redis unavailable for comment likes, falling back to database: {}", e.getMessage());
+            if (commentLikeRepository.findByCommentIdAndUserId(commentId, userId).isPresent()) {
+                throw new RuntimeException("Already liked this comment");
+            }
+            counted = false;
         }
 
         CommentLike like = new CommentLike();
-        like.setComment(comment);
-        like.setUser(user);
+        like.setComment(commentRepository.getReferenceById(commentId));
+        like.setUser(userRepository.getReferenceById(userId));
         commentLikeRepository.save(like);
 
-        // Update likes count
-        comment.setLikesCount(comment.getLikesCount() + 1);
-        commentRepository.save(comment);
+        if (!counted) {
+            commentLikeCounter.applyDirectly(commentId, 1);
+        }
 
         log.info("Comment liked: commentId={}, userId={}", commentId, userId);
+        eventPublisher.publishEvent(new CommentChangedEvent(
+            tokenId, commentId, null, CommentChangedEvent.Type.LIKED, null));
+    }
+
+    /**
+     * Get a comment's like count including likes not yet flushed to the database, or null if it is gone
+     */
+    @Transactional(readOnly = true)
+    public Integer getLikesCount(Long commentId) {
+        return commentRepository.findLikesCountById(commentId)
+            .map(persisted -> (int) Math.max(0, persisted
+                + commentLikeCounter.getPendingDeltas(List.of(commentId)).getOrDefault(commentId, 0L)))
+            .orElse(null);
     }
 
     /**
@@ -130,41 +241,125 @@ public class CommentService {
      */
     @Transactional
     public void unlikeComment(Long commentId, Long userId) {
-        Comment comment = commentRepository.findById(commentId)
+        Long tokenId = commentRepository.findTokenIdById(commentId)
             .orElseThrow(() -> new RuntimeException("Comment not found"));
 
+        boolean counted;
+        try {
+            if (!commentLikeCounter.removeLike(commentId, userId,
+                    () -> commentLikeRepository.findUserIdsByCommentId(commentId))) {
+                throw new RuntimeException("Comment not liked yet");
+            }
+            counted = true;
+        } catch (DataAccessException e) {
+            log.warn("Redis unavailable for comment likes, falling back to database: {}", e.getMessage());
+            counted = false;
+        }
+
         CommentLike like = commentLikeRepository.findByCommentIdAndUserId(commentId, userId)
             .orElseThrow(() -> new RuntimeException("Comment not liked yet"));
-
         commentLikeRepository.delete(like);
 
-        // Update likes count
-        comment.setLikesCount(Math.max(0, comment.getLikesCount() - 1));
-        commentRepository.save(comment);
+        if (!counted) {
+            commentLikeCounter.applyDirectly(commentId, -1);
+        }
 
         log.info("Comment unliked: commentId={}, userId={}", commentId, userId);
+        eventPublisher.publishEvent(new CommentChangedEvent(
+            tokenId, commentId, null, CommentChangedEvent.Type.UNLIKED, null));
     }
 
     /**
-     * Convert entity to DTO
+     * Get IDs of the comments on this page liked by the viewer
      */
-    private CommentDTO toDTO(Comment comment, Long currentUserId) {
-        boolean isLiked = false;
-        if (currentUserId != null) {
-            isLiked = commentLikeRepository.findByCommentIdAndUserId(comment.getId(), currentUserId).isPresent();
+    private Set<Long> findLikedCommentIds(List<Comment> comments, Long currentUserId) {
+        if (currentUserId == null || comments.isEmpty()) {
+            return Collections.emptySet();
+        }
+        List<Long> commentIds = comments.stream().map(Comment::getId).toList();
+        return commentLikeRepository.findLikedCommentIds(currentUserId, commentIds);
+    }
+
+    /**
+     * Turn flat thread rows into nested DTOs (depth-0 rows are the roots)
+     */
+    private List<CommentDTO> assembleThreads(List<CommentRepository.ThreadRow> rows, Long currentUserId,
+                                             Comparator<CommentDTO> rootOrder) {
+        if (rows.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> ids = rows.stream().map(CommentRepository.ThreadRow::getId).toList();
+        Set<Long> likedIds = currentUserId == null
+            ? Collections.emptySet()
+            : commentLikeRepository.findLikedCommentIds(currentUserId, ids);
+        Map<Long, Long> pendingLikes = commentLikeCounter.getPendingDeltas(ids);
+
+        Map<Long, CommentDTO> byId = new HashMap<>();
+        for (CommentRepository.ThreadRow row : rows) {
+            CommentDTO dto = new CommentDTO(
+                row.getId(),
+                row.getTokenId(),
+                row.getParentCommentId(),
+                row.getUserId(),
+                row.getUserWalletAddress(),
+                row.getUserName(),
+                row.getContent(),
+                (int) Math.max(0, row.getLikesCount() + pendingLikes.getOrDefault(row.getId(), 0L)),
+                row.getRepliesCount(),
+                likedIds.contains(row.getId()),
+                row.getCreatedAt(),
+                row.getUpdatedAt(),
+                new ArrayList<>()
+            );
+            byId.put(row.getId(), dto);
+        }
+
+        List<CommentDTO> roots = new ArrayList<>();
+        for (CommentRepository.ThreadRow row : rows) {
+            CommentDTO dto = byId.get(row.getId());
+            if (row.getDepth() == 0) {
+                roots.add(dto);
+            } else {
+                byId.get(row.getParentCommentId()).getReplies().add(dto);
+            }
         }
 
+        byId.values().forEach(dto -> dto.getReplies().sort(THREAD_REPLIES_OLDEST_FIRST));
+        roots.sort(rootOrder);
+        return roots;
+    }
+
+    /**
+     * Publish an UPDATED stream event (viewer-neutral: isLikedByCurrentUser is left false)
+     */
+    private void publishUpdated(Comment comment, long pendingLikes) {
+        eventPublisher.publishEvent(new CommentChangedEvent(comment.getToken().getId(), comment.getId(),
+            comment.getParentCommentId(), CommentChangedEvent.Type.UPDATED, toDTO(comment, false, pendingLikes)));
+    }
+
+    private boolean isLikedBy(Long commentId, Long userId) {
+        return userId != null && commentLikeRepository.findByCommentIdAndUserId(commentId, userId).isPresent();
+    }
+
+    /**
+     * Convert entity to DTO
+     */
+    private CommentDTO toDTO(Comment comment, boolean isLiked, long pendingLikes) {
         return new CommentDTO(
             comment.getId(),
             comment.getToken().getId(),
+            comment.getParentCommentId(),
             comment.getUser().getId(),
             comment.getUser().getWalletAddress(),
             comment.getUser().getUsername(),
             comment.getContent(),
-            comment.getLikesCount(),
+            (int) Math.max(0, comment.getLikesCount() + pendingLikes),
+            comment.getRepliesCount(),
             isLiked,
             comment.getCreatedAt(),
-            comment.getUpdatedAt()
+            comment.getUpdatedAt(),
+            null
         );
     }
 }
@@ -0,0 +1,137 @@
+package com.floppfun.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.floppfun.event.CommentChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Live comment stream per token.
+ *
+ * Every committed comment change gets the next sequence number for its token (Redis INCR, shared across
+ * instances) and is published on a Redis channel in the same script call, so sequences reach subscribers
+ * in order. Each instance relays what it receives to its own STOMP subscribers on /topic/comments/{tokenId},
+ * so clients see every sequence number no matter which instance they are connected to. Clients load a
+ * page together with the current sequence, apply deltas on top and only refetch when they see a gap.
+ */
+@Slf4j
+@Service
+public class CommentStreamService {
+
+    public static final String STREAM_CHANNEL = "comment-stream";
+
+    private static final String SEQUENCE_PREFIX = "comment-seq:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final WebSocketService webSocketService;
+    private final CommentService commentService;
+    private final ObjectMapper objectMapper;
+    private final DefaultRedisScript<Long> publishScript;
+
+    public CommentStreamService(
+            RedisTemplate<String, String> redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            WebSocketService webSocketService,
+            CommentService commentService,
+            ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.webSocketService = webSocketService;
+        this.commentService = commentService;
+        this.objectMapper = objectMapper;
+        this.publishScript = new DefaultRedisScript<>();
+        this.publishScript.setLocation(new ClassPathResource("scripts/comment_stream_publish.lua"));
+        this.publishScript.setResultType(Long.class);
+    }
+
+    @PostConstruct
+    void init() {
+        try {
+            listenerContainer.addMessageListener(
+                    (message, pattern) -> relay(new String(message.getBody(), StandardCharsets.UTF_8)),
+                    new ChannelTopic(STREAM_CHANNEL));
+        } catch (Exception e) {
+            log.warn("Could not subscribe to the comment stream: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Publish a committed comment change to subscribers on every instance
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        StreamMessage message = new StreamMessage(event, likesCount(event));
+        try {
+            redisTemplate.execute(publishScript, List.of(SEQUENCE_PREFIX + event.tokenId()),
+                    STREAM_CHANNEL, objectMapper.writeValueAsString(message));
+            return;
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Could not publish comment event for token {}: {}", event.tokenId(), e.getMessage());
+        }
+
+        // Without a sequence the client can't place the event and will resync; other instances miss it
+        broadcast(message, null);
+    }
+
+    /**
+     * Get the latest sequence number for a token's comment stream (0 if nothing was published yet)
+     */
+    public long getCurrentSequence(Long tokenId) {
+        try {
+            String value = redisTemplate.opsForValue().get(SEQUENCE_PREFIX + tokenId);
+            return value == null ? 0 : Long.parseLong(value);
+        } catch (DataAccessException e) {
+            log.warn("Could not read comment sequence for token {}: {}", tokenId, e.getMessage());
+            return 0;
+        }
+    }
+
+    private Integer likesCount(CommentChangedEvent event) {
+        if (event.type() != CommentChangedEvent.Type.LIKED && event.type() != CommentChangedEvent.Type.UNLIKED) {
+            return null;
+        }
+        try {
+            return commentService.getLikesCount(event.commentId());
+        } catch (Exception e) {
+            log.warn("Could not read like count for comment {}: {}", event.commentId(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Handle "{seq}|{json}" from the stream channel
+     */
+    private void relay(String payload) {
+        int separator = payload.indexOf('|');
+        try {
+            long seq = Long.parseLong(payload.substring(0, separator));
+            broadcast(objectMapper.readValue(payload.substring(separator + 1), StreamMessage.class), seq);
+        } catch (Exception e) {
+            log.error("Dropping unreadable comment stream message: {}", e.getMessage());
+        }
+    }
+
+    private void broadcast(StreamMessage message, Long seq) {
+        try {
+            webSocketService.broadcastCommentEvent(message.event(), seq, message.likesCount());
+        } catch (Exception e) {
+            log.error("Failed to broadcast comment event for token {}", message.event().tokenId(), e);
+        }
+    }
+
+    private record StreamMessage(CommentChangedEvent event, Integer likesCount) {
+    }
+}
@@ -1,15 +1,15 @@
 package com.floppfun.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.floppfun.entity.TokenHolder;
+import com.floppfun.event.TokenStateChangedEvent;
 import com.floppfun.model.entity.Token;
 import com.floppfun.repository.TokenHolderRepository;
 import com.floppfun.repository.TokenRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import okhttp3.*;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,6 +18,7 @@ import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Service to track token holders by querying blockchain
@@ -29,24 +30,28 @@ public class HolderTrackingService {
 
     private final TokenRepository tokenRepository;
     private final TokenHolderRepository tokenHolderRepository;
-    private final OkHttpClient httpClient = new OkHttpClient();
-    private final ObjectMapper objectMapper = new ObjectMapper();
-
-    @Value("${floppfun.solana.rpc-url}")
-    private String rpcUrl;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SolanaAccountCache solanaAccountCache;
 
     private static final int DECIMALS = 6; // Token decimals
 
     /**
-     * Update holder count for a single token
+     * Update holder count for a single token. Leaves the token untouched if the accounts couldn't be fetched.
+     *
+     * @return true if the count was updated
      */
     @Transactional
-    public void updateHolderCount(Token token) {
+    public boolean updateHolderCount(Token token) {
         try {
             log.debug("Updating holder count for token {} ({})", token.getSymbol(), token.getMintAddress());
 
-            // Fetch all token accounts for this mint
-            List<TokenAccountInfo> accounts = fetchTokenAccounts(token.getMintAddress());
+            // Fetch all token accounts for this mint; a failed scan says nothing about the holders
+            Optional<List<TokenAccountInfo>> fetched = fetchTokenAccounts(token.getMintAddress());
+            if (fetched.isEmpty()) {
+                log.warn("Skipping holder update for {}: token accounts unavailable", token.getMintAddress());
+                return false;
+            }
+            List<TokenAccountInfo> accounts = fetched.get();
 
             // Filter accounts with non-zero balance
             int holderCount = 0;
@@ -62,11 +67,14 @@ public class HolderTrackingService {
             // Update token holder count
             token.setHoldersCount(holderCount);
             tokenRepository.save(token);
+            eventPublisher.publishEvent(new TokenStateChangedEvent(token.getId(), TokenStateChangedEvent.Reason.HOLDERS));
 
             log.debug("Updated holder count for {}: {} holders", token.getSymbol(), holderCount);
+            return true;
 
         } catch (Exception e) {
             log.error("Failed to update holder count for {}: {}", token.getMintAddress(), e.getMessage(), e);
+            return false;
         }
     }
 
@@ -83,8 +91,11 @@ public class HolderTrackingService {
 
         for (Token token : activeTokens) {
             try {
-                updateHolderCount(token);
-                successCount++;
+                if (updateHolderCount(token)) {
+                    successCount++;
+                } else {
+                    failCount++;
+                }
             } catch (Exception e) {
                 failCount++;
                 log.error("Failed to update holder count for {}: {}", token.getMintAddress(), e.getMessage());
@@ -95,67 +106,41 @@ public class HolderTrackingService {
     }
 
     /**
-     * Fetch all token accounts for a mint address from blockchain
+     * Fetch all token accounts for a mint address from blockchain.
+     * Empty if the RPC call failed or returned no account list (as opposed to an empty one).
      */
-    private List<TokenAccountInfo> fetchTokenAccounts(String mintAddress) {
+    private Optional<List<TokenAccountInfo>> fetchTokenAccounts(String mintAddress) {
         try {
-            // Build RPC request to get token accounts by mint
-            String jsonRequest = String.format(
-                    "{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"getProgramAccounts\"," +
-                    "\"params\":[\"%s\",{\"encoding\":\"jsonParsed\"," +
-                    "\"filters\":[{\"dataSize\":165},{\"memcmp\":{\"offset\":0,\"bytes\":\"%s\"}}]}]}",
-                    "TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA", // SPL Token Program ID
-                    mintAddress
-            );
-
-            RequestBody body = RequestBody.create(
-                    jsonRequest,
-                    MediaType.parse("application/json")
-            );
-
-            Request request = new Request.Builder()
-                    .url(rpcUrl)
-                    .post(body)
-                    .build();
-
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    log.error("RPC request failed: {}", response.code());
-                    return new ArrayList<>();
-                }
+            JsonNode result = solanaAccountCache.getTokenAccountsByMint(RpcPriority.HOLDER_SCAN, mintAddress, 0)
+                    .path("value");
 
-                String responseBody = response.body().string();
-                JsonNode root = objectMapper.readTree(responseBody);
-                JsonNode result = root.get("result");
+            if (!result.isArray()) {
+                log.warn("Unexpected getProgramAccounts result for mint: {}", mintAddress);
+                return Optional.empty();
+            }
 
-                if (result == null || !result.isArray()) {
-                    log.warn("No token accounts found for mint: {}", mintAddress);
-                    return new ArrayList<>();
-                }
+            // Parse token accounts
+            List<TokenAccountInfo> accounts = new ArrayList<>();
+            for (JsonNode accountNode : result) {
+                try {
+                    String accountPubkey = accountNode.get("pubkey").asText();
+                    JsonNode accountData = accountNode.get("account").get("data").get("parsed").get("info");
 
-                // Parse token accounts
-                List<TokenAccountInfo> accounts = new ArrayList<>();
-                for (JsonNode accountNode : result) {
-                    try {
-                        String accountPubkey = accountNode.get("pubkey").asText();
-                        JsonNode accountData = accountNode.get("account").get("data").get("parsed").get("info");
-
-                        String owner = accountData.get("owner").asText();
-                        String tokenAmount = accountData.get("tokenAmount").get("amount").asText();
-                        long balance = Long.parseLong(tokenAmount);
-
-                        accounts.add(new TokenAccountInfo(accountPubkey, owner, balance));
-                    } catch (Exception e) {
-                        log.warn("Failed to parse token account: {}", e.getMessage());
-                    }
-                }
+                    String owner = accountData.get("owner").asText();
+                    String tokenAmount = accountData.get("tokenAmount").get("amount").asText();
+                    long balance = Long.parseLong(tokenAmount);
 
-                return accounts;
+                    accounts.add(new TokenAccountInfo(accountPubkey, owner, balance));
+                } catch (Exception e) {
+                    log.warn("Failed to parse token account: {}", e.getMessage());
+                }
             }
 
+            return Optional.of(accounts);
+
         } catch (Exception e) {
-            log.error("Failed to fetch token accounts: {}", e.getMessage(), e);
-            return new ArrayList<>();
+            log.error("Failed to fetch token accounts: {}", e.getMessage());
+            return Optional.empty();
         }
     }
 
@@ -1,13 +1,16 @@
 package com.floppfun.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.floppfun.config.Bulkhead;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -30,9 +33,23 @@ public class IpfsService {
     private static final String PINATA_PIN_FILE_URL = "https://api.pinata.cloud/pinning/pinFileToIPFS";
     private static final String PINATA_PIN_JSON_URL = "https://api.pinata.cloud/pinning/pinJSONToIPFS";
 
-    private final OkHttpClient httpClient = new OkHttpClient();
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    private final Bulkhead ipfsBulkhead;
+    private final OkHttpClient httpClient;
+
+    public IpfsService(
+            @Qualifier("ipfsBulkhead") Bulkhead ipfsBulkhead,
+            @Value("${floppfun.ipfs.connect-timeout-ms:5000}") long connectTimeoutMs,
+            @Value("${floppfun.ipfs.read-timeout-ms:20000}") long readTimeoutMs) {
+        this.ipfsBulkhead = ipfsBulkhead;
+        this.httpClient = new OkHttpClient.Builder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .readTimeout(Duration.ofMillis(readTimeoutMs))
+                .writeTimeout(Duration.ofMillis(readTimeoutMs))
+                .build();
+    }
+
     /**
      * Upload image to IPFS via Pinata
      *
@@ -157,19 +174,28 @@ public class IpfsService {
     }
 
     /**
-     * Full upload process: image + metadata
+     * Full upload process: image + metadata, run in the ipfs bulkhead so slow pinning can't
+     * hold more than its own threads
      */
     public Map<String, String> uploadTokenAssets(MultipartFile image, String name, String symbol, String description) throws IOException {
-        // Upload image first
-        String imageUrl = uploadImage(image);
-
-        // Then upload metadata with image URL
-        String metadataUri = uploadMetadata(name, symbol, description, imageUrl);
-
-        Map<String, String> result = new HashMap<>();
-        result.put("imageUrl", imageUrl);
-        result.put("metadataUri", metadataUri);
-
-        return result;
+        try {
+            return ipfsBulkhead.call(() -> {
+                // Upload image first
+                String imageUrl = uploadImage(image);
+
+                // Then upload metadata with image URL
+                String metadataUri = uploadMetadata(name, symbol, description, imageUrl);
+
+                Map<String, String> result = new HashMap<>();
+                result.put("imageUrl", imageUrl);
+                result.put("metadataUri", metadataUri);
+
+                return result;
+            });
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("IPFS upload failed: " + e.getMessage(), e);
+        }
     }
 }
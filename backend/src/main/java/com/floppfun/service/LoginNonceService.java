@@ -0,0 +1,81 @@
+package com.floppfun.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bitcoinj.core.Base58;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Server-issued login challenges.
+ *
+ * Each nonce is stored in Redis for a short time, bound to the wallet it was issued to, and deleted
+ * atomically (GETDEL) the first time a login presents it. A signed login message can therefore be
+ * used once, by its own wallet, within the TTL.
+ */
+@Slf4j
+@Service
+public class LoginNonceService {
+
+    private static final String NONCE_PREFIX = "auth-nonce:";
+    private static final int NONCE_BYTES = 16;
+    private static final Pattern NONCE_LINE = Pattern.compile("^Nonce: (\\S+)$", Pattern.MULTILINE);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final SecureRandom random = new SecureRandom();
+    private final Duration ttl;
+
+    public LoginNonceService(
+            RedisTemplate<String, String> redisTemplate,
+            @Value("${floppfun.auth.nonce-ttl:300}") long ttlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    /**
+     * Issue a nonce for a wallet and the exact message the wallet must sign
+     */
+    public Challenge issue(String walletAddress) {
+        byte[] bytes = new byte[NONCE_BYTES];
+        random.nextBytes(bytes);
+        String nonce = Base58.encode(bytes);
+
+        redisTemplate.opsForValue().set(NONCE_PREFIX + nonce, walletAddress, ttl);
+
+        Instant expiresAt = Instant.now().plus(ttl);
+        String message = "Sign in to FloppFun\n\n" +
+                "Wallet: " + walletAddress + "\n" +
+                "Nonce: " + nonce + "\n" +
+                "Expires: " + expiresAt + "\n\n" +
+                "This request will not trigger a blockchain transaction or cost any fees.";
+        return new Challenge(nonce, message, expiresAt);
+    }
+
+    /**
+     * Consume the nonce contained in a signed login message.
+     * Returns false if the message has no nonce, or it is unknown, expired, already used or issued to another wallet.
+     */
+    public boolean consume(String walletAddress, String message) {
+        Matcher matcher = NONCE_LINE.matcher(message);
+        if (!matcher.find()) {
+            return false;
+        }
+        try {
+            String issuedTo = redisTemplate.opsForValue().getAndDelete(NONCE_PREFIX + matcher.group(1));
+            return walletAddress.equals(issuedTo);
+        } catch (DataAccessException e) {
+            log.error("Could not check login nonce: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    public record Challenge(String nonce, String message, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,234 @@
+package com.floppfun.service;
+
+import com.floppfun.model.entity.PnlLedger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rebuilds the PnL ledger from scratch by replaying every confirmed trade, while trading continues.
+ *
+ * Users are independent, so each user's trades are replayed (oldest first) on a worker of a bounded pool
+ * and written to the shadow tables pnl_ledger_rebuild/user_pnl_rebuild; the live tables are untouched
+ * meanwhile. The swap then runs in one transaction holding an EXCLUSIVE lock on the live tables, which
+ * blocks trade writers but not readers: users whose live totals changed since the rebuild started are
+ * replayed again, and the shadow rows replace the live ones. Runs once at startup when
+ * floppfun.pnl.rebuild-on-startup is set.
+ */
+@Slf4j
+@Service
+public class PnlLedgerRebuildService {
+
+    private static final String LOCK_KEY = "pnl-ledger:rebuild-lock";
+
+    // Trade writers stamp user_pnl.updated_at with their transaction's start time, which can be well before
+    // they commit; users touched this long before the rebuild began are replayed again to be safe
+    private static final Duration CATCH_UP_MARGIN = Duration.ofMinutes(5);
+
+    private static final String USERS_SQL =
+            "SELECT DISTINCT user_id FROM transactions " +
+            "WHERE status = 'CONFIRMED' AND transaction_type IN ('BUY', 'SELL')";
+
+    private static final String TRADES_SQL =
+            "SELECT token_id, transaction_type, sol_amount, token_amount, platform_fee FROM transactions " +
+            "WHERE user_id = ? AND status = 'CONFIRMED' AND transaction_type IN ('BUY', 'SELL') " +
+            "ORDER BY created_at, id";
+
+    private static final String INSERT_LEDGER_SQL =
+            "INSERT INTO pnl_ledger_rebuild (user_id, token_id, position_amount, cost_basis, total_bought, " +
+            "total_sold, realized_pnl, fees_paid, buy_count, sell_count) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_USER_PNL_SQL =
+            "INSERT INTO user_pnl_rebuild (user_id, realized_pnl, fees_paid, trade_count) VALUES (?, ?, ?, ?)";
+
+    private static final String CHANGED_USERS_SQL =
+            "SELECT user_id FROM user_pnl WHERE updated_at >= ?";
+
+    private static final String COPY_LEDGER_SQL =
+            "INSERT INTO pnl_ledger (user_id, token_id, position_amount, cost_basis, total_bought, total_sold, " +
+            "realized_pnl, fees_paid, buy_count, sell_count, created_at, updated_at) " +
+            "SELECT user_id, token_id, position_amount, cost_basis, total_bought, total_sold, " +
+            "realized_pnl, fees_paid, buy_count, sell_count, now(), now() FROM pnl_ledger_rebuild";
+
+    private static final String COPY_USER_PNL_SQL =
+            "INSERT INTO user_pnl (user_id, realized_pnl, fees_paid, trade_count, updated_at) " +
+            "SELECT user_id, realized_pnl, fees_paid, trade_count, now() FROM user_pnl_rebuild";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final TransactionTemplate writeTransaction;
+    private final boolean rebuildOnStartup;
+    private final int parallelism;
+    private final Duration lockTtl;
+
+    public PnlLedgerRebuildService(
+            JdbcTemplate jdbcTemplate,
+            RedisTemplate<String, String> redisTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${floppfun.pnl.rebuild-on-startup:false}") boolean rebuildOnStartup,
+            @Value("${floppfun.pnl.rebuild-parallelism:8}") int parallelism,
+            @Value("${floppfun.pnl.rebuild-lock-ttl:3600}") long lockTtlSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.redisTemplate = redisTemplate;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.parallelism = Math.max(1, parallelism);
+        this.lockTtl = Duration.ofSeconds(lockTtlSeconds);
+
+        // Each user's shadow rows commit on their own
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("PnL ledger rebuild failed", e);
+        }
+    }
+
+    /**
+     * Replay all confirmed trades into the shadow tables and swap them in. Skipped if another instance
+     * holds the lock.
+     *
+     * @return number of users rebuilt
+     */
+    public int rebuild() {
+        Boolean locked = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, "1", lockTtl);
+        if (!Boolean.TRUE.equals(locked)) {
+            log.info("PnL ledger rebuild already running elsewhere, skipping");
+            return 0;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            long start = System.currentTimeMillis();
+            Timestamp startedAt = jdbcTemplate.queryForObject("SELECT now()", Timestamp.class);
+            writeTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.execute("TRUNCATE pnl_ledger_rebuild, user_pnl_rebuild"));
+
+            List<Long> userIds = jdbcTemplate.queryForList(USERS_SQL, Long.class);
+            AtomicInteger failed = new AtomicInteger();
+            List<Future<?>> futures = new ArrayList<>(userIds.size());
+            for (Long userId : userIds) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        writeTransaction.executeWithoutResult(status -> rebuildUser(userId));
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        log.error("PnL ledger rebuild failed for user {}: {}", userId, e.getMessage());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            if (failed.get() > 0) {
+                // Swapping now would drop those users' live rows
+                throw new IllegalStateException(failed.get() + " users failed to replay, live ledger kept");
+            }
+
+            int caughtUp = writeTransaction.execute(status -> swap(startedAt));
+
+            log.info("PnL ledger rebuilt: {} users ({} replayed again at swap) in {} ms",
+                    userIds.size(), caughtUp, System.currentTimeMillis() - start);
+            return userIds.size();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("PnL ledger rebuild interrupted", e);
+        } catch (Exception e) {
+            throw new RuntimeException("PnL ledger rebuild failed", e);
+        } finally {
+            executor.shutdownNow();
+            redisTemplate.delete(LOCK_KEY);
+        }
+    }
+
+    /**
+     * Replace the live ledger with the shadow tables. Runs in one transaction; EXCLUSIVE mode keeps trade
+     * writers out until commit while leaderboard reads go on seeing the old rows.
+     *
+     * @return number of users replayed again because they traded during the rebuild
+     */
+    private int swap(Timestamp startedAt) {
+        jdbcTemplate.execute("LOCK TABLE pnl_ledger, user_pnl IN EXCLUSIVE MODE");
+
+        Timestamp since = Timestamp.from(startedAt.toInstant().minus(CATCH_UP_MARGIN));
+        List<Long> changed = jdbcTemplate.queryForList(CHANGED_USERS_SQL, Long.class, since);
+        for (Long userId : changed) {
+            jdbcTemplate.update("DELETE FROM pnl_ledger_rebuild WHERE user_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM user_pnl_rebuild WHERE user_id = ?", userId);
+            rebuildUser(userId);
+        }
+
+        jdbcTemplate.update("DELETE FROM pnl_ledger");
+        jdbcTemplate.update("DELETE FROM user_pnl");
+        jdbcTemplate.update(COPY_LEDGER_SQL);
+        jdbcTemplate.update(COPY_USER_PNL_SQL);
+        jdbcTemplate.execute("TRUNCATE pnl_ledger_rebuild, user_pnl_rebuild");
+        return changed.size();
+    }
+
+    /**
+     * Replay one user's trades in memory and write their shadow ledger rows and totals
+     * (runs inside the caller's transaction)
+     */
+    private void rebuildUser(Long userId) {
+        Map<Long, PnlLedger> ledgers = new LinkedHashMap<>();
+        long[] totals = new long[3]; // realized, fees, trades
+
+        jdbcTemplate.query(TRADES_SQL, (RowCallbackHandler) rs -> {
+            long tokenId = rs.getLong("token_id");
+            long solAmount = rs.getLong("sol_amount");
+            long tokenAmount = rs.getLong("token_amount");
+            long fee = rs.getLong("platform_fee");
+
+            PnlLedger ledger = ledgers.computeIfAbsent(tokenId,
+                    id -> PnlLedger.builder().userId(userId).tokenId(id).build());
+            if ("BUY".equals(rs.getString("transaction_type"))) {
+                ledger.applyBuy(tokenAmount, solAmount, fee);
+            } else {
+                totals[0] += ledger.applySell(tokenAmount, solAmount, fee);
+            }
+            totals[1] += fee;
+            totals[2]++;
+        }, userId);
+
+        if (ledgers.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> rows = new ArrayList<>(ledgers.size());
+        for (PnlLedger l : ledgers.values()) {
+            rows.add(new Object[]{l.getUserId(), l.getTokenId(), l.getPositionAmount(), l.getCostBasis(),
+                    l.getTotalBought(), l.getTotalSold(), l.getRealizedPnl(), l.getFeesPaid(),
+                    l.getBuyCount(), l.getSellCount()});
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_LEDGER_SQL, rows);
+        jdbcTemplate.update(INSERT_USER_PNL_SQL, userId, totals[0], totals[1], (int) totals[2]);
+    }
+}
@@ -0,0 +1,191 @@
+package com.floppfun.service;
+
+import com.floppfun.dto.PnlPositionDTO;
+import com.floppfun.dto.TraderPnlDTO;
+import com.floppfun.dto.UserPnlDTO;
+import com.floppfun.model.dto.PnlPositionView;
+import com.floppfun.model.dto.TraderPnlView;
+import com.floppfun.model.entity.PnlLedger;
+import com.floppfun.repository.PnlLedgerRepository;
+import com.floppfun.repository.UserPnlRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Realized/unrealized PnL per (user, token), maintained incrementally as trades are recorded.
+ *
+ * Each trade locks its ledger row, applies the trade at average cost and bumps the user's totals with
+ * an atomic upsert, all inside the trade's transaction. Leaderboards read the ledger tables directly;
+ * unrealized PnL is added at read time from {@link TokenPriceTable}.
+ *
+ * Units: ledger amounts are lamports; BUY cost includes the platform fee and SELL proceeds are net of it,
+ * matching Transaction.solAmount.
+ */
+@Service
+@RequiredArgsConstructor
+public class PnlLedgerService {
+
+    private static final int LAMPORTS_DECIMALS = 9;
+    private static final int SCALE = 9;
+    private static final int MAX_LEADERBOARD_SIZE = 100;
+
+    private static final String ENSURE_LEDGER_SQL =
+            "INSERT INTO pnl_ledger (user_id, token_id) VALUES (?, ?) ON CONFLICT (user_id, token_id) DO NOTHING";
+
+    private static final String UPSERT_USER_PNL_SQL =
+            "INSERT INTO user_pnl (user_id, realized_pnl, fees_paid, trade_count, updated_at) " +
+            "VALUES (?, ?, ?, 1, now()) " +
+            "ON CONFLICT (user_id) DO UPDATE SET " +
+            "realized_pnl = user_pnl.realized_pnl + EXCLUDED.realized_pnl, " +
+            "fees_paid = user_pnl.fees_paid + EXCLUDED.fees_paid, " +
+            "trade_count = user_pnl.trade_count + 1, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private final PnlLedgerRepository pnlLedgerRepository;
+    private final UserPnlRepository userPnlRepository;
+    private final TokenPriceTable tokenPriceTable;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Record a buy in the ledger (must run inside the trade's transaction)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordBuy(Long userId, Long tokenId, long tokenAmount, long solPaid, long fee) {
+        PnlLedger ledger = lockLedger(userId, tokenId);
+        ledger.applyBuy(tokenAmount, solPaid, fee);
+        jdbcTemplate.update(UPSERT_USER_PNL_SQL, userId, 0L, fee);
+    }
+
+    /**
+     * Record a sell in the ledger (must run inside the trade's transaction)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordSell(Long userId, Long tokenId, long tokenAmount, long solReceived, long fee) {
+        PnlLedger ledger = lockLedger(userId, tokenId);
+        long realized = ledger.applySell(tokenAmount, solReceived, fee);
+        jdbcTemplate.update(UPSERT_USER_PNL_SQL, userId, realized, fee);
+    }
+
+    /**
+     * Get the top traders by realized PnL
+     */
+    @Transactional(readOnly = true)
+    public List<TraderPnlDTO> getTraderLeaderboard(int limit) {
+        List<TraderPnlView> rows = userPnlRepository.findTraderLeaderboard(PageRequest.of(0, clamp(limit)));
+        List<TraderPnlDTO> result = new ArrayList<>(rows.size());
+        for (TraderPnlView row : rows) {
+            result.add(TraderPnlDTO.builder()
+                    .rank(result.size() + 1)
+                    .userId(row.userId())
+                    .walletAddress(row.walletAddress())
+                    .username(row.username())
+                    .avatarUrl(row.avatarUrl())
+                    .realizedPnl(toSol(row.realizedPnl()))
+                    .feesPaid(toSol(row.feesPaid()))
+                    .tradeCount(row.tradeCount())
+                    .updatedAt(row.updatedAt())
+                    .build());
+        }
+        return result;
+    }
+
+    /**
+     * Get the top traders of one token by realized PnL, with unrealized PnL of their open position
+     */
+    @Transactional(readOnly = true)
+    public List<PnlPositionDTO> getTokenLeaderboard(Long tokenId, int limit) {
+        return pnlLedgerRepository.findTokenLeaderboard(tokenId, PageRequest.of(0, clamp(limit))).stream()
+                .map(this::toDTO)
+                .toList();
+    }
+
+    /**
+     * Get a user's PnL per token and in total
+     */
+    @Transactional(readOnly = true)
+    public UserPnlDTO getUserPnl(Long userId) {
+        List<PnlPositionDTO> positions = pnlLedgerRepository.findPositionsByUserId(userId).stream()
+                .map(this::toDTO)
+                .toList();
+
+        BigDecimal realized = BigDecimal.ZERO;
+        BigDecimal unrealized = BigDecimal.ZERO;
+        BigDecimal fees = BigDecimal.ZERO;
+        for (PnlPositionDTO position : positions) {
+            realized = realized.add(position.getRealizedPnl());
+            unrealized = unrealized.add(position.getUnrealizedPnl());
+            fees = fees.add(position.getFeesPaid());
+        }
+
+        return UserPnlDTO.builder()
+                .userId(userId)
+                .realizedPnl(realized)
+                .unrealizedPnl(unrealized)
+                .totalPnl(realized.add(unrealized))
+                .feesPaid(fees)
+                .positions(positions)
+                .build();
+    }
+
+    /**
+     * Create the ledger row if this is the user's first trade in the token, then lock it
+     */
+    private PnlLedger lockLedger(Long userId, Long tokenId) {
+        jdbcTemplate.update(ENSURE_LEDGER_SQL, userId, tokenId);
+        return pnlLedgerRepository.findForUpdate(userId, tokenId)
+                .orElseThrow(() -> new RuntimeException("PnL ledger row missing for user " + userId));
+    }
+
+    private PnlPositionDTO toDTO(PnlPositionView view) {
+        BigDecimal costBasis = toSol(view.costBasis());
+        BigDecimal realized = toSol(view.realizedPnl());
+
+        BigDecimal price = tokenPriceTable.getPrice(view.tokenId());
+        if (price == null) {
+            price = view.currentPrice();
+        }
+        BigDecimal unrealized = BigDecimal.ZERO;
+        if (price != null && view.positionAmount() > 0) {
+            int decimals = view.decimals() != null ? view.decimals() : 9;
+            BigDecimal value = BigDecimal.valueOf(view.positionAmount()).movePointLeft(decimals).multiply(price);
+            unrealized = value.subtract(costBasis).setScale(SCALE, RoundingMode.HALF_UP);
+        }
+
+        return PnlPositionDTO.builder()
+                .userId(view.userId())
+                .walletAddress(view.walletAddress())
+                .username(view.username())
+                .tokenId(view.tokenId())
+                .tokenName(view.tokenName())
+                .tokenSymbol(view.tokenSymbol())
+                .positionAmount(view.positionAmount())
+                .costBasis(costBasis)
+                .totalBought(toSol(view.totalBought()))
+                .totalSold(toSol(view.totalSold()))
+                .realizedPnl(realized)
+                .unrealizedPnl(unrealized)
+                .totalPnl(realized.add(unrealized))
+                .feesPaid(toSol(view.feesPaid()))
+                .buyCount(view.buyCount())
+                .sellCount(view.sellCount())
+                .updatedAt(view.updatedAt())
+                .build();
+    }
+
+    private static BigDecimal toSol(Long lamports) {
+        return BigDecimal.valueOf(lamports != null ? lamports : 0L, LAMPORTS_DECIMALS);
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LEADERBOARD_SIZE));
+    }
+}
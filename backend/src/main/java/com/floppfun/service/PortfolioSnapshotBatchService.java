@@ -0,0 +1,180 @@
+package com.floppfun.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a portfolio snapshot for every user with active holdings, so history exists
+ * even for users who never open the app.
+ *
+ * Holdings are streamed ordered by user through a server-side cursor (fixed fetch size, read-only
+ * transaction), valued against {@link TokenPriceTable} as each user's rows go by, and written in
+ * batched inserts in their own transactions. Memory use is one user's running totals plus one
+ * insert batch, regardless of how many users there are.
+ */
+@Slf4j
+@Service
+public class PortfolioSnapshotBatchService {
+
+    private static final String LOCK_KEY = "portfolio-snapshot:lock";
+    private static final int SCALE = 9;
+
+    private static final String HOLDINGS_SQL =
+            "SELECT h.user_id, h.token_id, h.amount, t.decimals, t.current_price " +
+            "FROM user_holdings h JOIN tokens t ON t.id = h.token_id " +
+            "WHERE h.amount > 0 " +
+            "ORDER BY h.user_id";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO portfolio_snapshots " +
+            "(user_id, total_value, sol_balance, sol_value, token_value, token_count, created_at) " +
+            "VALUES (?, ?, 0, 0, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TokenPriceTable tokenPriceTable;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final TransactionTemplate cursorTransaction;
+    private final TransactionTemplate insertTransaction;
+    private final int fetchSize;
+    private final int batchSize;
+    private final Duration lockTtl;
+
+    public PortfolioSnapshotBatchService(
+            JdbcTemplate jdbcTemplate,
+            TokenPriceTable tokenPriceTable,
+            RedisTemplate<String, String> redisTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${floppfun.portfolio.snapshot.fetch-size:1000}") int fetchSize,
+            @Value("${floppfun.portfolio.snapshot.batch-size:500}") int batchSize,
+            @Value("${floppfun.portfolio.snapshot.lock-ttl:600}") long lockTtlSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tokenPriceTable = tokenPriceTable;
+        this.redisTemplate = redisTemplate;
+        this.fetchSize = fetchSize;
+        this.batchSize = batchSize;
+        this.lockTtl = Duration.ofSeconds(lockTtlSeconds);
+
+        // Postgres only streams with a cursor when autocommit is off, hence the (read-only) transaction
+        this.cursorTransaction = new TransactionTemplate(transactionManager);
+        this.cursorTransaction.setReadOnly(true);
+
+        // Each batch commits on its own connection, independent of the open cursor
+        this.insertTransaction = new TransactionTemplate(transactionManager);
+        this.insertTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Snapshot all users with active holdings. Skipped if another instance holds the job lock.
+     *
+     * @return number of snapshots written
+     */
+    public int snapshotAll() {
+        Boolean locked = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, "1", lockTtl);
+        if (!Boolean.TRUE.equals(locked)) {
+            log.debug("Portfolio snapshot job already running elsewhere, skipping");
+            return 0;
+        }
+
+        try {
+            long start = System.currentTimeMillis();
+            SnapshotWriter writer = new SnapshotWriter(Timestamp.valueOf(LocalDateTime.now()));
+
+            cursorTransaction.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                var ps = con.prepareStatement(HOLDINGS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                return ps;
+            }, writer));
+            writer.finish();
+
+            log.info("Portfolio snapshots written: {} users in {} ms",
+                    writer.written, System.currentTimeMillis() - start);
+            return writer.written;
+        } finally {
+            redisTemplate.delete(LOCK_KEY);
+        }
+    }
+
+    /**
+     * Accumulates one user at a time from the ordered cursor and flushes snapshots in batches
+     */
+    private class SnapshotWriter implements RowCallbackHandler {
+
+        private final Timestamp createdAt;
+        private final List<Object[]> batch = new ArrayList<>(batchSize);
+
+        private Long currentUserId;
+        private BigDecimal currentValue = BigDecimal.ZERO;
+        private int currentTokenCount;
+        private int written;
+
+        SnapshotWriter(Timestamp createdAt) {
+            this.createdAt = createdAt;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long userId = rs.getLong("user_id");
+            if (currentUserId != null && currentUserId != userId) {
+                completeUser();
+            }
+            currentUserId = userId;
+
+            long tokenId = rs.getLong("token_id");
+            long amount = rs.getLong("amount");
+            int decimals = rs.getObject("decimals") != null ? rs.getInt("decimals") : 9;
+
+            BigDecimal price = tokenPriceTable.getPrice(tokenId);
+            if (price == null) {
+                price = rs.getBigDecimal("current_price");
+            }
+            if (price != null) {
+                currentValue = currentValue.add(BigDecimal.valueOf(amount).movePointLeft(decimals).multiply(price));
+            }
+            currentTokenCount++;
+        }
+
+        void finish() {
+            if (currentUserId != null) {
+                completeUser();
+            }
+            flush();
+        }
+
+        private void completeUser() {
+            BigDecimal value = currentValue.setScale(SCALE, RoundingMode.HALF_UP);
+            batch.add(new Object[]{currentUserId, value, value, currentTokenCount, createdAt});
+            currentValue = BigDecimal.ZERO;
+            currentTokenCount = 0;
+
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            insertTransaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, batch));
+            written += batch.size();
+            batch.clear();
+        }
+    }
+}
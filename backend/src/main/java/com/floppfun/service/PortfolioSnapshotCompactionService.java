@@ -0,0 +1,113 @@
+package com.floppfun.service;
+
+import com.floppfun.repository.PortfolioSnapshotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Downsamples portfolio snapshots into retention tiers:
+ * - newer than 48h: every snapshot
+ * - 48h to 30d: the last snapshot of each hour
+ * - older than 30d: the last snapshot of each day
+ * - older than the retention limit (if set): deleted
+ *
+ * Each tier is compacted one day-sized window at a time so no single statement holds locks for long.
+ * The first run after startup walks the whole history; later runs only revisit the windows that crossed
+ * a tier boundary since (plus a lookback margin).
+ */
+@Slf4j
+@Service
+public class PortfolioSnapshotCompactionService {
+
+    private static final Duration RAW_TIER = Duration.ofHours(48);
+    private static final Duration HOURLY_TIER = Duration.ofDays(30);
+    private static final Duration WINDOW = Duration.ofDays(1);
+
+    // Keeps the last row of each (user, bucket) in [:from, :to) and deletes the rest
+    private static final String COMPACT_SQL =
+            "DELETE FROM portfolio_snapshots p USING (" +
+            "    SELECT id, ROW_NUMBER() OVER (" +
+            "        PARTITION BY user_id, date_trunc(?, created_at) ORDER BY created_at DESC, id DESC) AS rn " +
+            "    FROM portfolio_snapshots WHERE created_at >= ? AND created_at < ?" +
+            ") r " +
+            "WHERE p.id = r.id AND r.rn > 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PortfolioSnapshotRepository portfolioSnapshotRepository;
+    private final Duration lookback;
+    private final int retentionDays;
+
+    private volatile boolean caughtUp;
+
+    public PortfolioSnapshotCompactionService(
+            JdbcTemplate jdbcTemplate,
+            PortfolioSnapshotRepository portfolioSnapshotRepository,
+            @Value("${floppfun.portfolio.compaction.lookback-hours:48}") long lookbackHours,
+            @Value("${floppfun.portfolio.compaction.retention-days:0}") int retentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.portfolioSnapshotRepository = portfolioSnapshotRepository;
+        this.lookback = Duration.ofHours(lookbackHours);
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * Run one compaction pass over all tiers
+     *
+     * @return number of snapshots removed
+     */
+    public int compact() {
+        LocalDateTime now = LocalDateTime.now();
+        // Windows are aligned to bucket boundaries so no hour/day is split between two statements
+        LocalDateTime rawBoundary = now.minus(RAW_TIER).truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime dailyBoundary = now.minus(HOURLY_TIER).truncatedTo(ChronoUnit.DAYS);
+        int removed = 0;
+
+        if (retentionDays > 0) {
+            removed += portfolioSnapshotRepository.deleteByCreatedAtBefore(now.minusDays(retentionDays));
+        }
+
+        LocalDateTime oldest = caughtUp ? null : findOldestSnapshot();
+
+        // 48h..30d -> hourly
+        LocalDateTime hourlyFrom = oldest != null
+                ? max(oldest.truncatedTo(ChronoUnit.HOURS), dailyBoundary)
+                : max(rawBoundary.minus(lookback), dailyBoundary);
+        removed += compactRange("hour", hourlyFrom, rawBoundary);
+
+        // >30d -> daily
+        LocalDateTime dailyFrom = oldest != null
+                ? oldest.truncatedTo(ChronoUnit.DAYS)
+                : dailyBoundary.minus(lookback).truncatedTo(ChronoUnit.DAYS);
+        removed += compactRange("day", dailyFrom, dailyBoundary);
+
+        caughtUp = true;
+        log.info("Portfolio snapshot compaction removed {} rows", removed);
+        return removed;
+    }
+
+    private int compactRange(String bucket, LocalDateTime from, LocalDateTime to) {
+        int removed = 0;
+        for (LocalDateTime start = from; start.isBefore(to); start = start.plus(WINDOW)) {
+            LocalDateTime end = start.plus(WINDOW).isBefore(to) ? start.plus(WINDOW) : to;
+            removed += jdbcTemplate.update(COMPACT_SQL, bucket, Timestamp.valueOf(start), Timestamp.valueOf(end));
+        }
+        return removed;
+    }
+
+    private LocalDateTime findOldestSnapshot() {
+        Timestamp oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(created_at) FROM portfolio_snapshots", Timestamp.class);
+        return oldest != null ? oldest.toLocalDateTime() : null;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -1,6 +1,7 @@
 package com.floppfun.service;
 
 import com.floppfun.dto.Portfolio24hChangeDTO;
+import com.floppfun.dto.PortfolioHistoryPointDTO;
 import com.floppfun.dto.PortfolioSnapshotRequest;
 import com.floppfun.model.entity.PortfolioSnapshot;
 import com.floppfun.model.entity.User;
@@ -14,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Slf4j
 @Service
@@ -50,16 +52,17 @@ public class PortfolioSnapshotService {
      */
     @Transactional(readOnly = true)
     public Portfolio24hChangeDTO get24hChange(Long userId, BigDecimal currentValue) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
 
-        // Find snapshot from 24 hours ago (with some tolerance)
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime targetTime = now.minusHours(24);
-        LocalDateTime startWindow = targetTime.minusHours(1); // 23-25 hours ago
-        LocalDateTime endWindow = targetTime.plusHours(1);
+        // Latest snapshot at or before 24h ago, accepted if it is no more than 1h older than that
+        LocalDateTime targetTime = LocalDateTime.now().minusHours(24);
+        LocalDateTime oldestAccepted = targetTime.minusHours(1);
 
-        var snapshot24hAgo = portfolioSnapshotRepository.findSnapshot24hAgo(user, startWindow, endWindow);
+        var snapshot24hAgo = portfolioSnapshotRepository
+                .findFirstByUserIdAndCreatedAtLessThanEqualOrderByCreatedAtDesc(userId, targetTime)
+                .filter(snapshot -> !snapshot.getCreatedAt().isBefore(oldestAccepted));
 
         if (snapshot24hAgo.isEmpty()) {
             // No snapshot from 24h ago, return zero change
@@ -91,4 +94,29 @@ public class PortfolioSnapshotService {
                 .previousValue(previousValue)
                 .build();
     }
+
+    /**
+     * Get portfolio value history for a range: 24h, 7d, 30d, 90d, 1y or all
+     * Resolution follows the compaction tiers (raw within 48h, hourly to 30d, daily beyond)
+     */
+    @Transactional(readOnly = true)
+    public List<PortfolioHistoryPointDTO> getHistory(Long userId, String range) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since;
+        String bucket;
+
+        switch (range) {
+            case "24h" -> { since = now.minusHours(24); bucket = "minute"; }
+            case "7d" -> { since = now.minusDays(7); bucket = "hour"; }
+            case "30d" -> { since = now.minusDays(30); bucket = "hour"; }
+            case "90d" -> { since = now.minusDays(90); bucket = "day"; }
+            case "1y" -> { since = now.minusYears(1); bucket = "day"; }
+            case "all" -> { since = LocalDateTime.of(1970, 1, 1, 0, 0); bucket = "day"; }
+            default -> throw new RuntimeException("Invalid range: " + range + " (expected 24h, 7d, 30d, 90d, 1y or all)");
+        }
+
+        return portfolioSnapshotRepository.findHistory(userId, since, bucket).stream()
+                .map(point -> new PortfolioHistoryPointDTO(point.getTimestamp(), point.getTotalValue(), point.getTokenValue()))
+                .toList();
+    }
 }
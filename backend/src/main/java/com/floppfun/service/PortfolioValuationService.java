@@ -0,0 +1,120 @@
+package com.floppfun.service;
+
+import com.floppfun.dto.PortfolioDTO;
+import com.floppfun.dto.PortfolioHoldingDTO;
+import com.floppfun.model.dto.HoldingView;
+import com.floppfun.repository.UserHoldingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Values a user's token holdings server-side.
+ *
+ * Holdings come from one projection query; prices come from {@link TokenPriceTable}, falling back to the
+ * price read with the holding when the table has no entry. All values are in SOL.
+ *
+ * Units: UserHolding.amount is in raw token units and averagePrice is lamports per raw unit (as recorded
+ * by TradingService); Token.currentPrice is SOL per whole token. Both are normalised to SOL per token.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PortfolioValuationService {
+
+    private static final int SCALE = 9;
+    private static final int DEFAULT_DECIMALS = 9;
+    private static final int LAMPORTS_DECIMALS = 9;
+
+    private final UserHoldingRepository userHoldingRepository;
+    private final TokenPriceTable tokenPriceTable;
+
+    /**
+     * Value all active holdings of a user
+     */
+    @Transactional(readOnly = true)
+    public PortfolioDTO valuePortfolio(Long userId) {
+        return valueHoldings(userId, userHoldingRepository.findActiveHoldingViewsByUserId(userId));
+    }
+
+    /**
+     * Value an already loaded set of holdings in one pass
+     */
+    public PortfolioDTO valueHoldings(Long userId, List<HoldingView> holdings) {
+        BigDecimal totalValue = BigDecimal.ZERO;
+        BigDecimal totalCost = BigDecimal.ZERO;
+        List<PortfolioHoldingDTO> valued = new ArrayList<>(holdings.size());
+
+        for (HoldingView holding : holdings) {
+            PortfolioHoldingDTO dto = valueHolding(holding);
+            totalValue = totalValue.add(dto.getValue());
+            totalCost = totalCost.add(dto.getCostBasis());
+            valued.add(dto);
+        }
+
+        BigDecimal pnl = totalValue.subtract(totalCost);
+        return PortfolioDTO.builder()
+                .userId(userId)
+                .totalValue(totalValue)
+                .totalCostBasis(totalCost)
+                .unrealizedPnl(pnl)
+                .unrealizedPnlPercent(percent(pnl, totalCost))
+                .tokenCount(valued.size())
+                .holdings(valued)
+                .valuedAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Value a single holding against the current price
+     */
+    public PortfolioHoldingDTO valueHolding(HoldingView holding) {
+        int decimals = holding.decimals() != null ? holding.decimals() : DEFAULT_DECIMALS;
+        BigDecimal balance = BigDecimal.valueOf(holding.amount()).movePointLeft(decimals);
+
+        BigDecimal price = tokenPriceTable.getPrice(holding.tokenId());
+        if (price == null) {
+            price = holding.currentPrice() != null ? holding.currentPrice() : BigDecimal.ZERO;
+        }
+
+        // lamports per raw unit -> SOL per whole token
+        BigDecimal averagePrice = holding.averagePrice() != null
+                ? holding.averagePrice().movePointRight(decimals - LAMPORTS_DECIMALS)
+                : BigDecimal.ZERO;
+
+        BigDecimal value = balance.multiply(price).setScale(SCALE, RoundingMode.HALF_UP);
+        BigDecimal costBasis = balance.multiply(averagePrice).setScale(SCALE, RoundingMode.HALF_UP);
+        BigDecimal pnl = value.subtract(costBasis);
+
+        return PortfolioHoldingDTO.builder()
+                .tokenId(holding.tokenId())
+                .tokenName(holding.tokenName())
+                .tokenSymbol(holding.tokenSymbol())
+                .mintAddress(holding.mintAddress())
+                .imageUrl(holding.imageUrl())
+                .amount(holding.amount())
+                .balance(balance)
+                .averagePrice(averagePrice)
+                .currentPrice(price)
+                .value(value)
+                .costBasis(costBasis)
+                .unrealizedPnl(pnl)
+                .unrealizedPnlPercent(percent(pnl, costBasis))
+                .updatedAt(holding.updatedAt())
+                .build();
+    }
+
+    private static BigDecimal percent(BigDecimal change, BigDecimal base) {
+        if (base.compareTo(BigDecimal.ZERO) <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return change.divide(base, 10, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100));
+    }
+}
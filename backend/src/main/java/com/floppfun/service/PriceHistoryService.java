@@ -4,8 +4,9 @@ import com.floppfun.model.dto.PriceHistoryDTO;
 import com.floppfun.model.entity.PriceHistory;
 import com.floppfun.model.entity.Token;
 import com.floppfun.repository.PriceHistoryRepository;
-import lombok.RequiredArgsConstructor;
+import com.floppfun.config.Bulkhead;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,11 +18,18 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class PriceHistoryService {
 
     private final PriceHistoryRepository priceHistoryRepository;
+    private final Bulkhead chartBulkhead;
+
+    public PriceHistoryService(
+            PriceHistoryRepository priceHistoryRepository,
+            @Qualifier("chartBulkhead") Bulkhead chartBulkhead) {
+        this.priceHistoryRepository = priceHistoryRepository;
+        this.chartBulkhead = chartBulkhead;
+    }
 
     /**
      * Record a price point when a trade occurs
@@ -44,15 +52,51 @@ public class PriceHistoryService {
      * Get price history aggregated into OHLCV candlesticks for different timeframes
      */
     public List<PriceHistoryDTO> getPriceHistory(Token token, String timeframe) {
+        return getPriceHistory(token.getId(), timeframe);
+    }
+
+    /**
+     * Get price history aggregated into OHLCV candlesticks for a token ID.
+     * Runs in the chart bulkhead, so wide-range candle queries can't take over the DB pool.
+     *
+     * @throws Bulkhead.BulkheadException if the chart bulkhead is full or the query timed out
+     */
+    public List<PriceHistoryDTO> getPriceHistory(Long tokenId, String timeframe) {
+        try {
+            return chartBulkhead.call(() -> loadPriceHistory(tokenId, timeframe));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to load price history: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Same as {@link #getPriceHistory(Long, String)}, but gives up when the caller's own deadline runs out
+     * instead of waiting for the full chart bulkhead timeout
+     *
+     * @param remaining time left before the caller stops waiting
+     */
+    public List<PriceHistoryDTO> getPriceHistory(Long tokenId, String timeframe, Duration remaining) {
+        try {
+            return chartBulkhead.call(() -> loadPriceHistory(tokenId, timeframe), remaining);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to load price history: " + e.getMessage(), e);
+        }
+    }
+
+    private List<PriceHistoryDTO> loadPriceHistory(Long tokenId, String timeframe) {
         Instant endTime = Instant.now();
         Instant startTime = calculateStartTime(endTime, timeframe);
 
         // Fetch raw price points from database
         List<PriceHistory> pricePoints = priceHistoryRepository
-                .findByTokenAndTimestampBetweenOrderByTimestampAsc(token, startTime, endTime);
+                .findByTokenIdAndTimestampBetweenOrderByTimestampAsc(tokenId, startTime, endTime);
 
         log.info("📊 [PRICE HISTORY] Token {} ({}) - Found {} raw price points from {} to {}",
-                token.getId(), timeframe, pricePoints.size(), startTime, endTime);
+                tokenId, timeframe, pricePoints.size(), startTime, endTime);
 
         if (!pricePoints.isEmpty()) {
             log.info("📊 [PRICE HISTORY] Raw price points:");
@@ -65,7 +109,7 @@ public class PriceHistoryService {
         }
 
         if (pricePoints.isEmpty()) {
-            log.warn("No price history found for token {}, timeframe {}", token.getId(), timeframe);
+            log.warn("No price history found for token {}, timeframe {}", tokenId, timeframe);
             return Collections.emptyList();
         }
 
@@ -0,0 +1,208 @@
+package com.floppfun.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Process-wide RPC request budget shared by every caller of {@link SolanaRpcClient}.
+ *
+ * Credits refill at the provider's rate limit into a bucket of limited burst. While credits last,
+ * requests go straight through. When they run out, waiters are served by weighted fair queuing
+ * across {@link RpcPriority} classes: each waiter is stamped with a virtual finish time
+ * (cost / class weight after its class's previous one) and the smallest stamp is served first.
+ * A backlog of holder scans can then slow price sync down by its weight share, but never block it.
+ */
+@Component
+public class RpcBudget {
+
+    private final double creditsPerNano;
+    private final double burst;
+    private final Duration maxWait;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>();
+
+    // Guarded by lock
+    private double credits;
+    private long refilledAt;
+    private double virtualTime;
+    private long sequence;
+    private final Map<RpcPriority, Double> lastFinish = new EnumMap<>(RpcPriority.class);
+
+    private final Map<RpcPriority, AtomicInteger> queueDepth = new EnumMap<>(RpcPriority.class);
+    private final Map<RpcPriority, Timer> waitTimers = new EnumMap<>(RpcPriority.class);
+    private final Map<RpcPriority, Counter> rejections = new EnumMap<>(RpcPriority.class);
+
+    public RpcBudget(
+            MeterRegistry meterRegistry,
+            @Value("${floppfun.solana.rpc.budget.requests-per-second:40}") double requestsPerSecond,
+            @Value("${floppfun.solana.rpc.budget.burst:40}") double burst,
+            @Value("${floppfun.solana.rpc.budget.max-wait-ms:10000}") long maxWaitMs) {
+        this.creditsPerNano = requestsPerSecond / 1_000_000_000.0;
+        this.burst = burst;
+        this.maxWait = Duration.ofMillis(maxWaitMs);
+        this.credits = burst;
+        this.refilledAt = System.nanoTime();
+
+        for (RpcPriority priority : RpcPriority.values()) {
+            lastFinish.put(priority, 0.0);
+            AtomicInteger depth = new AtomicInteger();
+            queueDepth.put(priority, depth);
+            Gauge.builder("floppfun.rpc.budget.queue_depth", depth, AtomicInteger::get)
+                    .tag("priority", priority.name())
+                    .register(meterRegistry);
+            waitTimers.put(priority, Timer.builder("floppfun.rpc.budget.wait")
+                    .tag("priority", priority.name())
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
+            rejections.put(priority, Counter.builder("floppfun.rpc.budget.rejections")
+                    .tag("priority", priority.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Wait for credits, up to max-wait
+     *
+     * @param cost credits the request uses (heavier methods cost more); capped at the burst size
+     * @throws RpcBudgetExceededException if the credits weren't granted in time
+     * @throws InterruptedException if the caller was interrupted while waiting
+     */
+    public void acquire(RpcPriority priority, double cost) throws InterruptedException {
+        double needed = Math.min(cost, burst);
+        long start = System.nanoTime();
+        long deadline = start + maxWait.toNanos();
+
+        lock.lock();
+        try {
+            // Start-time tags: a class's requests follow each other at cost / weight intervals
+            double startTag = Math.max(virtualTime, lastFinish.get(priority));
+            lastFinish.put(priority, startTag + needed / priority.getWeight());
+
+            refill();
+            if (waiters.isEmpty() && credits >= needed) {
+                take(startTag, needed);
+                waitTimers.get(priority).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return;
+            }
+
+            Waiter waiter = new Waiter(lastFinish.get(priority), sequence++);
+            waiters.add(waiter);
+            queueDepth.get(priority).incrementAndGet();
+
+            try {
+                while (true) {
+                    refill();
+                    if (waiters.peek() == waiter && credits >= needed) {
+                        waiters.poll();
+                        take(startTag, needed);
+                        waitTimers.get(priority).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        // The next waiter may already be covered
+                        changed.signalAll();
+                        return;
+                    }
+
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        leave(waiter, priority, needed);
+                        rejections.get(priority).increment();
+                        throw new RpcBudgetExceededException(
+                                "RPC budget exhausted for " + priority + " after " + maxWait.toMillis() + " ms");
+                    }
+
+                    // Sleep until the head could be covered, or until woken by a grant/departure
+                    long untilCovered = (long) Math.ceil((needed - credits) / creditsPerNano);
+                    changed.awaitNanos(Math.max(1_000_000L, Math.min(remaining, untilCovered)));
+                }
+            } catch (InterruptedException e) {
+                leave(waiter, priority, needed);
+                throw e;
+            } finally {
+                queueDepth.get(priority).decrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Take credits only if they are available right now and nobody is queued (used for optional
+     * extra requests such as hedges and failovers)
+     */
+    public boolean tryAcquire(RpcPriority priority, double cost) {
+        double needed = Math.min(cost, burst);
+        lock.lock();
+        try {
+            refill();
+            if (!waiters.isEmpty() || credits < needed) {
+                return false;
+            }
+            double startTag = Math.max(virtualTime, lastFinish.get(priority));
+            lastFinish.put(priority, startTag + needed / priority.getWeight());
+            take(startTag, needed);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of requests of a class currently waiting for credits
+     */
+    public int getQueueDepth(RpcPriority priority) {
+        return queueDepth.get(priority).get();
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        credits = Math.min(burst, credits + (now - refilledAt) * creditsPerNano);
+        refilledAt = now;
+    }
+
+    private void take(double startTag, double needed) {
+        credits -= needed;
+        // Virtual time follows the request in service, so an idle class can't bank credit for later
+        virtualTime = Math.max(virtualTime, startTag);
+    }
+
+    /**
+     * A waiter gives up without being served: hand back its share of the class's virtual time, otherwise a
+     * class whose requests keep timing out would be pushed further back with every one of them
+     */
+    private void leave(Waiter waiter, RpcPriority priority, double needed) {
+        waiters.remove(waiter);
+        lastFinish.put(priority, lastFinish.get(priority) - needed / priority.getWeight());
+        changed.signalAll();
+    }
+
+    private record Waiter(double finish, long sequence) implements Comparable<Waiter> {
+        @Override
+        public int compareTo(Waiter other) {
+            int byFinish = Double.compare(finish, other.finish);
+            return byFinish != 0 ? byFinish : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Credits weren't granted within max-wait
+     */
+    public static class RpcBudgetExceededException extends RuntimeException {
+        public RpcBudgetExceededException(String message) {
+            super(message);
+        }
+    }
+}
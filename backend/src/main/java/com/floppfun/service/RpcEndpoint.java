@@ -0,0 +1,160 @@
+package com.floppfun.service;
+
+import java.util.Arrays;
+
+/**
+ * Health of one Solana RPC endpoint: latency and error EWMAs, a window of recent latencies for the
+ * hedge delay, and a circuit breaker.
+ *
+ * The breaker opens after a run of consecutive failures and stays open for a fixed period. After that
+ * one probe request is let through (half-open): success closes the breaker, failure opens it again.
+ * All state changes are synchronized; they happen once per request, not per byte.
+ */
+public class RpcEndpoint {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    // Relative cost of errors when ranking: an endpoint failing 10% of calls ranks like one twice as slow
+    private static final double ERROR_PENALTY = 10.0;
+    private static final int LATENCY_WINDOW = 100;
+
+    private final String url;
+    private final String name;
+    private final double alpha;
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private int latencyCount;
+    private int latencyNext;
+
+    private double latencyEwmaMs;
+    private double errorEwma;
+    private boolean sampled;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public RpcEndpoint(String url, String name, double alpha, int failureThreshold, long openMillis) {
+        this.url = url;
+        this.name = name;
+        this.alpha = alpha;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openMillis * 1_000_000L;
+    }
+
+    /**
+     * Reserve the endpoint for a request. False while the breaker is open, or half-open with its probe
+     * already in flight. Every true must be followed by exactly one onSuccess/onFailure/onCancel.
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                return true;
+            default:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    /**
+     * The endpoint answered (including JSON-RPC errors, which say nothing about the endpoint's health)
+     */
+    public synchronized void onSuccess(long latencyNanos) {
+        recordLatency(latencyNanos);
+        recordOutcome(0);
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        state = State.CLOSED;
+    }
+
+    /**
+     * Transport error, timeout, HTTP 429/5xx or unreadable response
+     */
+    public synchronized void onFailure() {
+        recordOutcome(1);
+        consecutiveFailures++;
+        probeInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * The request was abandoned (lost a hedge race) after elapsedNanos; no verdict on the endpoint's health.
+     * The answer would have taken at least that long, so it counts as a latency sample when it is above the
+     * current average; otherwise an endpoint that keeps losing races would never look slow.
+     */
+    public synchronized void onCancel(long elapsedNanos) {
+        if (!sampled || elapsedNanos / 1_000_000.0 > latencyEwmaMs) {
+            recordLatency(elapsedNanos);
+        }
+        probeInFlight = false;
+    }
+
+    /**
+     * Ranking score, lower is better. Unsampled endpoints score 0 so they get tried early.
+     */
+    public synchronized double score() {
+        return latencyEwmaMs * (1 + ERROR_PENALTY * errorEwma);
+    }
+
+    /**
+     * 95th percentile of the recent latency window in ms, or -1 without samples
+     */
+    public synchronized long p95Millis() {
+        if (latencyCount == 0) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(latencyCount * 0.95) - 1] / 1_000_000L;
+    }
+
+    private void recordLatency(long latencyNanos) {
+        latencies[latencyNext] = latencyNanos;
+        latencyNext = (latencyNext + 1) % LATENCY_WINDOW;
+        latencyCount = Math.min(latencyCount + 1, LATENCY_WINDOW);
+
+        double latencyMs = latencyNanos / 1_000_000.0;
+        latencyEwmaMs = sampled ? latencyEwmaMs + alpha * (latencyMs - latencyEwmaMs) : latencyMs;
+        sampled = true;
+    }
+
+    private void recordOutcome(double error) {
+        errorEwma = errorEwma + alpha * (error - errorEwma);
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized double getLatencyEwmaMs() {
+        return latencyEwmaMs;
+    }
+
+    public synchronized double getErrorEwma() {
+        return errorEwma;
+    }
+}
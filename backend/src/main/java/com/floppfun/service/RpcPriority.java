@@ -0,0 +1,30 @@
+package com.floppfun.service;
+
+/**
+ * Priority classes for the shared RPC budget, highest first. The weight is each class's share of
+ * request credits while several classes are waiting (see {@link RpcBudget}).
+ */
+public enum RpcPriority {
+
+    /** A user is waiting on the answer (transaction confirmation, verification) */
+    USER(8),
+
+    /** Price sync of tokens that traded recently */
+    HOT_SYNC(4),
+
+    /** Holder scans (getProgramAccounts) */
+    HOLDER_SCAN(2),
+
+    /** Price sync of quiet tokens and other catch-up work */
+    BACKFILL(1);
+
+    private final int weight;
+
+    RpcPriority(int weight) {
+        this.weight = weight;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+}
@@ -0,0 +1,162 @@
+package com.floppfun.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Account reads through {@link SolanaRpcClient}, cached by (method, account, commitment) and shared by
+ * every service that reads accounts (price sync, holder scans).
+ *
+ * Each cached response remembers the context slot it was read at. It is served only while it is both
+ * younger than max-age and within max-slot-lag of the highest slot seen in any response, and callers
+ * that know a newer slot matters (e.g. the slot a trade landed in) can ask for a minimum. Concurrent
+ * misses for the same key share one RPC call. Entries are evicted by count.
+ */
+@Service
+public class SolanaAccountCache {
+
+    private static final String SPL_TOKEN_PROGRAM_ID = "TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA";
+    private static final int SPL_TOKEN_ACCOUNT_SIZE = 165;
+
+    private final SolanaRpcClient solanaRpcClient;
+    private final String commitment;
+    private final long maxSlotLag;
+    private final Cache<Key, Entry> cache;
+    private final Map<Key, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong highestSlot = new AtomicLong();
+    private final Counter coalesced;
+
+    public SolanaAccountCache(
+            SolanaRpcClient solanaRpcClient,
+            MeterRegistry meterRegistry,
+            @Value("${floppfun.solana.rpc.cache.commitment:confirmed}") String commitment,
+            @Value("${floppfun.solana.rpc.cache.max-size:10000}") long maxSize,
+            @Value("${floppfun.solana.rpc.cache.max-age-ms:2000}") long maxAgeMs,
+            @Value("${floppfun.solana.rpc.cache.max-slot-lag:5}") long maxSlotLag) {
+        this.solanaRpcClient = solanaRpcClient;
+        this.commitment = commitment;
+        this.maxSlotLag = maxSlotLag;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(maxAgeMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "rpc-accounts");
+        this.coalesced = Counter.builder("floppfun.rpc.cache.coalesced").register(meterRegistry);
+    }
+
+    /**
+     * getAccountInfo result ({context, value}); value is null if the account doesn't exist
+     *
+     * @param minSlot oldest acceptable context slot, or 0 for any fresh-enough response
+     */
+    public JsonNode getAccountInfo(RpcPriority priority, String account, String encoding, long minSlot) {
+        Key key = new Key("getAccountInfo:" + encoding, account, commitment);
+        return read(key, minSlot, () -> solanaRpcClient.call(priority, "getAccountInfo", account,
+                Map.of("encoding", encoding, "commitment", commitment)));
+    }
+
+    /**
+     * All SPL token accounts of a mint (jsonParsed), as a getProgramAccounts result ({context, value})
+     */
+    public JsonNode getTokenAccountsByMint(RpcPriority priority, String mintAddress, long minSlot) {
+        Key key = new Key("getProgramAccounts:token-by-mint", mintAddress, commitment);
+        return read(key, minSlot, () -> solanaRpcClient.call(priority, "getProgramAccounts",
+                SPL_TOKEN_PROGRAM_ID,
+                Map.of("encoding", "jsonParsed",
+                        "commitment", commitment,
+                        "withContext", true,
+                        "filters", List.of(
+                                Map.of("dataSize", SPL_TOKEN_ACCOUNT_SIZE),
+                                Map.of("memcmp", Map.of("offset", 0, "bytes", mintAddress))))));
+    }
+
+    /**
+     * Highest context slot seen in any response
+     */
+    public long getHighestSlot() {
+        return highestSlot.get();
+    }
+
+    private JsonNode read(Key key, long minSlot, Supplier<JsonNode> fetch) {
+        Entry cached = cache.getIfPresent(key);
+        if (usable(cached, minSlot)) {
+            return cached.result();
+        }
+
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        CompletableFuture<Entry> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            // Someone is already fetching this key; their answer is at least as new as anything cached
+            coalesced.increment();
+            Entry shared = join(leader);
+            if (shared.slot() >= minSlot) {
+                return shared.result();
+            }
+            // Fetched before the slot we need; read again ourselves
+            return fetch(key, fetch, new CompletableFuture<>());
+        }
+
+        // A fetch may have finished between our cache miss and taking the lead
+        cached = cache.getIfPresent(key);
+        if (usable(cached, minSlot)) {
+            inFlight.remove(key, mine);
+            mine.complete(cached);
+            return cached.result();
+        }
+        return fetch(key, fetch, mine);
+    }
+
+    private JsonNode fetch(Key key, Supplier<JsonNode> fetch, CompletableFuture<Entry> result) {
+        try {
+            JsonNode response = fetch.get();
+            long slot = response.path("context").path("slot").asLong(0);
+            highestSlot.accumulateAndGet(slot, Math::max);
+
+            Entry entry = new Entry(response, slot);
+            cache.put(key, entry);
+            result.complete(entry);
+            return response;
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, result);
+        }
+    }
+
+    private boolean usable(Entry entry, long minSlot) {
+        return entry != null
+                && entry.slot() >= minSlot
+                && highestSlot.get() - entry.slot() <= maxSlotLag;
+    }
+
+    private static Entry join(CompletableFuture<Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private record Key(String method, String account, String commitment) {
+    }
+
+    private record Entry(JsonNode result, long slot) {
+    }
+}
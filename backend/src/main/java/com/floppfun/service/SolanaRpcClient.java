@@ -0,0 +1,351 @@
+package com.floppfun.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.floppfun.config.Bulkhead;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.*;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Solana JSON-RPC client shared by the sync, holder tracking and confirmation jobs.
+ *
+ * Calls go to the best of the configured endpoints (latency EWMA weighted by error EWMA, see
+ * {@link RpcEndpoint}). If the answer hasn't arrived after that endpoint's p95 latency, the same request
+ * is hedged to the next best endpoint and the first answer wins. Transport failures fail over to the next
+ * endpoint; JSON-RPC errors don't, since every node would give the same answer. Endpoints whose circuit
+ * breaker is open are skipped.
+ *
+ * Requests are sent asynchronously on one OkHttp client (shared connection pool, bounded timeouts); the
+ * calling thread waits inside the rpc {@link Bulkhead}, so a stalled provider holds at most that pool.
+ */
+@Slf4j
+@Service
+public class SolanaRpcClient {
+
+    private static final MediaType JSON = MediaType.parse("application/json");
+
+    private final Bulkhead rpcBulkhead;
+    private final RpcBudget rpcBudget;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OkHttpClient httpClient;
+    private final List<RpcEndpoint> endpoints;
+    private final boolean hedgeEnabled;
+    private final long hedgeMinDelayMs;
+    private final long hedgeMaxDelayMs;
+    private final int maxAttempts;
+    private final double programAccountsCost;
+    private final Counter hedges;
+    private final Counter failovers;
+
+    public SolanaRpcClient(
+            @Qualifier("rpcBulkhead") Bulkhead rpcBulkhead,
+            RpcBudget rpcBudget,
+            MeterRegistry meterRegistry,
+            @Value("${floppfun.solana.rpc-urls:${floppfun.solana.rpc-url}}") List<String> rpcUrls,
+            @Value("${floppfun.solana.rpc.connect-timeout-ms:3000}") long connectTimeoutMs,
+            @Value("${floppfun.solana.rpc.read-timeout-ms:8000}") long readTimeoutMs,
+            @Value("${floppfun.solana.rpc.ewma-alpha:0.2}") double ewmaAlpha,
+            @Value("${floppfun.solana.rpc.breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${floppfun.solana.rpc.breaker.open-ms:30000}") long breakerOpenMs,
+            @Value("${floppfun.solana.rpc.hedge.enabled:true}") boolean hedgeEnabled,
+            @Value("${floppfun.solana.rpc.hedge.min-delay-ms:50}") long hedgeMinDelayMs,
+            @Value("${floppfun.solana.rpc.hedge.max-delay-ms:2000}") long hedgeMaxDelayMs,
+            @Value("${floppfun.solana.rpc.max-attempts:3}") int maxAttempts,
+            @Value("${floppfun.solana.rpc.budget.program-accounts-cost:10}") double programAccountsCost) {
+        this.rpcBulkhead = rpcBulkhead;
+        this.rpcBudget = rpcBudget;
+        this.programAccountsCost = programAccountsCost;
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeMinDelayMs = hedgeMinDelayMs;
+        this.hedgeMaxDelayMs = hedgeMaxDelayMs;
+        this.maxAttempts = maxAttempts;
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(128);
+        dispatcher.setMaxRequestsPerHost(64);
+        this.httpClient = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .readTimeout(Duration.ofMillis(readTimeoutMs))
+                .callTimeout(Duration.ofMillis(connectTimeoutMs + readTimeoutMs))
+                .build();
+
+        this.endpoints = new ArrayList<>();
+        for (String url : rpcUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            // Provider URLs often carry an API key, so only the host goes into logs and metrics
+            HttpUrl parsed = HttpUrl.get(url.trim());
+            RpcEndpoint endpoint = new RpcEndpoint(parsed.toString(), parsed.host(),
+                    ewmaAlpha, failureThreshold, breakerOpenMs);
+            endpoints.add(endpoint);
+
+            Gauge.builder("floppfun.rpc.endpoint.latency", endpoint, RpcEndpoint::getLatencyEwmaMs)
+                    .tag("endpoint", endpoint.getName()).baseUnit("milliseconds").register(meterRegistry);
+            Gauge.builder("floppfun.rpc.endpoint.errors", endpoint, RpcEndpoint::getErrorEwma)
+                    .tag("endpoint", endpoint.getName()).register(meterRegistry);
+            Gauge.builder("floppfun.rpc.endpoint.open", endpoint, e -> e.getState() == RpcEndpoint.State.CLOSED ? 0 : 1)
+                    .tag("endpoint", endpoint.getName()).register(meterRegistry);
+        }
+        if (endpoints.isEmpty()) {
+            throw new IllegalStateException("No Solana RPC endpoints configured");
+        }
+
+        this.hedges = Counter.builder("floppfun.rpc.hedges").register(meterRegistry);
+        this.failovers = Counter.builder("floppfun.rpc.failovers").register(meterRegistry);
+    }
+
+    /**
+     * Call an RPC method and return its "result" (a NullNode if the node returned null).
+     * Waits for credits from the shared {@link RpcBudget} first, on the caller's thread.
+     *
+     * @param params positional params, serialized with Jackson
+     * @throws SolanaRpcException on JSON-RPC errors, or when every attempted endpoint failed
+     * @throws RpcBudget.RpcBudgetExceededException if no credits were granted in time
+     * @throws Bulkhead.BulkheadException if the rpc bulkhead is full or the call timed out
+     */
+    public JsonNode call(RpcPriority priority, String method, Object... params) {
+        ObjectNode request = objectMapper.createObjectNode()
+                .put("jsonrpc", "2.0")
+                .put("id", 1)
+                .put("method", method);
+        ArrayNode paramsNode = request.putArray("params");
+        for (Object param : params) {
+            paramsNode.addPOJO(param);
+        }
+
+        double cost = costOf(method);
+        try {
+            String body = objectMapper.writeValueAsString(request);
+            rpcBudget.acquire(priority, cost);
+            return rpcBulkhead.call(() -> execute(priority, cost, method, body));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SolanaRpcException(method + " failed: " + e.getMessage(), e, false);
+        }
+    }
+
+    /**
+     * Current endpoint health, best first
+     */
+    public List<RpcEndpoint> getEndpoints() {
+        // Scores move while we sort, so rank a snapshot of them
+        Map<RpcEndpoint, Double> scores = new HashMap<>();
+        endpoints.forEach(endpoint -> scores.put(endpoint, endpoint.score()));
+        List<RpcEndpoint> ranked = new ArrayList<>(endpoints);
+        ranked.sort(Comparator.comparingDouble(scores::get));
+        return ranked;
+    }
+
+    private JsonNode execute(RpcPriority priority, double cost, String method, String body) throws Exception {
+        Set<RpcEndpoint> tried = new HashSet<>();
+        List<CompletableFuture<JsonNode>> inFlight = new ArrayList<>();
+        SolanaRpcException lastError = null;
+
+        RpcEndpoint primary = acquireNext(tried);
+        if (primary == null) {
+            throw new SolanaRpcException(method + " failed: all RPC endpoints are unavailable", null, true);
+        }
+        inFlight.add(send(primary, method, body));
+        long hedgeAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(hedgeDelayMs(primary));
+        boolean hedged = false;
+
+        try {
+            while (true) {
+                // Take a finished answer, or drop failed attempts
+                for (CompletableFuture<JsonNode> attempt : new ArrayList<>(inFlight)) {
+                    if (!attempt.isDone()) {
+                        continue;
+                    }
+                    try {
+                        return attempt.join();
+                    } catch (Exception e) {
+                        SolanaRpcException error = unwrap(e);
+                        if (!error.isRetryable()) {
+                            throw error;
+                        }
+                        lastError = error;
+                        inFlight.remove(attempt);
+                    }
+                }
+
+                // Extra attempts only use spare budget; they never queue behind other callers
+                boolean canRetry = tried.size() < maxAttempts;
+                if (inFlight.isEmpty()) {
+                    RpcEndpoint next = canRetry && rpcBudget.tryAcquire(priority, cost) ? acquireNext(tried) : null;
+                    if (next == null) {
+                        throw lastError;
+                    }
+                    failovers.increment();
+                    log.debug("RPC {} failing over to {}", method, next.getName());
+                    inFlight.add(send(next, method, body));
+                    continue;
+                }
+
+                CompletableFuture<Object> any = CompletableFuture.anyOf(inFlight.toArray(new CompletableFuture[0]));
+                try {
+                    if (hedgeEnabled && !hedged && canRetry) {
+                        any.get(Math.max(0, hedgeAt - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    } else {
+                        any.get();
+                    }
+                } catch (TimeoutException e) {
+                    hedged = true;
+                    RpcEndpoint next = rpcBudget.tryAcquire(priority, cost) ? acquireNext(tried) : null;
+                    if (next != null) {
+                        hedges.increment();
+                        inFlight.add(send(next, method, body));
+                    }
+                } catch (ExecutionException e) {
+                    // Handled at the top of the loop
+                }
+            }
+        } finally {
+            // Losers of a hedge race, or everything if we were interrupted by the bulkhead timeout
+            inFlight.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    /**
+     * Send one attempt asynchronously. Cancelling the future cancels the HTTP call.
+     */
+    private CompletableFuture<JsonNode> send(RpcEndpoint endpoint, String method, String body) {
+        CompletableFuture<JsonNode> result = new CompletableFuture<>();
+        Request request = new Request.Builder()
+                .url(endpoint.getUrl())
+                .post(RequestBody.create(body, JSON))
+                .build();
+        Call call = httpClient.newCall(request);
+        long start = System.nanoTime();
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call c, IOException e) {
+                if (c.isCanceled()) {
+                    endpoint.onCancel(System.nanoTime() - start);
+                } else {
+                    endpoint.onFailure();
+                }
+                result.completeExceptionally(new SolanaRpcException(
+                        method + " failed on " + endpoint.getName() + ": " + e.getMessage(), e, true));
+            }
+
+            @Override
+            public void onResponse(Call c, Response response) {
+                try (response) {
+                    if (!response.isSuccessful()) {
+                        // 4xx other than 429 means the request itself is wrong; anything else is the endpoint
+                        boolean endpointFault = response.code() == 429 || response.code() >= 500;
+                        if (endpointFault) {
+                            endpoint.onFailure();
+                        } else {
+                            endpoint.onSuccess(System.nanoTime() - start);
+                        }
+                        result.completeExceptionally(new SolanaRpcException(
+                                method + " failed on " + endpoint.getName() + ": HTTP " + response.code(),
+                                null, endpointFault));
+                        return;
+                    }
+
+                    JsonNode root = objectMapper.readTree(response.body().string());
+                    endpoint.onSuccess(System.nanoTime() - start);
+
+                    JsonNode error = root.get("error");
+                    if (error != null && !error.isNull()) {
+                        result.completeExceptionally(new SolanaRpcException(method + " failed: " + error, null, false));
+                    } else {
+                        result.complete(root.path("result"));
+                    }
+                } catch (Exception e) {
+                    if (c.isCanceled()) {
+                        endpoint.onCancel(System.nanoTime() - start);
+                    } else {
+                        endpoint.onFailure();
+                    }
+                    result.completeExceptionally(new SolanaRpcException(
+                            method + " failed on " + endpoint.getName() + ": " + e.getMessage(), e, true));
+                }
+            }
+        });
+
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Best endpoint not tried yet whose breaker lets a request through
+     */
+    private RpcEndpoint acquireNext(Set<RpcEndpoint> tried) {
+        for (RpcEndpoint endpoint : getEndpoints()) {
+            if (!tried.contains(endpoint) && endpoint.tryAcquire()) {
+                tried.add(endpoint);
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    // getProgramAccounts scans a whole program and is billed (and rate limited) far above point reads
+    private double costOf(String method) {
+        return "getProgramAccounts".equals(method) ? programAccountsCost : 1;
+    }
+
+    private long hedgeDelayMs(RpcEndpoint endpoint) {
+        long p95 = endpoint.p95Millis();
+        if (p95 < 0) {
+            return hedgeMaxDelayMs;
+        }
+        return Math.max(hedgeMinDelayMs, Math.min(hedgeMaxDelayMs, p95));
+    }
+
+    private static SolanaRpcException unwrap(Exception e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause instanceof SolanaRpcException rpc ? rpc : new SolanaRpcException(cause.getMessage(), cause, true);
+    }
+
+    /**
+     * An RPC call failed. Retryable failures (transport, HTTP 429/5xx) were the endpoint's fault and may
+     * succeed elsewhere; the rest (JSON-RPC errors, bad requests) would fail on any endpoint.
+     */
+    public static class SolanaRpcException extends RuntimeException {
+        private final boolean retryable;
+
+        public SolanaRpcException(String message, Throwable cause, boolean retryable) {
+            super(message, cause);
+            this.retryable = retryable;
+        }
+
+        public boolean isRetryable() {
+            return retryable;
+        }
+    }
+}
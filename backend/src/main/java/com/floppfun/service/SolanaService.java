@@ -1,9 +1,15 @@
 package com.floppfun.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -17,8 +23,14 @@ import java.util.UUID;
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class SolanaService {
 
+    public static final int MAX_SIGNATURES_PER_CALL = 256;
+
+    private final WalletSignatureVerifier walletSignatureVerifier;
+    private final SolanaRpcClient solanaRpcClient;
+
     @Value("${floppfun.solana.rpc-url}")
     private String rpcUrl;
 
@@ -97,51 +109,17 @@ public class SolanaService {
 
     /**
      * Verify a wallet signature (for authentication)
-     * Uses Ed25519 signature verification with TweetNaCl
+     * Uses Ed25519 verification on the JDK provider, see {@link WalletSignatureVerifier}
      */
     public boolean verifyWalletSignature(String walletAddress, String message, String signature) {
-        try {
-            // Decode the public key (wallet address) from base58
-            byte[] publicKeyBytes = org.bitcoinj.core.Base58.decode(walletAddress);
-
-            // Decode the signature from base58
-            byte[] signatureBytes = org.bitcoinj.core.Base58.decode(signature);
-
-            // Convert message to bytes
-            byte[] messageBytes = message.getBytes(java.nio.charset.StandardCharsets.UTF_8);
-
-            // Verify the Ed25519 signature using TweetNaCl
-            // Ed25519 signatures are 64 bytes, public keys are 32 bytes
-            if (signatureBytes.length != 64) {
-                log.warn("Invalid signature length for wallet {}: {} bytes (expected 64)", walletAddress, signatureBytes.length);
-                return false;
-            }
-
-            if (publicKeyBytes.length != 32) {
-                log.warn("Invalid public key length for wallet {}: {} bytes (expected 32)", walletAddress, publicKeyBytes.length);
-                return false;
-            }
-
-            // Create a new TweetNaCl signature instance for verification
-            // The constructor takes (publicKey, secretKey) - we only have public key for verification
-            org.p2p.solanaj.utils.TweetNaclFast.Signature signatureVerifier =
-                new org.p2p.solanaj.utils.TweetNaclFast.Signature(publicKeyBytes, null);
-
-            // Detached signature verification (takes message and signature)
-            boolean isValid = signatureVerifier.detached_verify(messageBytes, signatureBytes);
-
-            if (!isValid) {
-                log.warn("Invalid signature for wallet: {}", walletAddress);
-                return false;
-            }
-
-            log.info("Successfully verified signature for wallet: {}", walletAddress);
-            return true;
-
-        } catch (Exception e) {
-            log.error("Error verifying wallet signature for {}: {}", walletAddress, e.getMessage(), e);
+        boolean isValid = walletSignatureVerifier.verify(walletAddress, message, signature);
+        if (!isValid) {
+            log.warn("Invalid signature for wallet: {}", walletAddress);
             return false;
         }
+
+        log.info("Successfully verified signature for wallet: {}", walletAddress);
+        return true;
     }
 
     /**
@@ -158,20 +136,96 @@ public class SolanaService {
     }
 
     /**
-     * Check if transaction is confirmed
-     *
-     * TODO: Implement actual confirmation check
+     * Check if transaction is confirmed (at "confirmed" commitment or better, without error)
      */
     public boolean isTransactionConfirmed(String signature) {
         log.debug("Checking transaction confirmation: {}", signature);
 
-        // TODO: Actual implementation would query Solana RPC
+        SignatureStatus status = getSignatureStatuses(List.of(signature), RpcPriority.USER, true).get(0);
+        return !status.failed() && status.reached("confirmed");
+    }
 
-        return true;
+    /**
+     * Look up statuses for up to 256 signatures in one getSignatureStatuses call.
+     * The result lines up with the input; unknown signatures come back as not found.
+     *
+     * @param searchHistory also search the ledger, not only the node's recent status cache (~2.5 minutes)
+     */
+    public List<SignatureStatus> getSignatureStatuses(List<String> signatures, RpcPriority priority, boolean searchHistory) {
+        if (signatures.size() > MAX_SIGNATURES_PER_CALL) {
+            throw new IllegalArgumentException("At most " + MAX_SIGNATURES_PER_CALL + " signatures per call");
+        }
+
+        JsonNode values = solanaRpcClient.call(priority, "getSignatureStatuses", signatures,
+                Map.of("searchTransactionHistory", searchHistory)).path("value");
+
+        List<SignatureStatus> statuses = new ArrayList<>(signatures.size());
+        for (int i = 0; i < signatures.size(); i++) {
+            JsonNode value = values.path(i);
+            if (value.isMissingNode() || value.isNull()) {
+                statuses.add(new SignatureStatus(signatures.get(i), false, false, null));
+                continue;
+            }
+            JsonNode err = value.path("err");
+            boolean failed = !err.isMissingNode() && !err.isNull();
+            statuses.add(new SignatureStatus(signatures.get(i), true, failed,
+                    value.path("confirmationStatus").asText(null)));
+        }
+        return statuses;
+    }
+
+    /**
+     * What a landed transaction did to one wallet, read from getTransaction (jsonParsed), or empty while the
+     * node can't return the transaction at that commitment yet
+     */
+    public Optional<WalletEffect> getWalletEffect(String signature, String walletAddress, String mintAddress,
+                                                  RpcPriority priority, String commitment) {
+        JsonNode transaction = solanaRpcClient.call(priority, "getTransaction", signature,
+                Map.of("encoding", "jsonParsed",
+                        "commitment", commitment,
+                        "maxSupportedTransactionVersion", 0));
+        if (transaction.isMissingNode() || transaction.isNull()) {
+            return Optional.empty();
+        }
+
+        // jsonParsed account keys include lookup-table addresses, so they line up with the balance arrays
+        JsonNode accountKeys = transaction.path("transaction").path("message").path("accountKeys");
+        JsonNode meta = transaction.path("meta");
+        boolean signed = false;
+        boolean invokedProgram = false;
+        long lamportDelta = 0;
+        for (int i = 0; i < accountKeys.size(); i++) {
+            String account = accountKeys.get(i).path("pubkey").asText();
+            if (account.equals(programId)) {
+                invokedProgram = true;
+            }
+            if (account.equals(walletAddress)) {
+                signed = accountKeys.get(i).path("signer").asBoolean(false);
+                lamportDelta = meta.path("postBalances").path(i).asLong() - meta.path("preBalances").path(i).asLong();
+                if (i == 0) {
+                    // The fee payer's balance also paid the network fee, which isn't part of the trade
+                    lamportDelta += meta.path("fee").asLong();
+                }
+            }
+        }
+
+        long tokenDelta = tokenBalance(meta.path("postTokenBalances"), walletAddress, mintAddress)
+                - tokenBalance(meta.path("preTokenBalances"), walletAddress, mintAddress);
+        return Optional.of(new WalletEffect(signed, invokedProgram, tokenDelta, lamportDelta));
     }
 
     // Helper methods
 
+    private static long tokenBalance(JsonNode balances, String owner, String mint) {
+        long total = 0;
+        for (JsonNode balance : balances) {
+            if (owner.equals(balance.path("owner").asText()) && mint.equals(balance.path("mint").asText())) {
+                total += balance.path("uiTokenAmount").path("amount").asLong();
+            }
+        }
+        return total;
+    }
+
     private String generateMockSolanaAddress() {
         // Real Solana addresses are 32-44 characters base58 encoded
         return "MOCK" + UUID.randomUUID().toString().replace("-", "").substring(0, 40);
@@ -194,4 +248,33 @@ public class SolanaService {
     public String getProgramId() {
         return programId;
     }
+
+    /**
+     * A wallet's side of a landed transaction
+     *
+     * @param signed whether the wallet signed the transaction
+     * @param invokedProgram whether the bonding curve program is among the transaction's accounts
+     * @param tokenDelta change in the wallet's balance of the mint, in base units
+     * @param lamportDelta change in the wallet's SOL balance, not counting the network fee
+     */
+    public record WalletEffect(boolean signed, boolean invokedProgram, long tokenDelta, long lamportDelta) {
+    }
+
+    /**
+     * On-chain status of a transaction signature
+     *
+     * @param confirmationStatus processed, confirmed or finalized (null if not found)
+     */
+    public record SignatureStatus(String signature, boolean found, boolean failed, String confirmationStatus) {
+
+        private static final List<String> LEVELS = List.of("processed", "confirmed", "finalized");
+
+        /**
+         * Whether the transaction has reached at least the given commitment level
+         */
+        public boolean reached(String commitment) {
+            int required = LEVELS.indexOf(commitment);
+            return found && required >= 0 && LEVELS.indexOf(confirmationStatus) >= required;
+        }
+    }
 }
@@ -2,11 +2,13 @@ package com.floppfun.service;
 
 import com.floppfun.dto.TokenHolderDTO;
 import com.floppfun.entity.TokenHolder;
+import com.floppfun.event.TokenStateChangedEvent;
 import com.floppfun.model.entity.Token;
 import com.floppfun.repository.TokenHolderRepository;
 import com.floppfun.repository.TokenRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +23,7 @@ public class TokenHolderService {
 
     private final TokenHolderRepository tokenHolderRepository;
     private final TokenRepository tokenRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Get top holders for a token
@@ -73,6 +76,7 @@ public class TokenHolderService {
         Long holdersCount = getHoldersCount(tokenId);
         token.setHoldersCount(holdersCount.intValue());
         tokenRepository.save(token);
+        eventPublisher.publishEvent(new TokenStateChangedEvent(tokenId, TokenStateChangedEvent.Reason.HOLDERS));
     }
 
     /**
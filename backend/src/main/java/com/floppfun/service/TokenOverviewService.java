@@ -0,0 +1,175 @@
+package com.floppfun.service;
+
+import com.floppfun.dto.CommentDTO;
+import com.floppfun.dto.TokenHolderDTO;
+import com.floppfun.model.dto.PriceHistoryDTO;
+import com.floppfun.model.dto.TokenDTO;
+import com.floppfun.model.dto.TokenOverviewDTO;
+import com.floppfun.model.dto.TransactionDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Builds the token page overview by loading every section concurrently.
+ * Each section has its own timeout; a slow or failing section is reported
+ * as unavailable instead of failing the whole response.
+ *
+ * Sections across all requests share a fixed number of permits, sized below the
+ * connection pool so overview traffic can't take every connection. A section that
+ * can't get a permit quickly is skipped and reported as unavailable with its empty value.
+ */
+@Service
+@Slf4j
+public class TokenOverviewService {
+
+    private final TokenService tokenService;
+    private final TokenResponseCache tokenResponseCache;
+    private final TokenPriceService tokenPriceService;
+    private final TokenHolderService tokenHolderService;
+    private final PriceHistoryService priceHistoryService;
+    private final TradingService tradingService;
+    private final CommentService commentService;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final long permitWaitMs;
+    private final long sectionTimeoutMs;
+    private final int holdersLimit;
+    private final int tradesLimit;
+    private final int commentsLimit;
+    private final String priceTimeframe;
+
+    public TokenOverviewService(
+            TokenService tokenService,
+            TokenResponseCache tokenResponseCache,
+            TokenPriceService tokenPriceService,
+            TokenHolderService tokenHolderService,
+            PriceHistoryService priceHistoryService,
+            TradingService tradingService,
+            CommentService commentService,
+            @Qualifier("overviewExecutor") ExecutorService executor,
+            @Value("${floppfun.overview.max-concurrent-sections:8}") int maxConcurrentSections,
+            @Value("${floppfun.overview.permit-wait-ms:50}") long permitWaitMs,
+            @Value("${floppfun.overview.section-timeout-ms:800}") long sectionTimeoutMs,
+            @Value("${floppfun.overview.holders-limit:10}") int holdersLimit,
+            @Value("${floppfun.overview.trades-limit:20}") int tradesLimit,
+            @Value("${floppfun.overview.comments-limit:20}") int commentsLimit,
+            @Value("${floppfun.overview.price-timeframe:24h}") String priceTimeframe) {
+        this.tokenService = tokenService;
+        this.tokenResponseCache = tokenResponseCache;
+        this.tokenPriceService = tokenPriceService;
+        this.tokenHolderService = tokenHolderService;
+        this.priceHistoryService = priceHistoryService;
+        this.tradingService = tradingService;
+        this.commentService = commentService;
+        this.executor = executor;
+        this.permits = new Semaphore(maxConcurrentSections);
+        this.permitWaitMs = permitWaitMs;
+        this.sectionTimeoutMs = sectionTimeoutMs;
+        this.holdersLimit = holdersLimit;
+        this.tradesLimit = tradesLimit;
+        this.commentsLimit = commentsLimit;
+        this.priceTimeframe = priceTimeframe;
+    }
+
+    /**
+     * Get the overview for a token. Empty if the token does not exist.
+     *
+     * @param currentUserId authenticated user, or null for anonymous callers (only affects comment likes)
+     */
+    public Optional<TokenOverviewDTO> getOverview(Long tokenId, Long currentUserId) {
+        Set<String> unavailable = ConcurrentHashMap.newKeySet();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMs);
+
+        // The token section decides between 404 and 200, so a timeout there is treated like any other section
+        CompletableFuture<Optional<TokenDTO>> token = section("token", unavailable, null,
+                () -> tokenResponseCache.getToken(tokenId, () -> tokenService.getTokenViewById(tokenId)));
+        CompletableFuture<BigDecimal> priceChange = section("priceChange24h", unavailable, null,
+                () -> tokenPriceService.calculate24hPriceChange(tokenId));
+        CompletableFuture<BigDecimal> volume = section("volume24h", unavailable, null,
+                () -> tokenPriceService.calculate24hVolume(tokenId));
+        CompletableFuture<List<TokenHolderDTO>> holders = section("holders", unavailable, List.of(),
+                () -> tokenResponseCache.getTopHolders(tokenId, holdersLimit,
+                        () -> tokenHolderService.getTopHolders(tokenId, holdersLimit)));
+        CompletableFuture<List<PriceHistoryDTO>> priceHistory = section("priceHistory", unavailable, List.of(),
+                // Bounded by what is left of the section timeout, not the chart bulkhead's own (longer) one
+                () -> priceHistoryService.getPriceHistory(tokenId, priceTimeframe,
+                        Duration.ofNanos(deadline - System.nanoTime())));
+        CompletableFuture<List<TransactionDTO>> trades = section("trades", unavailable, List.of(),
+                () -> tradingService.getTokenTransactions(tokenId, PageRequest.of(0, tradesLimit)).getContent());
+        CompletableFuture<List<CommentDTO>> comments = section("comments", unavailable, List.of(),
+                () -> commentService.getTokenComments(tokenId, currentUserId,
+                        PageRequest.of(0, commentsLimit)).getContent());
+
+        CompletableFuture.allOf(token, priceChange, volume, holders, priceHistory, trades, comments).join();
+
+        Optional<TokenDTO> tokenDTO = token.join();
+        if (tokenDTO != null && tokenDTO.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<String> unavailableSections = new ArrayList<>(unavailable);
+        unavailableSections.sort(null);
+
+        return Optional.of(TokenOverviewDTO.builder()
+                .token(tokenDTO != null ? tokenDTO.get() : null)
+                .priceChange24h(priceChange.join())
+                .volume24h(volume.join())
+                .holders(holders.join())
+                .priceHistory(priceHistory.join())
+                .trades(trades.join())
+                .comments(comments.join())
+                .unavailableSections(unavailableSections.isEmpty() ? null : unavailableSections)
+                .build());
+    }
+
+    /**
+     * Run one section on the overview executor. Completes with null (and records the section name)
+     * on failure or timeout; the timed-out task itself keeps running, holding its permit, until its
+     * query returns. Completes with {@code empty} if no permit frees up within permit-wait-ms.
+     */
+    private <T> CompletableFuture<T> section(String name, Set<String> unavailable, T empty, Supplier<T> loader) {
+        return CompletableFuture.supplyAsync(() -> load(name, unavailable, empty, loader), executor)
+                .orTimeout(sectionTimeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionally(ex -> {
+                    log.warn("Overview section '{}' unavailable: {}", name, ex.toString());
+                    unavailable.add(name);
+                    return null;
+                });
+    }
+
+    private <T> T load(String name, Set<String> unavailable, T empty, Supplier<T> loader) {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(permitWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            log.debug("Overview section '{}' skipped: no permit", name);
+            unavailable.add(name);
+            return empty;
+        }
+        try {
+            return loader.get();
+        } finally {
+            permits.release();
+        }
+    }
+}
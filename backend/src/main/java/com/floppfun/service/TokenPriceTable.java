@@ -0,0 +1,88 @@
+package com.floppfun.service;
+
+import com.floppfun.event.TokenStateChangedEvent;
+import com.floppfun.model.dto.TokenQuote;
+import com.floppfun.repository.TokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory table of current token prices (SOL per token), used to value portfolios without
+ * touching the tokens table per holding.
+ *
+ * Loaded in full at startup and on a fixed schedule (which also picks up trades recorded by other
+ * instances); single entries are refreshed right after local trades, syncs and token creation commit.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenPriceTable {
+
+    private final TokenRepository tokenRepository;
+
+    private final Map<Long, BigDecimal> prices = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    /**
+     * Get the current price of a token, or null if the table has no entry for it
+     */
+    public BigDecimal getPrice(Long tokenId) {
+        return prices.get(tokenId);
+    }
+
+    /**
+     * Whether the table has been loaded at least once
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Reload every token's price
+     */
+    public void refreshAll() {
+        List<TokenQuote> quotes = tokenRepository.findAllQuotes();
+        for (TokenQuote quote : quotes) {
+            put(quote);
+        }
+        loaded = true;
+        log.debug("Price table refreshed: {} tokens", quotes.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            refreshAll();
+        } catch (Exception e) {
+            log.error("Initial price table load failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Refresh one token after its committed state changed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokenStateChanged(TokenStateChangedEvent event) {
+        if (event.reason() == TokenStateChangedEvent.Reason.HOLDERS) {
+            return;
+        }
+        try {
+            tokenRepository.findQuotesByIdIn(List.of(event.tokenId())).forEach(this::put);
+        } catch (Exception e) {
+            log.warn("Could not refresh price for token {}: {}", event.tokenId(), e.getMessage());
+        }
+    }
+
+    private void put(TokenQuote quote) {
+        prices.put(quote.tokenId(), quote.price() != null ? quote.price() : BigDecimal.ZERO);
+    }
+}
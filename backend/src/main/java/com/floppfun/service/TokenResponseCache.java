@@ -0,0 +1,379 @@
+package com.floppfun.service;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.floppfun.dto.TokenHolderDTO;
+import com.floppfun.event.TokenStateChangedEvent;
+import com.floppfun.model.dto.TokenDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier response cache for the hot token read endpoints.
+ *
+ * Tier 1 is a per-instance Caffeine near cache, tier 2 is shared Redis. Entries are not expired by
+ * TTL in normal operation - every entry is tagged with the tokens it depends on and evicted when a
+ * {@link TokenStateChangedEvent} for one of those tokens commits; trades also evict every trending
+ * page, since they can reorder it. Evictions are fanned out to the other instances over Redis pub/sub
+ * so their near caches stay coherent, and a short near-cache TTL backs up a missed message.
+ */
+@Slf4j
+@Service
+public class TokenResponseCache {
+
+    public static final String INVALIDATION_CHANNEL = "response-cache:invalidate";
+
+    private static final String KEY_PREFIX = "response-cache:";
+    private static final String TAG_PREFIX = "response-cache:tag:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration redisTtl;
+
+    private final Cache<String, CacheEntry> nearCache;
+    private final Map<String, Set<String>> localTags = new ConcurrentHashMap<>();
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+
+    // Bumped on every eviction; a load that overlaps an eviction is returned but not stored
+    private final AtomicLong generation = new AtomicLong();
+
+    public TokenResponseCache(
+            RedisTemplate<String, String> redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${floppfun.cache.response.enabled:true}") boolean enabled,
+            @Value("${floppfun.cache.response.near-cache-size:10000}") long nearCacheSize,
+            @Value("${floppfun.cache.response.near-cache-ttl:60}") long nearCacheTtlSeconds,
+            @Value("${floppfun.cache.response.redis-ttl:600}") long redisTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.redisTtl = Duration.ofSeconds(redisTtlSeconds);
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(nearCacheSize)
+                // Safety net only: bounds how long a missed pub/sub eviction can serve stale data
+                .expireAfterWrite(Duration.ofSeconds(nearCacheTtlSeconds))
+                .recordStats()
+                .removalListener((String key, CacheEntry entry, RemovalCause cause) -> {
+                    // On REPLACED the new entry's tags are already registered under the same key
+                    if (key != null && entry != null && cause != RemovalCause.REPLACED) {
+                        untag(key, entry.tags());
+                    }
+                })
+                .build();
+    }
+
+    @PostConstruct
+    void init() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            EndpointStats endpointStats = new EndpointStats();
+            stats.put(endpoint, endpointStats);
+
+            FunctionCounter.builder("floppfun.cache.requests", endpointStats.localHits, LongAdder::doubleValue)
+                    .tag("endpoint", endpoint.metricName).tag("result", "local_hit").register(meterRegistry);
+            FunctionCounter.builder("floppfun.cache.requests", endpointStats.redisHits, LongAdder::doubleValue)
+                    .tag("endpoint", endpoint.metricName).tag("result", "redis_hit").register(meterRegistry);
+            FunctionCounter.builder("floppfun.cache.requests", endpointStats.misses, LongAdder::doubleValue)
+                    .tag("endpoint", endpoint.metricName).tag("result", "miss").register(meterRegistry);
+            Gauge.builder("floppfun.cache.hit.ratio", endpointStats, EndpointStats::hitRatio)
+                    .tag("endpoint", endpoint.metricName).register(meterRegistry);
+        }
+        CaffeineCacheMetrics.monitor(meterRegistry, nearCache, "token-response-near-cache");
+
+        try {
+            listenerContainer.addMessageListener(
+                    (message, pattern) -> evictLocal(new String(message.getBody(), StandardCharsets.UTF_8)),
+                    new ChannelTopic(INVALIDATION_CHANNEL));
+        } catch (Exception e) {
+            log.warn("Could not subscribe to response cache invalidations: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Token detail by ID
+     */
+    public Optional<TokenDTO> getToken(Long id, Supplier<Optional<TokenDTO>> loader) {
+        TokenDTO dto = getOrLoad(Endpoint.TOKEN_BY_ID, "token:id:" + id,
+                objectMapper.constructType(TokenDTO.class),
+                () -> loader.get().orElse(null),
+                token -> List.of(tokenTag(token.getId())));
+        return Optional.ofNullable(dto);
+    }
+
+    /**
+     * Token detail by mint address
+     */
+    public Optional<TokenDTO> getTokenByMint(String mintAddress, Supplier<Optional<TokenDTO>> loader) {
+        TokenDTO dto = getOrLoad(Endpoint.TOKEN_BY_MINT, "token:mint:" + mintAddress,
+                objectMapper.constructType(TokenDTO.class),
+                () -> loader.get().orElse(null),
+                token -> List.of(tokenTag(token.getId())));
+        return Optional.ofNullable(dto);
+    }
+
+    /**
+     * One page of a token list ("all", "trending", ...)
+     */
+    public Page<TokenDTO> getTokenPage(String list, Pageable pageable, Supplier<Page<TokenDTO>> loader) {
+        Endpoint endpoint = "trending".equals(list) ? Endpoint.TRENDING : Endpoint.TOKEN_LIST;
+        String key = "list:" + list + ":" + pageable.getPageNumber() + ":" + pageable.getPageSize();
+
+        CachedPage<TokenDTO> cached = getOrLoad(endpoint, key,
+                objectMapper.getTypeFactory().constructParametricType(CachedPage.class, TokenDTO.class),
+                () -> {
+                    Page<TokenDTO> page = loader.get();
+                    return new CachedPage<>(page.getContent(), page.getTotalElements());
+                },
+                page -> {
+                    List<String> tags = new ArrayList<>(page.content().size() + 1);
+                    tags.add(listTag(list));
+                    page.content().forEach(token -> tags.add(tokenTag(token.getId())));
+                    return tags;
+                });
+
+        return new PageImpl<>(cached.content(), pageable, cached.totalElements());
+    }
+
+    /**
+     * Top holders for a token
+     */
+    public List<TokenHolderDTO> getTopHolders(Long tokenId, int limit, Supplier<List<TokenHolderDTO>> loader) {
+        return getOrLoad(Endpoint.HOLDERS, "holders:" + tokenId + ":" + limit,
+                objectMapper.getTypeFactory().constructCollectionType(List.class, TokenHolderDTO.class),
+                loader,
+                holders -> List.of(holdersTag(tokenId)));
+    }
+
+    /**
+     * Evict everything that depends on a token once the change is committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokenStateChanged(TokenStateChangedEvent event) {
+        if (!enabled || event.tokenId() == null) {
+            return;
+        }
+
+        List<String> tags = new ArrayList<>(2);
+        tags.add(tokenTag(event.tokenId()));
+
+        switch (event.reason()) {
+            case HOLDERS -> tags.add(holdersTag(event.tokenId()));
+            // Trending is ordered by 24h volume, so a trade on any token can reorder every page
+            case TRADE -> tags.add(listTag("trending"));
+            case CREATED -> {
+                // A new token shifts every page of every list
+                tags.add(listTag("all"));
+                tags.add(listTag("trending"));
+            }
+            default -> { }
+        }
+
+        tags.forEach(this::invalidate);
+    }
+
+    /**
+     * Invalidate a tag locally, in Redis and on every other instance
+     */
+    public void invalidate(String tag) {
+        evictLocal(tag);
+
+        try {
+            String tagKey = TAG_PREFIX + tag;
+            Set<String> keys = redisTemplate.opsForSet().members(tagKey);
+            List<String> toDelete = new ArrayList<>();
+            toDelete.add(tagKey);
+            if (keys != null) {
+                toDelete.addAll(keys);
+            }
+            redisTemplate.delete(toDelete);
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, tag);
+        } catch (Exception e) {
+            log.warn("Failed to invalidate response cache tag {} in Redis: {}", tag, e.getMessage());
+        }
+    }
+
+    private <T> T getOrLoad(Endpoint endpoint, String key, JavaType type, Supplier<T> loader,
+                            Function<T, Collection<String>> tagger) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        EndpointStats endpointStats = stats.get(endpoint);
+
+        CacheEntry local = nearCache.getIfPresent(key);
+        if (local != null) {
+            endpointStats.localHits.increment();
+            return cast(local.value());
+        }
+
+        long startGeneration = generation.get();
+
+        T shared = readShared(key, type);
+        if (shared != null) {
+            endpointStats.redisHits.increment();
+            if (startGeneration == generation.get()) {
+                putLocal(key, shared, tagger.apply(shared));
+            }
+            return shared;
+        }
+
+        endpointStats.misses.increment();
+        T value = loader.get();
+
+        if (value != null && startGeneration == generation.get()) {
+            Collection<String> tags = tagger.apply(value);
+            putLocal(key, value, tags);
+            writeShared(key, value, tags);
+        }
+
+        return value;
+    }
+
+    private <T> T readShared(String key, JavaType type) {
+        try {
+            String json = redisTemplate.opsForValue().get(KEY_PREFIX + key);
+            return json != null ? objectMapper.readValue(json, type) : null;
+        } catch (Exception e) {
+            log.debug("Response cache read failed for {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeShared(String key, Object value, Collection<String> tags) {
+        try {
+            String json = objectMapper.writeValueAsString(value);
+            String redisKey = KEY_PREFIX + key;
+
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    ops.opsForValue().set(redisKey, json, redisTtl);
+                    for (String tag : tags) {
+                        ops.opsForSet().add(TAG_PREFIX + tag, redisKey);
+                        ops.expire(TAG_PREFIX + tag, redisTtl);
+                    }
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.debug("Response cache write failed for {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void putLocal(String key, Object value, Collection<String> tags) {
+        for (String tag : tags) {
+            localTags.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        nearCache.put(key, new CacheEntry(value, tags));
+    }
+
+    private void evictLocal(String tag) {
+        generation.incrementAndGet();
+        Set<String> keys = localTags.remove(tag);
+        if (keys != null) {
+            nearCache.invalidateAll(keys);
+        }
+    }
+
+    private void untag(String key, Collection<String> tags) {
+        for (String tag : tags) {
+            localTags.computeIfPresent(tag, (t, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+
+    private static String tokenTag(Long tokenId) {
+        return "token:" + tokenId;
+    }
+
+    private static String holdersTag(Long tokenId) {
+        return "holders:" + tokenId;
+    }
+
+    private static String listTag(String list) {
+        return "list:" + list;
+    }
+
+    /**
+     * Cached endpoints, used as metric tags
+     */
+    enum Endpoint {
+        TOKEN_LIST("tokens"),
+        TOKEN_BY_ID("tokens_by_id"),
+        TOKEN_BY_MINT("tokens_by_mint"),
+        TRENDING("tokens_trending"),
+        HOLDERS("tokens_holders");
+
+        final String metricName;
+
+        Endpoint(String metricName) {
+            this.metricName = metricName;
+        }
+    }
+
+    /**
+     * Hit/miss counters for one endpoint
+     */
+    private static class EndpointStats {
+        final LongAdder localHits = new LongAdder();
+        final LongAdder redisHits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+
+        double hitRatio() {
+            double hits = localHits.sum() + redisHits.sum();
+            double total = hits + misses.sum();
+            return total == 0 ? 0.0 : hits / total;
+        }
+    }
+
+    private record CacheEntry(Object value, Collection<String> tags) {
+    }
+
+    /**
+     * Serializable page body (PageImpl itself does not round-trip through Jackson)
+     */
+    record CachedPage<T>(List<T> content, long totalElements) {
+    }
+}
@@ -1,12 +1,16 @@
 package com.floppfun.service;
 
+import com.floppfun.event.TokenStateChangedEvent;
 import com.floppfun.model.dto.TokenCreateRequest;
 import com.floppfun.model.dto.TokenDTO;
+import com.floppfun.model.dto.TokenView;
+import com.floppfun.model.dto.UserDTO;
 import com.floppfun.model.entity.Token;
 import com.floppfun.model.entity.User;
 import com.floppfun.repository.TokenRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -27,6 +31,7 @@ public class TokenService {
     private final IpfsService ipfsService;
     private final SolanaService solanaService;
     private final BondingCurveService bondingCurveService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Create a new token (token already created on-chain by frontend)
@@ -84,6 +89,8 @@ public class TokenService {
         creator.setTokensCreated(creator.getTokensCreated() + 1);
         userService.getUserById(creator.getId()); // Save happens in transaction
 
+        eventPublisher.publishEvent(new TokenStateChangedEvent(token.getId(), TokenStateChangedEvent.Reason.CREATED));
+
         log.info("Token saved to database successfully: {}", request.getMintAddress());
         return token;
     }
@@ -130,6 +137,54 @@ public class TokenService {
         return tokenRepository.findByCreatorId(creatorId, pageable);
     }
 
+    /**
+     * Get token detail view by ID (read-only projection)
+     */
+    @Transactional(readOnly = true)
+    public Optional<TokenDTO> getTokenViewById(Long id) {
+        return tokenRepository.findViewById(id).map(this::toDTO);
+    }
+
+    /**
+     * Get token detail view by mint address (read-only projection)
+     */
+    @Transactional(readOnly = true)
+    public Optional<TokenDTO> getTokenViewByMintAddress(String mintAddress) {
+        return tokenRepository.findViewByMintAddress(mintAddress).map(this::toDTO);
+    }
+
+    /**
+     * Get all tokens as list views (read-only projection)
+     */
+    @Transactional(readOnly = true)
+    public Page<TokenDTO> getAllTokenViews(Pageable pageable) {
+        return tokenRepository.findViewsByStatus(Token.TokenStatus.ACTIVE, pageable).map(this::toDTO);
+    }
+
+    /**
+     * Get trending tokens as list views (read-only projection)
+     */
+    @Transactional(readOnly = true)
+    public Page<TokenDTO> getTrendingTokenViews(Pageable pageable) {
+        return tokenRepository.findTrendingViews(Token.TokenStatus.ACTIVE, pageable).map(this::toDTO);
+    }
+
+    /**
+     * Search tokens as list views (read-only projection)
+     */
+    @Transactional(readOnly = true)
+    public Page<TokenDTO> searchTokenViews(String query, Pageable pageable) {
+        return tokenRepository.searchViews(query, pageable).map(this::toDTO);
+    }
+
+    /**
+     * Get tokens by creator ID as list views (read-only projection)
+     */
+    @Transactional(readOnly = true)
+    public Page<TokenDTO> getTokenViewsByCreatorId(Long creatorId, Pageable pageable) {
+        return tokenRepository.findViewsByCreatorId(creatorId, pageable).map(this::toDTO);
+    }
+
     /**
      * Update token statistics after trade
      */
@@ -197,4 +252,51 @@ public class TokenService {
                 .lastTradeAt(token.getLastTradeAt())
                 .build();
     }
+
+    /**
+     * Convert projection to DTO
+     */
+    public TokenDTO toDTO(TokenView view) {
+        UserDTO creator = view.creatorId() == null ? null : UserDTO.builder()
+                .id(view.creatorId())
+                .walletAddress(view.creatorWalletAddress())
+                .username(view.creatorUsername())
+                .avatarUrl(view.creatorAvatarUrl())
+                .bio(view.creatorBio())
+                .twitterHandle(view.creatorTwitterHandle())
+                .telegramHandle(view.creatorTelegramHandle())
+                .isVerified(view.creatorIsVerified())
+                .totalVolumeTraded(view.creatorTotalVolumeTraded())
+                .tokensCreated(view.creatorTokensCreated())
+                .reputationScore(view.creatorReputationScore())
+                .createdAt(view.creatorCreatedAt())
+                .build();
+
+        return TokenDTO.builder()
+                .id(view.id())
+                .mintAddress(view.mintAddress())
+                .name(view.name())
+                .symbol(view.symbol())
+                .description(view.description())
+                .imageUrl(view.imageUrl())
+                .metadataUri(view.metadataUri())
+                .creator(creator)
+                .totalSupply(view.totalSupply())
+                .decimals(view.decimals())
+                .currentPrice(view.currentPrice())
+                .marketCap(view.marketCap())
+                .volume24h(view.volume24h())
+                .holdersCount(view.holdersCount())
+                .status(view.status() != null ? view.status().name() : null)
+                .bondingCurveProgress(view.bondingCurveProgress())
+                .website(view.website())
+                .twitter(view.twitter())
+                .telegram(view.telegram())
+                .discord(view.discord())
+                .isNsfw(view.isNsfw())
+                .isFeatured(view.isFeatured())
+                .createdAt(view.createdAt())
+                .lastTradeAt(view.lastTradeAt())
+                .build();
+    }
 }
@@ -0,0 +1,298 @@
+package com.floppfun.service;
+
+import com.floppfun.event.TradeRecordedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Confirms client-submitted trades on-chain.
+ *
+ * Recorded trades are PENDING and their signatures wait in an in-memory queue. Each tick drains the
+ * queue and checks up to 256 signatures per getSignatureStatuses call. A confirmed signature only says
+ * that some transaction landed, and the amounts in the row come from the client, so each confirmed trade
+ * is then fetched with getTransaction: it must be signed by the trader, go through the bonding curve
+ * program and move the recorded token amount (exactly) and SOL amount (within a small tolerance for
+ * account rent) in the recorded direction. Trades that match are applied, each in its own transaction;
+ * the rest are failed in one batched UPDATE (see {@link TradingService#confirmTrades} and
+ * {@link TradingService#failTrades}), and the trader hears about the outcome once it commits. Signatures
+ * that haven't reached the commitment yet go back in the queue until they expire.
+ *
+ * PENDING rows in the database are the source of truth: they are re-queued at startup and periodically,
+ * so trades recorded by an instance that went away still get confirmed. Several instances checking the
+ * same signature is harmless, since only the UPDATE that still finds the row PENDING applies it.
+ */
+@Slf4j
+@Service
+public class TradeConfirmationService {
+
+    private static final String PENDING_SQL =
+            "SELECT signature, created_at FROM transactions WHERE status = 'PENDING' ORDER BY id";
+
+    private static final String RECORDED_SQL =
+            "SELECT t.signature, t.transaction_type, t.token_amount, t.sol_amount, u.wallet_address, k.mint_address " +
+            "FROM transactions t JOIN users u ON u.id = t.user_id JOIN tokens k ON k.id = t.token_id " +
+            "WHERE t.status = 'PENDING' AND t.signature IN (%s)";
+
+    private final SolanaService solanaService;
+    private final TradingService tradingService;
+    private final JdbcTemplate jdbcTemplate;
+    private final String commitment;
+    private final int maxBatchesPerTick;
+    private final Duration expireAfter;
+    private final Duration searchHistoryAfter;
+    private final long solToleranceLamports;
+
+    private final Queue<PendingTrade> queue = new ConcurrentLinkedQueue<>();
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    private final Counter confirmed;
+    private final Counter failed;
+    private final Counter expired;
+    private final Counter rejected;
+    private final Counter rpcCalls;
+
+    public TradeConfirmationService(
+            SolanaService solanaService,
+            TradingService tradingService,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${floppfun.trading.confirmation.commitment:confirmed}") String commitment,
+            @Value("${floppfun.trading.confirmation.max-batches-per-tick:8}") int maxBatchesPerTick,
+            @Value("${floppfun.trading.confirmation.expire-after-ms:180000}") long expireAfterMs,
+            @Value("${floppfun.trading.confirmation.search-history-after-ms:60000}") long searchHistoryAfterMs,
+            @Value("${floppfun.trading.confirmation.sol-tolerance-lamports:2500000}") long solToleranceLamports) {
+        this.solanaService = solanaService;
+        this.tradingService = tradingService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.commitment = commitment;
+        this.maxBatchesPerTick = maxBatchesPerTick;
+        this.expireAfter = Duration.ofMillis(expireAfterMs);
+        this.searchHistoryAfter = Duration.ofMillis(searchHistoryAfterMs);
+        this.solToleranceLamports = solToleranceLamports;
+
+        Gauge.builder("floppfun.trades.pending", queued, Set::size).register(meterRegistry);
+        this.confirmed = Counter.builder("floppfun.trades.confirmation").tag("result", "confirmed").register(meterRegistry);
+        this.failed = Counter.builder("floppfun.trades.confirmation").tag("result", "failed").register(meterRegistry);
+        this.expired = Counter.builder("floppfun.trades.confirmation").tag("result", "expired").register(meterRegistry);
+        this.rejected = Counter.builder("floppfun.trades.confirmation").tag("result", "rejected").register(meterRegistry);
+        this.rpcCalls = Counter.builder("floppfun.trades.confirmation.rpc_calls").register(meterRegistry);
+    }
+
+    /**
+     * Queue a trade once it is committed as PENDING
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTradeRecorded(TradeRecordedEvent event) {
+        enqueue(event.signature(), event.submittedAt());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            requeuePending();
+        } catch (Exception e) {
+            log.error("Initial pending trade load failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Queue every PENDING trade in the database that isn't queued here yet
+     *
+     * @return number of trades added
+     */
+    public int requeuePending() {
+        int before = queued.size();
+        jdbcTemplate.query(PENDING_SQL, rs -> {
+            enqueue(rs.getString("signature"), rs.getTimestamp("created_at").toLocalDateTime());
+        });
+        int added = queued.size() - before;
+        if (added > 0) {
+            log.info("Queued {} pending trades for confirmation", added);
+        }
+        return added;
+    }
+
+    /**
+     * Check queued signatures, 256 per RPC call, and apply the outcomes
+     */
+    public void verifyPending() {
+        int limit = maxBatchesPerTick * SolanaService.MAX_SIGNATURES_PER_CALL;
+        List<PendingTrade> due = new ArrayList<>();
+        PendingTrade next;
+        while (due.size() < limit && (next = queue.poll()) != null) {
+            due.add(next);
+        }
+
+        for (int from = 0; from < due.size(); from += SolanaService.MAX_SIGNATURES_PER_CALL) {
+            List<PendingTrade> batch = due.subList(from, Math.min(from + SolanaService.MAX_SIGNATURES_PER_CALL, due.size()));
+            try {
+                verifyBatch(batch);
+            } catch (Exception e) {
+                // Keep everything not yet settled for the next tick
+                log.warn("Trade confirmation batch failed: {}", e.getMessage());
+                queue.addAll(due.subList(from, due.size()));
+                return;
+            }
+        }
+    }
+
+    private void verifyBatch(List<PendingTrade> batch) {
+        long now = System.currentTimeMillis();
+        boolean searchHistory = batch.stream().anyMatch(trade -> now - trade.submittedAtMillis() > searchHistoryAfter.toMillis());
+
+        List<String> signatures = batch.stream().map(PendingTrade::signature).toList();
+        List<SolanaService.SignatureStatus> statuses =
+                solanaService.getSignatureStatuses(signatures, RpcPriority.USER, searchHistory);
+        rpcCalls.increment();
+
+        List<PendingTrade> landed = new ArrayList<>();
+        List<String> toFail = new ArrayList<>();
+        List<PendingTrade> stillPending = new ArrayList<>();
+        int expiredCount = 0;
+
+        for (int i = 0; i < batch.size(); i++) {
+            PendingTrade trade = batch.get(i);
+            SolanaService.SignatureStatus status = statuses.get(i);
+            if (status.failed()) {
+                toFail.add(trade.signature());
+            } else if (status.reached(commitment)) {
+                landed.add(trade);
+            } else if (now - trade.submittedAtMillis() > expireAfter.toMillis()) {
+                // Never landed, or stuck below the commitment long after its blockhash expired
+                toFail.add(trade.signature());
+                expiredCount++;
+            } else {
+                stillPending.add(trade);
+            }
+        }
+
+        List<String> toConfirm = new ArrayList<>();
+        int rejectedCount = matchOnChain(landed, toConfirm, toFail, stillPending);
+
+        tradingService.confirmTrades(toConfirm);
+        tradingService.failTrades(toFail);
+        confirmed.increment(toConfirm.size());
+        failed.increment(toFail.size() - expiredCount - rejectedCount);
+        expired.increment(expiredCount);
+        rejected.increment(rejectedCount);
+
+        toConfirm.forEach(queued::remove);
+        toFail.forEach(queued::remove);
+        queue.addAll(stillPending);
+
+        if (!toConfirm.isEmpty() || !toFail.isEmpty()) {
+            log.debug("Trade confirmation: {} confirmed, {} failed, {} still pending",
+                    toConfirm.size(), toFail.size(), stillPending.size());
+        }
+    }
+
+    /**
+     * Check what each landed transaction actually did against the recorded trade. Matches go to toConfirm,
+     * mismatches to toFail; transactions the node can't return yet stay pending.
+     *
+     * @return number of trades rejected
+     */
+    private int matchOnChain(List<PendingTrade> landed, List<String> toConfirm, List<String> toFail,
+                             List<PendingTrade> stillPending) {
+        if (landed.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, RecordedTrade> recorded = new HashMap<>();
+        for (RecordedTrade trade : loadRecorded(landed.stream().map(PendingTrade::signature).toList())) {
+            recorded.put(trade.signature(), trade);
+        }
+
+        int rejectedCount = 0;
+        for (PendingTrade trade : landed) {
+            RecordedTrade row = recorded.get(trade.signature());
+            if (row == null) {
+                // Already settled elsewhere
+                continue;
+            }
+            Optional<SolanaService.WalletEffect> effect;
+            try {
+                effect = solanaService.getWalletEffect(row.signature(), row.walletAddress(), row.mintAddress(),
+                        RpcPriority.USER, commitment);
+                rpcCalls.increment();
+            } catch (Exception e) {
+                log.warn("Fetching trade {} failed: {}", row.signature(), e.getMessage());
+                stillPending.add(trade);
+                continue;
+            }
+
+            if (effect.isEmpty()) {
+                stillPending.add(trade);
+            } else if (matches(row, effect.get())) {
+                toConfirm.add(row.signature());
+            } else {
+                log.warn("Trade {} doesn't match its on-chain transaction: recorded {} {} tokens for {} lamports, " +
+                        "got {}", row.signature(), row.type(), row.tokenAmount(), row.solAmount(), effect.get());
+                toFail.add(row.signature());
+                rejectedCount++;
+            }
+        }
+        return rejectedCount;
+    }
+
+    private boolean matches(RecordedTrade trade, SolanaService.WalletEffect effect) {
+        if (!effect.signed() || !effect.invokedProgram()) {
+            return false;
+        }
+        // A buy spends SOL and receives tokens, a sell the opposite
+        boolean buy = "BUY".equals(trade.type());
+        long tokenDelta = buy ? effect.tokenDelta() : -effect.tokenDelta();
+        long solMoved = buy ? -effect.lamportDelta() : effect.lamportDelta();
+        return tokenDelta == trade.tokenAmount()
+                && Math.abs(solMoved - trade.solAmount()) <= solToleranceLamports;
+    }
+
+    private List<RecordedTrade> loadRecorded(List<String> signatures) {
+        String sql = RECORDED_SQL.formatted(String.join(", ", Collections.nCopies(signatures.size(), "?")));
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new RecordedTrade(
+                rs.getString("signature"),
+                rs.getString("transaction_type"),
+                rs.getLong("token_amount"),
+                rs.getLong("sol_amount"),
+                rs.getString("wallet_address"),
+                rs.getString("mint_address")), signatures.toArray());
+    }
+
+    private void enqueue(String signature, LocalDateTime submittedAt) {
+        if (queued.add(signature)) {
+            long submittedAtMillis = submittedAt != null
+                    ? submittedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                    : System.currentTimeMillis();
+            queue.add(new PendingTrade(signature, submittedAtMillis));
+        }
+    }
+
+    private record PendingTrade(String signature, long submittedAtMillis) {
+    }
+
+    private record RecordedTrade(String signature, String type, long tokenAmount, long solAmount,
+                                 String walletAddress, String mintAddress) {
+    }
+}
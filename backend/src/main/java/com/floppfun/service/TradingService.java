@@ -1,21 +1,37 @@
 package com.floppfun.service;
 
+import com.floppfun.event.TokenStateChangedEvent;
+import com.floppfun.event.TradeRecordedEvent;
+import com.floppfun.event.TradeSettledEvent;
 import com.floppfun.model.dto.TradeRequest;
 import com.floppfun.model.dto.TradeResponse;
+import com.floppfun.model.dto.TransactionDTO;
 import com.floppfun.model.entity.Token;
 import com.floppfun.model.entity.Transaction;
 import com.floppfun.model.entity.User;
 import com.floppfun.model.entity.UserHolding;
+import com.floppfun.repository.TokenRepository;
 import com.floppfun.repository.TransactionRepository;
 import com.floppfun.repository.UserHoldingRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
@@ -28,12 +44,17 @@ public class TradingService {
     private final SolanaService solanaService;
     private final WebSocketService webSocketService;
     private final PriceHistoryService priceHistoryService;
+    private final TokenRepository tokenRepository;
     private final TransactionRepository transactionRepository;
     private final UserHoldingRepository userHoldingRepository;
+    private final PnlLedgerService pnlLedgerService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
 
     /**
      * FIXED: Record buy transaction (executed client-side)
-     * Backend only records the transaction after it's confirmed on-chain
+     * The trade is stored as PENDING and takes effect once {@link TradeConfirmationService} sees it confirmed on-chain
      */
     @Transactional
     public TradeResponse buyTokens(TradeRequest request) {
@@ -51,13 +72,12 @@ public class TradingService {
         // Get or create user
         User user = userService.getOrCreateUser(request.getWalletAddress());
 
-        // FIXED: Use actual amounts from the confirmed transaction
+        // FIXED: Use actual amounts from the submitted transaction
         Long tokensToBuy = request.getAmount();
         Long totalSolCost = request.getSolAmount();
 
         // Calculate platform fee (1% of SOL amount)
         Long platformFee = bondingCurveService.calculatePlatformFee(totalSolCost);
-        Long solCost = totalSolCost - platformFee;
 
         // Calculate price per token
         BigDecimal pricePerToken = BigDecimal.valueOf(totalSolCost)
@@ -67,62 +87,27 @@ public class TradingService {
         // String signature = solanaService.executeBuy(...); // ❌ WRONG
         String signature = request.getSignature(); // ✅ Use client-provided signature
 
-        // Update token reserves
-        token.setVirtualSolReserves(token.getVirtualSolReserves() + solCost);
-        token.setVirtualTokenReserves(token.getVirtualTokenReserves() - tokensToBuy);
-
-        // Update token statistics
-        tokenService.updateTokenStats(token, solCost, tokensToBuy);
+        Transaction transaction = recordPending(signature, token, user, Transaction.TransactionType.BUY,
+                totalSolCost, tokensToBuy, pricePerToken, platformFee);
 
-        // Create transaction record
-        Transaction transaction = Transaction.builder()
-                .signature(signature)
-                .token(token)
-                .user(user)
-                .transactionType(Transaction.TransactionType.BUY)
-                .solAmount(totalSolCost)
-                .tokenAmount(tokensToBuy)
-                .pricePerToken(pricePerToken)
-                .platformFee(platformFee)
-                .status(Transaction.TransactionStatus.CONFIRMED)
-                .blockTime(LocalDateTime.now())
-                .build();
-
-        transactionRepository.save(transaction);
-
-        // Update or create user holding
-        updateUserHolding(user, token, tokensToBuy, pricePerToken, true);
-
-        // Update user stats
-        user.setTotalVolumeTraded(user.getTotalVolumeTraded().add(BigDecimal.valueOf(totalSolCost)));
-
-        // Record price history for charts
-        priceHistoryService.recordPricePoint(token, token.getCurrentPrice(),
-                BigDecimal.valueOf(totalSolCost), token.getMarketCap(), "BUY");
-
-        // Broadcast real-time update
-        webSocketService.broadcastPriceUpdate(token.getId(), token.getCurrentPrice(),
-                token.getMarketCap(), token.getVolume24h());
-        webSocketService.broadcastTrade(token.getSymbol(), "BUY", tokensToBuy, pricePerToken);
-
-        log.info("Buy completed: {} tokens for {} SOL (fee: {})", tokensToBuy, solCost, platformFee);
+        log.info("Buy recorded as pending: {} tokens for {} SOL (fee: {})", tokensToBuy, totalSolCost, platformFee);
 
         return TradeResponse.builder()
                 .transactionSignature(signature)
                 .tokenMintAddress(token.getMintAddress())
                 .solAmount(totalSolCost)
                 .tokenAmount(tokensToBuy)
-                .pricePerToken(pricePerToken)
+                .pricePerToken(transaction.getPricePerToken())
                 .newTokenPrice(token.getCurrentPrice())
                 .platformFee(BigDecimal.valueOf(platformFee))
-                .status("SUCCESS")
-                .message("Buy transaction completed successfully")
+                .status(Transaction.TransactionStatus.PENDING.name())
+                .message("Buy transaction recorded, awaiting on-chain confirmation")
                 .build();
     }
 
     /**
      * FIXED: Record sell transaction (executed client-side)
-     * Backend only records the transaction after it's confirmed on-chain
+     * The trade is stored as PENDING and takes effect once {@link TradeConfirmationService} sees it confirmed on-chain
      */
     @Transactional
     public TradeResponse sellTokens(TradeRequest request) {
@@ -141,16 +126,11 @@ public class TradingService {
         User user = userService.getUserByWallet(request.getWalletAddress())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Check user has enough tokens (validation only)
-        UserHolding holding = userHoldingRepository.findByUserIdAndTokenId(user.getId(), token.getId())
-                .orElse(null);
-
         Long tokensToSell = request.getAmount();
         Long netSolReceived = request.getSolAmount();
 
         // Calculate platform fee (1% of SOL amount)
         Long platformFee = bondingCurveService.calculatePlatformFee(netSolReceived);
-        Long solReceived = netSolReceived + platformFee;
 
         // Calculate price per token
         BigDecimal pricePerToken = BigDecimal.valueOf(netSolReceived)
@@ -160,32 +140,258 @@ public class TradingService {
         // String signature = solanaService.executeSell(...); // ❌ WRONG
         String signature = request.getSignature(); // ✅ Use client-provided signature
 
-        // Update token reserves
-        token.setVirtualSolReserves(token.getVirtualSolReserves() - solReceived);
-        token.setVirtualTokenReserves(token.getVirtualTokenReserves() + tokensToSell);
+        Transaction transaction = recordPending(signature, token, user, Transaction.TransactionType.SELL,
+                netSolReceived, tokensToSell, pricePerToken, platformFee);
 
-        // Update token statistics
-        tokenService.updateTokenStats(token, solReceived, tokensToSell);
+        log.info("Sell recorded as pending: {} tokens for {} SOL (fee: {})", tokensToSell, netSolReceived, platformFee);
+
+        return TradeResponse.builder()
+                .transactionSignature(signature)
+                .tokenMintAddress(token.getMintAddress())
+                .solAmount(netSolReceived)
+                .tokenAmount(tokensToSell)
+                .pricePerToken(transaction.getPricePerToken())
+                .newTokenPrice(token.getCurrentPrice())
+                .platformFee(BigDecimal.valueOf(platformFee))
+                .status(Transaction.TransactionStatus.PENDING.name())
+                .message("Sell transaction recorded, awaiting on-chain confirmation")
+                .build();
+    }
+
+    /**
+     * Confirm pending trades and apply them in submission order. Each trade is flipped from PENDING and
+     * applied to reserves, holdings, PnL and price history in its own transaction, so one trade that fails
+     * to apply only rolls back itself: it stays PENDING and is picked up again by the next re-queue.
+     * Signatures already confirmed or failed (e.g. by another instance) are skipped.
+     *
+     * @return number of trades confirmed
+     */
+    public int confirmTrades(List<String> signatures) {
+        if (signatures.isEmpty()) {
+            return 0;
+        }
+
+        TransactionTemplate tradeTransaction = new TransactionTemplate(transactionManager);
+        tradeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        int confirmed = 0;
+        for (String signature : signatures) {
+            try {
+                if (Boolean.TRUE.equals(tradeTransaction.execute(status -> confirmTrade(signature)))) {
+                    confirmed++;
+                }
+            } catch (RuntimeException e) {
+                log.error("Applying confirmed trade {} failed, leaving it pending: {}", signature, e.getMessage(), e);
+            }
+        }
+        return confirmed;
+    }
+
+    /**
+     * Mark pending trades as failed (errored on-chain, or never landed) in one UPDATE.
+     * They never touched reserves, holdings or PnL, so there is nothing to undo.
+     *
+     * @return number of trades failed
+     */
+    @Transactional
+    public int failTrades(List<String> signatures) {
+        if (signatures.isEmpty()) {
+            return 0;
+        }
+
+        List<Map<String, Object>> failed = jdbcTemplate.queryForList(
+                "UPDATE transactions t SET status = 'FAILED' FROM users u " +
+                "WHERE u.id = t.user_id AND t.status = 'PENDING' " +
+                "AND t.signature IN (" + placeholders(signatures.size()) + ") " +
+                "RETURNING t.signature, u.wallet_address",
+                signatures.toArray());
+
+        for (Map<String, Object> row : failed) {
+            eventPublisher.publishEvent(new TradeSettledEvent((String) row.get("wallet_address"),
+                    (String) row.get("signature"), Transaction.TransactionStatus.FAILED, null));
+        }
+        return failed.size();
+    }
 
-        // Create transaction record
+    /**
+     * Tell the trader, and for confirmed trades everyone watching the token, once the outcome is committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTradeSettled(TradeSettledEvent event) {
+        try {
+            webSocketService.sendTradeStatus(event.walletAddress(), event.signature(), event.status().name());
+
+            TradeSettledEvent.AppliedTrade trade = event.trade();
+            if (trade != null) {
+                webSocketService.broadcastPriceUpdate(trade.tokenId(), trade.tokenPrice(),
+                        trade.marketCap(), trade.volume24h());
+                webSocketService.broadcastTrade(trade.tokenSymbol(), trade.type().name(),
+                        trade.tokenAmount(), trade.pricePerToken());
+            }
+        } catch (Exception e) {
+            // The trade is committed either way; clients catch up from the REST endpoints
+            log.warn("Trade status broadcast for {} failed: {}", event.signature(), e.getMessage());
+        }
+    }
+
+    /**
+     * Get confirmed transaction history for a token
+     */
+    @Transactional(readOnly = true)
+    public Page<TransactionDTO> getTokenTransactions(Long tokenId, Pageable pageable) {
+        return transactionRepository.findByTokenIdAndStatusOrderByCreatedAtDesc(tokenId,
+                        Transaction.TransactionStatus.CONFIRMED, pageable)
+                .map(this::toDTO);
+    }
+
+    /**
+     * Get transaction history for a user, including their pending and failed trades
+     */
+    @Transactional(readOnly = true)
+    public Page<TransactionDTO> getUserTransactions(Long userId, Pageable pageable) {
+        return transactionRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable)
+                .map(this::toDTO);
+    }
+
+    /**
+     * Convert entity to DTO
+     */
+    public TransactionDTO toDTO(Transaction tx) {
+        return TransactionDTO.builder()
+                .id(tx.getId())
+                .signature(tx.getSignature())
+                .tokenId(tx.getToken().getId())
+                .tokenSymbol(tx.getToken().getSymbol())
+                .tokenName(tx.getToken().getName())
+                .userId(tx.getUser().getId())
+                .userWalletAddress(tx.getUser().getWalletAddress())
+                .transactionType(tx.getTransactionType().name())
+                .solAmount(tx.getSolAmount())
+                .tokenAmount(tx.getTokenAmount())
+                .pricePerToken(tx.getPricePerToken())
+                .platformFee(BigDecimal.valueOf(tx.getPlatformFee()))
+                .status(tx.getStatus().name())
+                .blockTime(tx.getBlockTime())
+                .createdAt(tx.getCreatedAt())
+                .build();
+    }
+
+    private Transaction recordPending(String signature, Token token, User user, Transaction.TransactionType type,
+                                      Long solAmount, Long tokenAmount, BigDecimal pricePerToken, Long platformFee) {
         Transaction transaction = Transaction.builder()
                 .signature(signature)
                 .token(token)
                 .user(user)
-                .transactionType(Transaction.TransactionType.SELL)
-                .solAmount(netSolReceived)
-                .tokenAmount(tokensToSell)
+                .transactionType(type)
+                .solAmount(solAmount)
+                .tokenAmount(tokenAmount)
                 .pricePerToken(pricePerToken)
                 .platformFee(platformFee)
-                .status(Transaction.TransactionStatus.CONFIRMED)
+                .status(Transaction.TransactionStatus.PENDING)
                 .blockTime(LocalDateTime.now())
                 .build();
 
         transactionRepository.save(transaction);
 
+        // Queue the signature for on-chain confirmation once the trade commits
+        eventPublisher.publishEvent(new TradeRecordedEvent(signature, transaction.getBlockTime()));
+        return transaction;
+    }
+
+    /**
+     * Flip one trade from PENDING to CONFIRMED and apply it; false if it was already settled
+     */
+    private boolean confirmTrade(String signature) {
+        List<Map<String, Object>> flipped = jdbcTemplate.queryForList(
+                "UPDATE transactions SET status = 'CONFIRMED' WHERE status = 'PENDING' AND signature = ? " +
+                "RETURNING id, token_id",
+                signature);
+        if (flipped.isEmpty()) {
+            return false;
+        }
+        Long id = ((Number) flipped.get(0).get("id")).longValue();
+        Long tokenId = ((Number) flipped.get(0).get("token_id")).longValue();
+
+        // Lock the token before the trade loads it, so the reserves below are read and written under the
+        // lock (other confirmations of the same token, on any instance, wait for this transaction)
+        tokenRepository.findForUpdate(tokenId);
+
+        for (Transaction transaction : transactionRepository.findByIdInOrderByIdAsc(List.of(id))) {
+            if (transaction.getTransactionType() == Transaction.TransactionType.BUY) {
+                applyBuy(transaction);
+            } else {
+                applySell(transaction);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Apply a confirmed buy (SOL amount includes the fee)
+     */
+    private void applyBuy(Transaction transaction) {
+        Token token = transaction.getToken();
+        User user = transaction.getUser();
+        Long tokensToBuy = transaction.getTokenAmount();
+        Long totalSolCost = transaction.getSolAmount();
+        Long platformFee = transaction.getPlatformFee();
+        Long solCost = totalSolCost - platformFee;
+        BigDecimal pricePerToken = transaction.getPricePerToken();
+
+        // Update token reserves
+        token.setVirtualSolReserves(token.getVirtualSolReserves() + solCost);
+        token.setVirtualTokenReserves(token.getVirtualTokenReserves() - tokensToBuy);
+
+        // Update token statistics
+        tokenService.updateTokenStats(token, solCost, tokensToBuy);
+
+        // Update or create user holding
+        updateUserHolding(user, token, tokensToBuy, pricePerToken, true);
+
+        // Update the PnL ledger (cost basis includes the fee)
+        pnlLedgerService.recordBuy(user.getId(), token.getId(), tokensToBuy, totalSolCost, platformFee);
+
+        // Update user stats
+        user.setTotalVolumeTraded(user.getTotalVolumeTraded().add(BigDecimal.valueOf(totalSolCost)));
+
+        // Record price history for charts
+        priceHistoryService.recordPricePoint(token, token.getCurrentPrice(),
+                BigDecimal.valueOf(totalSolCost), token.getMarketCap(), "BUY");
+
+        // Invalidate cached token responses once the trade commits
+        eventPublisher.publishEvent(new TokenStateChangedEvent(token.getId(), TokenStateChangedEvent.Reason.TRADE));
+
+        // Tell the trader and broadcast the real-time update once the trade commits
+        publishConfirmed(transaction, token);
+
+        log.info("Buy confirmed: {} tokens for {} SOL (fee: {})", tokensToBuy, solCost, platformFee);
+    }
+
+    /**
+     * Apply a confirmed sell (SOL amount is net of the fee)
+     */
+    private void applySell(Transaction transaction) {
+        Token token = transaction.getToken();
+        User user = transaction.getUser();
+        Long tokensToSell = transaction.getTokenAmount();
+        Long netSolReceived = transaction.getSolAmount();
+        Long platformFee = transaction.getPlatformFee();
+        Long solReceived = netSolReceived + platformFee;
+        BigDecimal pricePerToken = transaction.getPricePerToken();
+
+        // Update token reserves
+        token.setVirtualSolReserves(token.getVirtualSolReserves() - solReceived);
+        token.setVirtualTokenReserves(token.getVirtualTokenReserves() + tokensToSell);
+
+        // Update token statistics
+        tokenService.updateTokenStats(token, solReceived, tokensToSell);
+
         // Update user holding
         updateUserHolding(user, token, tokensToSell, pricePerToken, false);
 
+        // Update the PnL ledger (realized against average cost, proceeds net of the fee)
+        pnlLedgerService.recordSell(user.getId(), token.getId(), tokensToSell, netSolReceived, platformFee);
+
         // Update user stats
         user.setTotalVolumeTraded(user.getTotalVolumeTraded().add(BigDecimal.valueOf(netSolReceived)));
 
@@ -193,24 +399,25 @@ public class TradingService {
         priceHistoryService.recordPricePoint(token, token.getCurrentPrice(),
                 BigDecimal.valueOf(netSolReceived), token.getMarketCap(), "SELL");
 
-        // Broadcast real-time update
-        webSocketService.broadcastPriceUpdate(token.getId(), token.getCurrentPrice(),
-                token.getMarketCap(), token.getVolume24h());
-        webSocketService.broadcastTrade(token.getSymbol(), "SELL", tokensToSell, pricePerToken);
+        // Invalidate cached token responses once the trade commits
+        eventPublisher.publishEvent(new TokenStateChangedEvent(token.getId(), TokenStateChangedEvent.Reason.TRADE));
 
-        log.info("Sell completed: {} tokens for {} SOL (fee: {})", tokensToSell, netSolReceived, platformFee);
+        // Tell the trader and broadcast the real-time update once the trade commits
+        publishConfirmed(transaction, token);
 
-        return TradeResponse.builder()
-                .transactionSignature(signature)
-                .tokenMintAddress(token.getMintAddress())
-                .solAmount(netSolReceived)
-                .tokenAmount(tokensToSell)
-                .pricePerToken(pricePerToken)
-                .newTokenPrice(token.getCurrentPrice())
-                .platformFee(BigDecimal.valueOf(platformFee))
-                .status("SUCCESS")
-                .message("Sell transaction completed successfully")
-                .build();
+        log.info("Sell confirmed: {} tokens for {} SOL (fee: {})", tokensToSell, netSolReceived, platformFee);
+    }
+
+    private void publishConfirmed(Transaction transaction, Token token) {
+        eventPublisher.publishEvent(new TradeSettledEvent(transaction.getUser().getWalletAddress(),
+                transaction.getSignature(), Transaction.TransactionStatus.CONFIRMED,
+                new TradeSettledEvent.AppliedTrade(token.getId(), token.getSymbol(), transaction.getTransactionType(),
+                        transaction.getTokenAmount(), transaction.getPricePerToken(), token.getCurrentPrice(),
+                        token.getMarketCap(), token.getVolume24h())));
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
     }
 
     /**
@@ -0,0 +1,96 @@
+package com.floppfun.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.bitcoinj.core.Base58;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+
+/**
+ * Ed25519 verification of wallet-signed messages on the JDK's built-in EdDSA provider.
+ *
+ * A Solana wallet address is the Base58 of a raw 32-byte Ed25519 public key. The decoded key is wrapped in
+ * its fixed X.509 SubjectPublicKeyInfo prefix, turned into a PublicKey once and cached per wallet, so
+ * repeat logins skip Base58 decoding and key parsing. Signature objects are not thread-safe, so each
+ * thread keeps its own.
+ */
+@Slf4j
+@Service
+public class WalletSignatureVerifier {
+
+    private static final int PUBLIC_KEY_LENGTH = 32;
+    private static final int SIGNATURE_LENGTH = 64;
+
+    // DER header of an Ed25519 SubjectPublicKeyInfo (OID 1.3.101.112), followed by the raw 32-byte key
+    private static final byte[] X509_PREFIX = {
+            0x30, 0x2a, 0x30, 0x05, 0x06, 0x03, 0x2b, 0x65, 0x70, 0x03, 0x21, 0x00
+    };
+
+    private final ThreadLocal<Signature> signatures = ThreadLocal.withInitial(() -> {
+        try {
+            return Signature.getInstance("Ed25519");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Ed25519 not available", e);
+        }
+    });
+    private final Cache<String, PublicKey> publicKeys;
+
+    public WalletSignatureVerifier(@Value("${floppfun.auth.public-key-cache-size:100000}") long publicKeyCacheSize) {
+        this.publicKeys = Caffeine.newBuilder()
+                .maximumSize(publicKeyCacheSize)
+                .build();
+    }
+
+    /**
+     * Verify a Base58 detached signature over the UTF-8 message by the given wallet
+     */
+    public boolean verify(String walletAddress, String message, String signature) {
+        try {
+            byte[] signatureBytes = Base58.decode(signature);
+            if (signatureBytes.length != SIGNATURE_LENGTH) {
+                log.warn("Invalid signature length for wallet {}: {} bytes (expected 64)", walletAddress, signatureBytes.length);
+                return false;
+            }
+
+            PublicKey publicKey = publicKeys.get(walletAddress, this::toPublicKey);
+            if (publicKey == null) {
+                return false;
+            }
+
+            Signature verifier = signatures.get();
+            verifier.initVerify(publicKey);
+            verifier.update(message.getBytes(StandardCharsets.UTF_8));
+            return verifier.verify(signatureBytes);
+        } catch (Exception e) {
+            log.warn("Error verifying wallet signature for {}: {}", walletAddress, e.getMessage());
+            return false;
+        }
+    }
+
+    // Returns null for addresses that aren't a 32-byte key (not cached, Caffeine drops null loads)
+    private PublicKey toPublicKey(String walletAddress) {
+        try {
+            byte[] raw = Base58.decode(walletAddress);
+            if (raw.length != PUBLIC_KEY_LENGTH) {
+                log.warn("Invalid public key length for wallet {}: {} bytes (expected 32)", walletAddress, raw.length);
+                return null;
+            }
+            byte[] encoded = new byte[X509_PREFIX.length + PUBLIC_KEY_LENGTH];
+            System.arraycopy(X509_PREFIX, 0, encoded, 0, X509_PREFIX.length);
+            System.arraycopy(raw, 0, encoded, X509_PREFIX.length, PUBLIC_KEY_LENGTH);
+            // KeyFactory is not thread-safe; this only runs on a cache miss
+            return KeyFactory.getInstance("Ed25519").generatePublic(new X509EncodedKeySpec(encoded));
+        } catch (Exception e) {
+            log.warn("Invalid wallet address {}: {}", walletAddress, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.floppfun.service;
+
+import com.floppfun.event.WatchlistChangedEvent;
+import com.floppfun.model.dto.TokenQuote;
+import com.floppfun.repository.TokenRepository;
+import com.floppfun.repository.WatchlistRepository;
+import com.floppfun.security.AuthenticatedUser;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user watchlist price feed on /user/queue/watchlist.
+ *
+ * Keeps an in-memory token -> watchers index for users connected to this instance (loaded on STOMP connect,
+ * dropped on last disconnect, kept current by watchlist add/remove). Each tick reads price and market cap for
+ * every watched token in one query and sends each user a single message with the tokens that changed.
+ * Watchlist changes are relayed over Redis so users connected to other instances are updated too.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WatchlistFeedService {
+
+    private static final String CHANGE_CHANNEL = "watchlist:changed";
+    private static final int QUOTE_BATCH_SIZE = 1000;
+
+    private final TokenRepository tokenRepository;
+    private final WatchlistRepository watchlistRepository;
+    private final WebSocketService webSocketService;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final Map<Long, Watcher> watchersByUser = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> watchersByToken = new ConcurrentHashMap<>();
+    private final Map<String, Long> userIdBySession = new ConcurrentHashMap<>();
+    private final Map<Long, TokenQuote> lastQuotes = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        try {
+            listenerContainer.addMessageListener(
+                    (message, pattern) -> applyRemoteChange(new String(message.getBody(), StandardCharsets.UTF_8)),
+                    new ChannelTopic(CHANGE_CHANNEL));
+        } catch (Exception e) {
+            log.warn("Could not subscribe to watchlist changes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Start feeding an authenticated session (first session of a user loads their watchlist)
+     */
+    @EventListener
+    public void onSessionConnected(SessionConnectedEvent event) {
+        AuthenticatedUser user = AuthenticatedUser.from(event.getUser());
+        String sessionId = StompHeaderAccessor.wrap(event.getMessage()).getSessionId();
+        if (user == null || sessionId == null) {
+            return;
+        }
+
+        Long userId = user.userId();
+
+        userIdBySession.put(sessionId, userId);
+        watchersByUser.compute(userId, (id, watcher) -> {
+            if (watcher == null) {
+                watcher = new Watcher(user.walletAddress());
+                for (Long tokenId : watchlistRepository.findTokenIdsByUserId(userId)) {
+                    watcher.tokenIds.add(tokenId);
+                    index(tokenId, userId);
+                }
+            }
+            watcher.sessions++;
+            return watcher;
+        });
+    }
+
+    /**
+     * Stop feeding a session (last session of a user drops them from the index)
+     */
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        Long userId = userIdBySession.remove(event.getSessionId());
+        if (userId == null) {
+            return;
+        }
+
+        watchersByUser.computeIfPresent(userId, (id, watcher) -> {
+            if (--watcher.sessions > 0) {
+                return watcher;
+            }
+            watcher.tokenIds.forEach(tokenId -> unindex(tokenId, userId));
+            return null;
+        });
+    }
+
+    /**
+     * Apply a committed watchlist change here and relay it to other instances
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWatchlistChanged(WatchlistChangedEvent event) {
+        applyChange(event.userId(), event.tokenId(), event.added());
+        try {
+            redisTemplate.convertAndSend(CHANGE_CHANNEL,
+                    event.userId() + ":" + event.tokenId() + ":" + (event.added() ? "1" : "0"));
+        } catch (Exception e) {
+            log.warn("Could not relay watchlist change: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Send each connected user the watched tokens whose price or market cap changed since the last tick
+     */
+    public void publishTick() {
+        if (watchersByToken.isEmpty()) {
+            lastQuotes.clear();
+            return;
+        }
+
+        List<Long> tokenIds = new ArrayList<>(watchersByToken.keySet());
+        Map<Long, List<TokenQuote>> updatesByUser = new HashMap<>();
+
+        for (int from = 0; from < tokenIds.size(); from += QUOTE_BATCH_SIZE) {
+            List<Long> batch = tokenIds.subList(from, Math.min(from + QUOTE_BATCH_SIZE, tokenIds.size()));
+            for (TokenQuote quote : tokenRepository.findQuotesByIdIn(batch)) {
+                TokenQuote previous = lastQuotes.put(quote.tokenId(), quote);
+                if (previous != null && sameQuote(previous, quote)) {
+                    continue;
+                }
+                Set<Long> watchers = watchersByToken.get(quote.tokenId());
+                if (watchers == null) {
+                    continue;
+                }
+                for (Long userId : watchers) {
+                    updatesByUser.computeIfAbsent(userId, id -> new ArrayList<>()).add(quote);
+                }
+            }
+        }
+
+        // Forget quotes for tokens nobody watches anymore
+        lastQuotes.keySet().retainAll(watchersByToken.keySet());
+
+        updatesByUser.forEach((userId, quotes) -> {
+            Watcher watcher = watchersByUser.get(userId);
+            if (watcher != null) {
+                webSocketService.sendWatchlistUpdate(watcher.walletAddress, quotes);
+            }
+        });
+    }
+
+    private void applyRemoteChange(String message) {
+        try {
+            String[] parts = message.split(":");
+            applyChange(Long.parseLong(parts[0]), Long.parseLong(parts[1]), "1".equals(parts[2]));
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed watchlist change message: {}", message);
+        }
+    }
+
+    // Idempotent, so applying our own relayed message again is harmless
+    private void applyChange(Long userId, Long tokenId, boolean added) {
+        watchersByUser.computeIfPresent(userId, (id, watcher) -> {
+            if (added) {
+                if (watcher.tokenIds.add(tokenId)) {
+                    index(tokenId, userId);
+                }
+            } else if (watcher.tokenIds.remove(tokenId)) {
+                unindex(tokenId, userId);
+            }
+            return watcher;
+        });
+    }
+
+    private void index(Long tokenId, Long userId) {
+        watchersByToken.computeIfAbsent(tokenId, id -> ConcurrentHashMap.newKeySet()).add(userId);
+    }
+
+    private void unindex(Long tokenId, Long userId) {
+        watchersByToken.computeIfPresent(tokenId, (id, watchers) -> {
+            watchers.remove(userId);
+            return watchers.isEmpty() ? null : watchers;
+        });
+    }
+
+    private static boolean sameQuote(TokenQuote a, TokenQuote b) {
+        return sameValue(a.price(), b.price()) && sameValue(a.marketCap(), b.marketCap());
+    }
+
+    private static boolean sameValue(BigDecimal a, BigDecimal b) {
+        return a == null || b == null ? Objects.equals(a, b) : a.compareTo(b) == 0;
+    }
+
+    /**
+     * A user connected to this instance. Mutated only inside watchersByUser.compute*.
+     */
+    private static final class Watcher {
+        private final String walletAddress;
+        private final Set<Long> tokenIds = ConcurrentHashMap.newKeySet();
+        private int sessions;
+
+        private Watcher(String walletAddress) {
+            this.walletAddress = walletAddress;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.floppfun.service;
+
+import com.floppfun.event.WatchlistChangedEvent;
+import com.floppfun.repository.WatchlistRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-user watchlist membership as compressed bitmaps of token IDs.
+ *
+ * A user's bitmap is built from one DB query on first use and then answers any number of
+ * membership checks from memory. Bitmaps are never mutated in place: add/remove swap in an
+ * updated copy, so concurrent readers always see a consistent set. Other instances drop
+ * their copy when a change is announced over Redis and rebuild on next use.
+ */
+@Service
+@Slf4j
+public class WatchlistMembershipCache {
+
+    private static final String EVICT_CHANNEL = "watchlist:membership:evict";
+
+    private final WatchlistRepository watchlistRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Cache<Long, Roaring64NavigableMap> bitmaps;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public WatchlistMembershipCache(
+            WatchlistRepository watchlistRepository,
+            RedisTemplate<String, String> redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            MeterRegistry meterRegistry,
+            @Value("${floppfun.watchlist.membership.max-users:100000}") long maxUsers,
+            @Value("${floppfun.watchlist.membership.expire-after-access:3600}") long expireAfterAccessSeconds) {
+        this.watchlistRepository = watchlistRepository;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.bitmaps = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofSeconds(expireAfterAccessSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, bitmaps, "watchlist-membership");
+    }
+
+    @PostConstruct
+    void init() {
+        try {
+            listenerContainer.addMessageListener(
+                    (message, pattern) -> evictLocal(new String(message.getBody(), StandardCharsets.UTF_8)),
+                    new ChannelTopic(EVICT_CHANNEL));
+        } catch (Exception e) {
+            log.warn("Could not subscribe to watchlist membership evictions: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Check one token against the user's watchlist
+     */
+    public boolean contains(Long userId, Long tokenId) {
+        return bitmap(userId).contains(tokenId);
+    }
+
+    /**
+     * Check a batch of tokens against the user's watchlist (request order preserved)
+     */
+    public Map<Long, Boolean> containsAll(Long userId, Collection<Long> tokenIds) {
+        Roaring64NavigableMap watched = bitmap(userId);
+        Map<Long, Boolean> result = new LinkedHashMap<>();
+        for (Long tokenId : tokenIds) {
+            result.put(tokenId, tokenId != null && watched.contains(tokenId));
+        }
+        return result;
+    }
+
+    /**
+     * Keep the local bitmap current after a committed change and tell other instances to drop theirs
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWatchlistChanged(WatchlistChangedEvent event) {
+        bitmaps.asMap().computeIfPresent(event.userId(), (userId, current) -> {
+            Roaring64NavigableMap updated = new Roaring64NavigableMap();
+            updated.or(current);
+            if (event.added()) {
+                updated.addLong(event.tokenId());
+            } else {
+                updated.removeLong(event.tokenId());
+            }
+            return updated;
+        });
+
+        try {
+            redisTemplate.convertAndSend(EVICT_CHANNEL, instanceId + ":" + event.userId());
+        } catch (Exception e) {
+            log.warn("Could not publish watchlist membership eviction: {}", e.getMessage());
+        }
+    }
+
+    private Roaring64NavigableMap bitmap(Long userId) {
+        return bitmaps.get(userId, this::load);
+    }
+
+    private Roaring64NavigableMap load(Long userId) {
+        Roaring64NavigableMap bitmap = new Roaring64NavigableMap();
+        watchlistRepository.findTokenIdsByUserId(userId).forEach(bitmap::addLong);
+        bitmap.runOptimize();
+        return bitmap;
+    }
+
+    private void evictLocal(String message) {
+        int separator = message.indexOf(':');
+        if (separator < 0) {
+            log.warn("Ignoring malformed watchlist membership eviction: {}", message);
+            return;
+        }
+        // Our own announcement arrives here too; the copy we just updated is already current
+        if (message.substring(0, separator).equals(instanceId)) {
+            return;
+        }
+        try {
+            bitmaps.invalidate(Long.parseLong(message.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed watchlist membership eviction: {}", message);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.floppfun.service;
 
 import com.floppfun.entity.Watchlist;
+import com.floppfun.event.WatchlistChangedEvent;
 import com.floppfun.model.dto.TokenDTO;
 import com.floppfun.model.entity.Token;
 import com.floppfun.model.entity.User;
@@ -9,10 +10,13 @@ import com.floppfun.repository.UserRepository;
 import com.floppfun.repository.WatchlistRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,6 +28,8 @@ public class WatchlistService {
     private final TokenRepository tokenRepository;
     private final UserRepository userRepository;
     private final TokenService tokenService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WatchlistMembershipCache membershipCache;
 
     /**
      * Add token to watchlist
@@ -47,6 +53,7 @@ public class WatchlistService {
 
         watchlistRepository.save(watchlist);
         log.info("Token {} added to watchlist for user {}", tokenId, userId);
+        eventPublisher.publishEvent(new WatchlistChangedEvent(userId, tokenId, true));
     }
 
     /**
@@ -60,14 +67,21 @@ public class WatchlistService {
 
         watchlistRepository.deleteByUserIdAndTokenId(userId, tokenId);
         log.info("Token {} removed from watchlist for user {}", tokenId, userId);
+        eventPublisher.publishEvent(new WatchlistChangedEvent(userId, tokenId, false));
     }
 
     /**
      * Check if token is in watchlist
      */
-    @Transactional(readOnly = true)
     public boolean isInWatchlist(Long userId, Long tokenId) {
-        return watchlistRepository.existsByUserIdAndTokenId(userId, tokenId);
+        return membershipCache.contains(userId, tokenId);
+    }
+
+    /**
+     * Check which of the given tokens are in the watchlist (answered from the cached bitmap)
+     */
+    public Map<Long, Boolean> checkWatchlist(Long userId, Collection<Long> tokenIds) {
+        return membershipCache.containsAll(userId, tokenIds);
     }
 
     /**
@@ -75,10 +89,9 @@ public class WatchlistService {
      */
     @Transactional(readOnly = true)
     public List<TokenDTO> getWatchlist(Long userId) {
-        List<Watchlist> watchlist = watchlistRepository.findByUserId(userId);
-
-        return watchlist.stream()
-            .map(w -> tokenService.toDTO(w.getToken()))
+        // Token and creator columns come from one projection query instead of lazy loads per entry
+        return tokenRepository.findWatchlistViews(userId).stream()
+            .map(tokenService::toDTO)
             .collect(Collectors.toList());
     }
 }
@@ -1,5 +1,7 @@
 package com.floppfun.service;
 
+import com.floppfun.event.CommentChangedEvent;
+import com.floppfun.model.dto.TokenQuote;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -7,6 +9,7 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -82,4 +85,57 @@ public class WebSocketService {
 
         log.info("Broadcasted new token: {}", symbol);
     }
+
+    /**
+     * Broadcast a comment change to the token's comment stream.
+     * seq increases by one per event on the token; a gap tells the client to refetch.
+     * likesCount is the comment's current total for LIKED/UNLIKED, null otherwise.
+     */
+    public void broadcastCommentEvent(CommentChangedEvent event, Long seq, Integer likesCount) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("seq", seq);
+        message.put("type", event.type().name());
+        message.put("commentId", event.commentId());
+        if (event.parentCommentId() != null) {
+            message.put("parentCommentId", event.parentCommentId());
+        }
+        if (event.comment() != null) {
+            message.put("comment", event.comment());
+        }
+        if (likesCount != null) {
+            message.put("likesCount", likesCount);
+        }
+        message.put("timestamp", System.currentTimeMillis());
+
+        messagingTemplate.convertAndSend("/topic/comments/" + event.tokenId(), message);
+
+        log.debug("Broadcasted comment {} for token {} (seq {})", event.type(), event.tokenId(), seq);
+    }
+
+    /**
+     * Send one batched price/market-cap diff for a user's watched tokens
+     */
+    public void sendWatchlistUpdate(String walletAddress, List<TokenQuote> quotes) {
+        Map<String, Object> update = new HashMap<>();
+        update.put("updates", quotes);
+        update.put("timestamp", System.currentTimeMillis());
+
+        messagingTemplate.convertAndSendToUser(walletAddress, "/queue/watchlist", update);
+
+        log.debug("Sent {} watchlist updates to {}", quotes.size(), walletAddress);
+    }
+
+    /**
+     * Tell a trader their submitted trade was confirmed or failed on-chain
+     */
+    public void sendTradeStatus(String walletAddress, String signature, String status) {
+        Map<String, Object> update = new HashMap<>();
+        update.put("signature", signature);
+        update.put("status", status);
+        update.put("timestamp", System.currentTimeMillis());
+
+        messagingTemplate.convertAndSendToUser(walletAddress, "/queue/trades", update);
+
+        log.debug("Sent trade status {} for {} to {}", status, signature, walletAddress);
+    }
 }
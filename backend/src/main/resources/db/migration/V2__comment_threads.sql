@@ -0,0 +1,16 @@
+-- Threaded comments: maintained reply counts and an index for loading replies in order
+
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS replies_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE comments c
+SET replies_count = r.cnt
+FROM (
+    SELECT parent_comment_id, COUNT(*) AS cnt
+    FROM comments
+    WHERE parent_comment_id IS NOT NULL
+    GROUP BY parent_comment_id
+) r
+WHERE c.id = r.parent_comment_id;
+
+CREATE INDEX IF NOT EXISTS idx_comments_parent_created ON comments(parent_comment_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_comments_token_root_created ON comments(token_id, created_at DESC) WHERE parent_comment_id IS NULL;
@@ -0,0 +1,28 @@
+-- Portfolio history is read per user by time range; compaction also walks it per user and time bucket
+
+-- V1 created portfolio_snapshots with the old lamport columns; the entity, the snapshot batch INSERT and
+-- the history query use these instead. Databases first built by Hibernate may already have them.
+ALTER TABLE portfolio_snapshots ADD COLUMN IF NOT EXISTS total_value NUMERIC(20, 9) NOT NULL DEFAULT 0;
+ALTER TABLE portfolio_snapshots ADD COLUMN IF NOT EXISTS sol_balance NUMERIC(20, 9) DEFAULT 0;
+ALTER TABLE portfolio_snapshots ADD COLUMN IF NOT EXISTS sol_value NUMERIC(20, 9) DEFAULT 0;
+ALTER TABLE portfolio_snapshots ADD COLUMN IF NOT EXISTS token_value NUMERIC(20, 9) DEFAULT 0;
+ALTER TABLE portfolio_snapshots ADD COLUMN IF NOT EXISTS token_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE portfolio_snapshots ADD COLUMN IF NOT EXISTS created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+-- The old columns are no longer written, so they can't stay NOT NULL; carry their values over where present
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'portfolio_snapshots' AND column_name = 'total_value_sol') THEN
+        ALTER TABLE portfolio_snapshots
+            ALTER COLUMN total_value_sol DROP NOT NULL,
+            ALTER COLUMN total_invested_sol DROP NOT NULL,
+            ALTER COLUMN total_profit_sol DROP NOT NULL;
+        UPDATE portfolio_snapshots
+        SET total_value = total_value_sol / 1000000000.0,
+            created_at = COALESCE(snapshot_date, created_at)
+        WHERE total_value_sol IS NOT NULL;
+    END IF;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_portfolio_snapshots_user_created ON portfolio_snapshots(user_id, created_at);
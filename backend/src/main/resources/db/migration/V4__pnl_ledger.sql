@@ -0,0 +1,31 @@
+-- Incremental PnL ledger per (user, token) and per-user totals for leaderboards (amounts in lamports)
+
+CREATE TABLE IF NOT EXISTS pnl_ledger (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id),
+    token_id BIGINT NOT NULL REFERENCES tokens(id),
+    position_amount BIGINT NOT NULL DEFAULT 0,
+    cost_basis BIGINT NOT NULL DEFAULT 0,
+    total_bought BIGINT NOT NULL DEFAULT 0,
+    total_sold BIGINT NOT NULL DEFAULT 0,
+    realized_pnl BIGINT NOT NULL DEFAULT 0,
+    fees_paid BIGINT NOT NULL DEFAULT 0,
+    buy_count INTEGER NOT NULL DEFAULT 0,
+    sell_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT unique_pnl_ledger_user_token UNIQUE (user_id, token_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_pnl_ledger_token_realized ON pnl_ledger(token_id, realized_pnl DESC);
+CREATE INDEX IF NOT EXISTS idx_pnl_ledger_user ON pnl_ledger(user_id);
+
+CREATE TABLE IF NOT EXISTS user_pnl (
+    user_id BIGINT PRIMARY KEY REFERENCES users(id),
+    realized_pnl BIGINT NOT NULL DEFAULT 0,
+    fees_paid BIGINT NOT NULL DEFAULT 0,
+    trade_count INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_pnl_realized ON user_pnl(realized_pnl DESC);
@@ -0,0 +1,9 @@
+-- Comment like flush batches already applied to comments.likes_count.
+-- A batch retried after its Redis cleanup failed finds its id here and is not applied twice.
+
+CREATE TABLE IF NOT EXISTS comment_like_flushes (
+    flush_id VARCHAR(36) PRIMARY KEY,
+    flushed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_comment_like_flushes_flushed_at ON comment_like_flushes(flushed_at);
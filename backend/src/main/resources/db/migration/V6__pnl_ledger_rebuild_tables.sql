@@ -0,0 +1,24 @@
+-- Shadow tables for PnL ledger rebuilds: the replay is written here while trading continues, then copied
+-- into pnl_ledger/user_pnl in one short transaction. Empty outside a rebuild, and never needed after a
+-- crash, so unlogged.
+
+CREATE UNLOGGED TABLE IF NOT EXISTS pnl_ledger_rebuild (
+    user_id BIGINT NOT NULL,
+    token_id BIGINT NOT NULL,
+    position_amount BIGINT NOT NULL,
+    cost_basis BIGINT NOT NULL,
+    total_bought BIGINT NOT NULL,
+    total_sold BIGINT NOT NULL,
+    realized_pnl BIGINT NOT NULL,
+    fees_paid BIGINT NOT NULL,
+    buy_count INTEGER NOT NULL,
+    sell_count INTEGER NOT NULL,
+    PRIMARY KEY (user_id, token_id)
+);
+
+CREATE UNLOGGED TABLE IF NOT EXISTS user_pnl_rebuild (
+    user_id BIGINT PRIMARY KEY,
+    realized_pnl BIGINT NOT NULL,
+    fees_paid BIGINT NOT NULL,
+    trade_count INTEGER NOT NULL
+);
@@ -0,0 +1,9 @@
+-- Assign the next comment stream sequence for a token and publish the event with it, atomically,
+-- so every instance receives a token's events in sequence order.
+-- KEYS[1] sequence key
+-- ARGV[1] channel, ARGV[2] serialized event
+-- Returns the assigned sequence
+
+local seq = redis.call('INCR', KEYS[1])
+redis.call('PUBLISH', ARGV[1], seq .. '|' .. ARGV[2])
+return seq
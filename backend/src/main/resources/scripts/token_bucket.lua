@@ -0,0 +1,35 @@
+-- Token bucket rate limiter, one call per request.
+-- KEYS[1] bucket key
+-- ARGV[1] capacity (requests per window), ARGV[2] window in ms, ARGV[3] now in ms, ARGV[4] tokens wanted
+-- Grants as many whole tokens as are available, up to the number wanted (callers leasing a chunk take a partial one).
+-- Returns {tokens granted, remaining whole tokens, ms until the bucket is full again, ms until a retry can succeed}
+
+local capacity = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+local now = tonumber(ARGV[3])
+local cost = tonumber(ARGV[4])
+local rate = capacity / window -- tokens per ms
+
+local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+local tokens = tonumber(state[1])
+local ts = tonumber(state[2])
+if tokens == nil or ts == nil then
+    tokens = capacity
+    ts = now
+end
+
+-- Refill for the time elapsed since the last request (clock skew between callers can't drain the bucket)
+tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)
+
+local granted = math.min(cost, math.floor(tokens))
+local retry = 0
+if granted > 0 then
+    tokens = tokens - granted
+else
+    retry = math.ceil((1 - tokens) / rate)
+end
+
+redis.call('HMSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(math.max(now, ts)))
+redis.call('PEXPIRE', KEYS[1], window)
+
+return {granted, math.floor(tokens), math.ceil((capacity - tokens) / rate), retry}
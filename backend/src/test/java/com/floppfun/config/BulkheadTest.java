@@ -0,0 +1,92 @@
+package com.floppfun.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkheadTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private Bulkhead bulkhead;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        bulkhead.close();
+    }
+
+    @Test
+    void workBeyondThreadsAndQueueIsRejected() throws Exception {
+        bulkhead = new Bulkhead("test", 1, 1, Duration.ofSeconds(10), meterRegistry);
+        CountDownLatch running = new CountDownLatch(1);
+        bulkhead.submit(() -> {
+            running.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        });
+        assertThat(running.await(2, TimeUnit.SECONDS)).isTrue();
+        bulkhead.submit(() -> release.await(10, TimeUnit.SECONDS));
+
+        assertThatThrownBy(() -> bulkhead.call(() -> "too many"))
+                .isInstanceOf(Bulkhead.BulkheadException.class)
+                .hasMessageContaining("full");
+        assertThat(meterRegistry.counter("floppfun.bulkhead.rejections", "name", "test").count()).isEqualTo(1);
+    }
+
+    @Test
+    void slowTaskTimesOutAndIsInterrupted() throws InterruptedException {
+        bulkhead = new Bulkhead("test", 1, 1, Duration.ofMillis(100), meterRegistry);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> bulkhead.call(() -> {
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+        })).isInstanceOf(Bulkhead.BulkheadException.class).hasMessageContaining("timed out");
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2_000);
+        assertThat(interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.counter("floppfun.bulkhead.timeouts", "name", "test").count()).isEqualTo(1);
+    }
+
+    @Test
+    void callerDeadlineShorterThanTimeoutWins() {
+        bulkhead = new Bulkhead("test", 1, 1, Duration.ofSeconds(10), meterRegistry);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> bulkhead.call(() -> release.await(10, TimeUnit.SECONDS), Duration.ofMillis(50)))
+                .isInstanceOf(Bulkhead.BulkheadException.class)
+                .hasMessageContaining("50 ms");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2_000);
+    }
+
+    @Test
+    void exceededDeadlineGivesUpWithoutWaiting() {
+        bulkhead = new Bulkhead("test", 1, 1, Duration.ofSeconds(10), meterRegistry);
+
+        assertThatThrownBy(() -> bulkhead.call(() -> release.await(10, TimeUnit.SECONDS), Duration.ofMillis(-5)))
+                .isInstanceOf(Bulkhead.BulkheadException.class)
+                .hasMessageContaining("0 ms");
+    }
+
+    @Test
+    void taskExceptionsReachTheCallerUnwrapped() throws Exception {
+        bulkhead = new Bulkhead("test", 1, 1, Duration.ofSeconds(10), meterRegistry);
+
+        assertThatThrownBy(() -> bulkhead.call(() -> {
+            throw new IllegalStateException("dependency said no");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("dependency said no");
+        assertThat(bulkhead.call(() -> "ok")).isEqualTo("ok");
+    }
+}
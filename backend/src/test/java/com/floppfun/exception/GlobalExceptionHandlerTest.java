@@ -0,0 +1,50 @@
+package com.floppfun.exception;
+
+import com.floppfun.config.Bulkhead;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class GlobalExceptionHandlerTest {
+
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new FailingController())
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+    @Test
+    void saturatedBulkheadIsServiceUnavailableWithRetryAfter() throws Exception {
+        mockMvc.perform(get("/bulkhead"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.message").value("Bulkhead 'rpc' is full"));
+    }
+
+    @Test
+    void otherRuntimeExceptionsStayBadRequest() throws Exception {
+        mockMvc.perform(get("/runtime"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().doesNotExist(HttpHeaders.RETRY_AFTER));
+    }
+
+    @RestController
+    static class FailingController {
+
+        @GetMapping("/bulkhead")
+        String bulkhead() {
+            throw new Bulkhead.BulkheadException("Bulkhead 'rpc' is full");
+        }
+
+        @GetMapping("/runtime")
+        String runtime() {
+            throw new IllegalStateException("broken");
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.floppfun.filter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = 10_000_000L;
+    private static final long SLOW = 100_000_000L;
+
+    @Test
+    void refusesRequestsBeyondTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 10, 0.2, 100);
+
+        assertThat(limiter.tryAcquire()).isEqualTo(1);
+        assertThat(limiter.tryAcquire()).isEqualTo(2);
+        assertThat(limiter.tryAcquire()).isZero();
+        assertThat(limiter.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void underusedLimitDoesNotGrow() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 1, 100, 0.2, 100);
+
+        // One request at a time, even when several are released while the count is briefly higher
+        for (int i = 0; i < 50; i++) {
+            int admitted = limiter.tryAcquire();
+            limiter.release(FAST, admitted);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void fullLimitGrowsWhileLatencyHoldsAndShrinksWhenItRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 1, 100, 0.2, 100);
+
+        for (int round = 0; round < 5; round++) {
+            runFullRound(limiter, FAST);
+        }
+        int grown = limiter.getLimit();
+        assertThat(grown).isGreaterThan(10);
+
+        // Ten times the baseline: the limit backs off before the baseline adapts
+        runFullRound(limiter, SLOW);
+        assertThat(limiter.getLimit()).isLessThan(grown);
+    }
+
+    private static void runFullRound(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        int slots = limiter.getLimit();
+        int[] admitted = new int[slots];
+        for (int i = 0; i < slots; i++) {
+            admitted[i] = limiter.tryAcquire();
+        }
+        for (int i = 0; i < slots; i++) {
+            limiter.release(rttNanos, admitted[i]);
+        }
+    }
+}
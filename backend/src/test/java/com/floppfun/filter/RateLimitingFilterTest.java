@@ -0,0 +1,71 @@
+package com.floppfun.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RateLimitingFilterTest {
+
+    private static final String ROUTE = "GET /tokens";
+    private static final String WALLET = "wallet:abc";
+    private static final String CEILING = "ipc:10.0.0.1";
+
+    private final LeasedRateLimiter rateLimiter = mock(LeasedRateLimiter.class);
+    private final RateLimitKeyResolver keyResolver = mock(RateLimitKeyResolver.class);
+    private final FilterChain chain = mock(FilterChain.class);
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tokens");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private RateLimitingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RateLimitingFilter(rateLimiter, keyResolver, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "generalRequestsLimit", 100);
+        ReflectionTestUtils.setField(filter, "generalDuration", 60);
+        ReflectionTestUtils.setField(filter, "ipCeilingMultiplier", 5);
+        when(keyResolver.resolveRoute(any())).thenReturn(ROUTE);
+        when(keyResolver.resolveCaller(any())).thenReturn(WALLET);
+        when(keyResolver.resolveIpCeiling(any(), eq(WALLET))).thenReturn(CEILING);
+    }
+
+    @Test
+    void ceilingRejectionDoesNotChargeTheWallet() throws Exception {
+        when(rateLimiter.tryAcquire(eq(ROUTE + ":" + CEILING), anyInt(), anyInt()))
+                .thenReturn(new LeasedRateLimiter.Decision(false, 0, 30_000, 2_000));
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+        verify(rateLimiter).tryAcquire(ROUTE + ":" + CEILING, 500, 60);
+        verify(rateLimiter, never()).tryAcquire(eq(ROUTE + ":" + WALLET), anyInt(), anyInt());
+        verify(chain, never()).doFilter(any(), any());
+    }
+
+    @Test
+    void walletWithinBothLimitsPassesWithItsOwnHeaders() throws Exception {
+        when(rateLimiter.tryAcquire(eq(ROUTE + ":" + CEILING), anyInt(), anyInt()))
+                .thenReturn(new LeasedRateLimiter.Decision(true, 400, 30_000, 0));
+        when(rateLimiter.tryAcquire(eq(ROUTE + ":" + WALLET), anyInt(), anyInt()))
+                .thenReturn(new LeasedRateLimiter.Decision(true, 42, 30_000, 0));
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getHeader("RateLimit-Limit")).isEqualTo("100");
+        assertThat(response.getHeader("RateLimit-Remaining")).isEqualTo("42");
+        verify(chain).doFilter(request, response);
+    }
+}
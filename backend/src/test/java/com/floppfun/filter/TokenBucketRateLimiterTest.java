@@ -0,0 +1,120 @@
+package com.floppfun.filter;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs scripts/token_bucket.lua against a real Redis
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class TokenBucketRateLimiterTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private TokenBucketRateLimiter limiter;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        limiter = new TokenBucketRateLimiter(redisTemplate);
+    }
+
+    @Test
+    void allowsABurstUpToCapacityThenRejects() {
+        for (int i = 0; i < 5; i++) {
+            TokenBucketRateLimiter.Grant grant = limiter.tryAcquire("burst", 5, 60, 1);
+            assertThat(grant.granted()).isEqualTo(1);
+            assertThat(grant.remaining()).isEqualTo(4 - i);
+        }
+
+        TokenBucketRateLimiter.Grant rejected = limiter.tryAcquire("burst", 5, 60, 1);
+        assertThat(rejected.granted()).isZero();
+        // 5 per minute refills one token every 12 s
+        assertThat(rejected.retryAfterMillis()).isBetween(11_000L, 12_000L);
+        assertThat(rejected.resetMillis()).isBetween(59_000L, 60_000L);
+    }
+
+    @Test
+    void grantsAPartialLeaseWhenFewerTokensAreLeft() {
+        limiter.tryAcquire("lease", 10, 60, 8);
+
+        TokenBucketRateLimiter.Grant grant = limiter.tryAcquire("lease", 10, 60, 5);
+
+        assertThat(grant.granted()).isEqualTo(2);
+        assertThat(grant.remaining()).isZero();
+    }
+
+    @Test
+    void refillsContinuously() throws InterruptedException {
+        // 20 per second: one token every 50 ms
+        limiter.tryAcquire("refill", 20, 1, 20);
+        assertThat(limiter.tryAcquire("refill", 20, 1, 1).granted()).isZero();
+
+        Thread.sleep(300);
+
+        TokenBucketRateLimiter.Grant grant = limiter.tryAcquire("refill", 20, 1, 20);
+        assertThat(grant.granted()).isBetween(5L, 8L);
+    }
+
+    @Test
+    void bucketsAreIndependentAndExpireAfterOneWindow() {
+        limiter.tryAcquire("a", 1, 30, 1);
+
+        assertThat(limiter.tryAcquire("a", 1, 30, 1).granted()).isZero();
+        assertThat(limiter.tryAcquire("b", 1, 30, 1).granted()).isEqualTo(1);
+        assertThat(redisTemplate.getExpire("rate_limit:a")).isBetween(1L, 30L);
+    }
+
+    @Test
+    void concurrentCallersNeverOvergrant() throws Exception {
+        int capacity = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Callable<Long>> calls = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                calls.add(() -> limiter.tryAcquire("shared", capacity, 3600, 1).granted());
+            }
+            long granted = 0;
+            for (Future<Long> result : executor.invokeAll(calls)) {
+                granted += result.get();
+            }
+            // At most one extra token can refill during the run at 50 per hour
+            assertThat(granted).isBetween((long) capacity, (long) capacity + 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.floppfun.model.entity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PnlLedgerTest {
+
+    private static final long SOL = 1_000_000_000L;
+
+    private final PnlLedger ledger = PnlLedger.builder().userId(1L).tokenId(1L).build();
+
+    @Test
+    void buysAccumulateCostBasisIncludingFees() {
+        ledger.applyBuy(1_000, 1 * SOL, 10_000_000);
+        ledger.applyBuy(3_000, 2 * SOL, 20_000_000);
+
+        assertThat(ledger.getPositionAmount()).isEqualTo(4_000);
+        assertThat(ledger.getCostBasis()).isEqualTo(3 * SOL);
+        assertThat(ledger.getTotalBought()).isEqualTo(3 * SOL);
+        assertThat(ledger.getFeesPaid()).isEqualTo(30_000_000);
+        assertThat(ledger.getBuyCount()).isEqualTo(2);
+    }
+
+    @Test
+    void partialSellRealizesAgainstAverageCost() {
+        ledger.applyBuy(1_000, 1 * SOL, 0);
+        ledger.applyBuy(3_000, 3 * SOL, 0);
+
+        // Average cost 0.001 SOL per unit: a quarter of the position carries a quarter of the cost
+        long realized = ledger.applySell(1_000, 2 * SOL, 5_000_000);
+
+        assertThat(realized).isEqualTo(1 * SOL);
+        assertThat(ledger.getPositionAmount()).isEqualTo(3_000);
+        assertThat(ledger.getCostBasis()).isEqualTo(3 * SOL);
+        assertThat(ledger.getRealizedPnl()).isEqualTo(1 * SOL);
+        assertThat(ledger.getTotalSold()).isEqualTo(2 * SOL);
+        assertThat(ledger.getFeesPaid()).isEqualTo(5_000_000);
+        assertThat(ledger.getSellCount()).isEqualTo(1);
+    }
+
+    @Test
+    void sellAtALossRealizesNegativePnl() {
+        ledger.applyBuy(2_000, 2 * SOL, 0);
+
+        long realized = ledger.applySell(1_000, SOL / 2, 0);
+
+        assertThat(realized).isEqualTo(-SOL / 2);
+        assertThat(ledger.getCostBasis()).isEqualTo(1 * SOL);
+    }
+
+    @Test
+    void fullSellReleasesTheWholeCostBasis() {
+        ledger.applyBuy(3, 10, 0);
+        ledger.applySell(1, 5, 0); // floor(10 * 1 / 3) = 3 of the cost released
+
+        long realized = ledger.applySell(2, 20, 0);
+
+        // The last sell takes whatever cost is left, so rounding never leaves a residue
+        assertThat(realized).isEqualTo(20 - 7);
+        assertThat(ledger.getPositionAmount()).isZero();
+        assertThat(ledger.getCostBasis()).isZero();
+        assertThat(ledger.getRealizedPnl()).isEqualTo((5 - 3) + (20 - 7));
+    }
+
+    @Test
+    void oversellClampsThePositionAndReleasesAllCost() {
+        ledger.applyBuy(1_000, 1 * SOL, 0);
+
+        long realized = ledger.applySell(1_500, 2 * SOL, 0);
+
+        assertThat(realized).isEqualTo(1 * SOL);
+        assertThat(ledger.getPositionAmount()).isZero();
+        assertThat(ledger.getCostBasis()).isZero();
+    }
+
+    @Test
+    void sellWithoutRecordedPositionIsAllProfit() {
+        long realized = ledger.applySell(1_000, 1 * SOL, 0);
+
+        assertThat(realized).isEqualTo(1 * SOL);
+        assertThat(ledger.getPositionAmount()).isZero();
+    }
+
+    @Test
+    void largeAmountsDoNotOverflowTheCostShare() {
+        long position = 800_000_000_000_000L; // most of a 1B supply with 6 decimals
+        ledger.applyBuy(position, 80 * SOL, 0);
+
+        long realized = ledger.applySell(position / 2, 50 * SOL, 0);
+
+        assertThat(realized).isEqualTo(10 * SOL);
+        assertThat(ledger.getCostBasis()).isEqualTo(40 * SOL);
+    }
+}
@@ -0,0 +1,124 @@
+package com.floppfun.service;
+
+import com.floppfun.dto.CommentDTO;
+import com.floppfun.entity.Comment;
+import com.floppfun.entity.CommentLike;
+import com.floppfun.model.entity.Token;
+import com.floppfun.model.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * The token comment feed must cost the same number of statements whatever the page size:
+ * the page (authors fetched with it), the count, and one IN query for the viewer's likes.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(CommentService.class)
+class CommentServiceQueryCountTest {
+
+    private static final int COMMENTS = 30;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private CommentLikeCounter commentLikeCounter;
+
+    private Long tokenId;
+    private Long viewerId;
+
+    @BeforeEach
+    void setUp() {
+        when(commentLikeCounter.getPendingDeltas(any())).thenReturn(Map.of());
+
+        User viewer = entityManager.persist(User.builder().walletAddress("viewer-wallet").username("viewer").build());
+        Token token = entityManager.persist(Token.builder()
+                .mintAddress("test-mint").name("Test").symbol("TEST").creator(viewer).build());
+
+        for (int i = 0; i < COMMENTS; i++) {
+            // A different author per comment, so lazy author loads would show up as extra statements
+            User author = entityManager.persist(User.builder().walletAddress("author-" + i).username("author" + i).build());
+            Comment comment = new Comment();
+            comment.setToken(token);
+            comment.setUser(author);
+            comment.setContent("comment " + i);
+            entityManager.persist(comment);
+
+            if (i % 3 == 0) {
+                CommentLike like = new CommentLike();
+                like.setComment(comment);
+                like.setUser(viewer);
+                entityManager.persist(like);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        tokenId = token.getId();
+        viewerId = viewer.getId();
+    }
+
+    @Test
+    void commentPageUsesConstantQueries() {
+        assertThat(statementsForPage(5)).isEqualTo(3);
+        assertThat(statementsForPage(20)).isEqualTo(3);
+    }
+
+    @Test
+    void commentPageResolvesAuthorsAndLikes() {
+        Page<CommentDTO> page = commentService.getTokenComments(tokenId, viewerId, PageRequest.of(0, COMMENTS));
+
+        assertThat(page.getContent()).hasSize(COMMENTS);
+        assertThat(page.getContent()).allSatisfy(dto -> assertThat(dto.getUserName()).startsWith("author"));
+        assertThat(page.getContent()).filteredOn(CommentDTO::getIsLikedByCurrentUser).hasSize(COMMENTS / 3);
+    }
+
+    private long statementsForPage(int size) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManager.clear();
+        statistics.clear();
+
+        Page<CommentDTO> page = commentService.getTokenComments(tokenId, viewerId, PageRequest.of(0, size));
+        // Touch everything a controller would serialize
+        page.getContent().forEach(dto -> assertThat(dto.getUserWalletAddress()).isNotNull());
+
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,132 @@
+package com.floppfun.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RpcBudgetTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void requestsPassStraightThroughWhileCreditsLast() throws InterruptedException {
+        RpcBudget budget = new RpcBudget(meterRegistry, 1, 5, 1_000);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            budget.acquire(RpcPriority.BACKFILL, 1);
+        }
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(500);
+        assertThat(budget.tryAcquire(RpcPriority.USER, 1)).isFalse();
+    }
+
+    @Test
+    void waitersAreServedByWeightedFinishTime() throws InterruptedException {
+        // One credit per 100 ms, so every waiter below has to queue
+        RpcBudget budget = new RpcBudget(meterRegistry, 10, 1, 10_000);
+        assertThat(budget.tryAcquire(RpcPriority.BACKFILL, 1)).isTrue();
+
+        List<RpcPriority> grants = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        // The backfill backlog queues first; user requests arriving after it still go ahead of it
+        for (int i = 0; i < 8; i++) {
+            threads.add(startWaiter(budget, RpcPriority.BACKFILL, grants));
+        }
+        awaitQueueDepth(budget, RpcPriority.BACKFILL, 8);
+        for (int i = 0; i < 8; i++) {
+            threads.add(startWaiter(budget, RpcPriority.USER, grants));
+        }
+        for (Thread thread : threads) {
+            thread.join(10_000);
+        }
+
+        assertThat(grants).hasSize(16);
+        int lastUser = grants.lastIndexOf(RpcPriority.USER);
+        long backfillBeforeLastUser = grants.subList(0, lastUser).stream()
+                .filter(p -> p == RpcPriority.BACKFILL)
+                .count();
+        // Weight 8 vs 1: all eight user requests finish (virtually) before the second backfill one;
+        // allow one backfill grant that may land before the user requests have queued
+        assertThat(backfillBeforeLastUser).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void abandonedWaitersDoNotPushTheirClassBack() throws InterruptedException {
+        RpcBudget budget = new RpcBudget(meterRegistry, 1, 1, 10_000);
+        assertThat(budget.tryAcquire(RpcPriority.BACKFILL, 1)).isTrue();
+
+        // Sixteen user requests queue up and give up, worth two backfill requests of virtual time
+        List<Thread> abandoned = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            abandoned.add(startWaiter(budget, RpcPriority.USER, Collections.synchronizedList(new ArrayList<>())));
+        }
+        awaitQueueDepth(budget, RpcPriority.USER, 16);
+        for (Thread thread : abandoned) {
+            thread.interrupt();
+            thread.join(2_000);
+        }
+        assertThat(budget.getQueueDepth(RpcPriority.USER)).isZero();
+
+        List<RpcPriority> grants = Collections.synchronizedList(new ArrayList<>());
+        Thread backfill = startWaiter(budget, RpcPriority.BACKFILL, grants);
+        awaitQueueDepth(budget, RpcPriority.BACKFILL, 1);
+        Thread user = startWaiter(budget, RpcPriority.USER, grants);
+        backfill.join(10_000);
+        user.join(10_000);
+
+        assertThat(grants).containsExactly(RpcPriority.USER, RpcPriority.BACKFILL);
+    }
+
+    @Test
+    void tryAcquireNeverJumpsTheQueue() throws InterruptedException {
+        RpcBudget budget = new RpcBudget(meterRegistry, 2, 1, 10_000);
+        assertThat(budget.tryAcquire(RpcPriority.USER, 1)).isTrue();
+
+        Thread waiter = startWaiter(budget, RpcPriority.BACKFILL, Collections.synchronizedList(new ArrayList<>()));
+        awaitQueueDepth(budget, RpcPriority.BACKFILL, 1);
+
+        assertThat(budget.tryAcquire(RpcPriority.USER, 1)).isFalse();
+        waiter.join(10_000);
+    }
+
+    @Test
+    void waitingLongerThanMaxWaitIsRejected() {
+        RpcBudget budget = new RpcBudget(meterRegistry, 0.1, 1, 100);
+        assertThat(budget.tryAcquire(RpcPriority.HOLDER_SCAN, 1)).isTrue();
+
+        assertThatThrownBy(() -> budget.acquire(RpcPriority.HOLDER_SCAN, 1))
+                .isInstanceOf(RpcBudget.RpcBudgetExceededException.class);
+        assertThat(budget.getQueueDepth(RpcPriority.HOLDER_SCAN)).isZero();
+        assertThat(meterRegistry.counter("floppfun.rpc.budget.rejections", "priority", "HOLDER_SCAN").count())
+                .isEqualTo(1);
+    }
+
+    private static Thread startWaiter(RpcBudget budget, RpcPriority priority, List<RpcPriority> grants) {
+        Thread thread = new Thread(() -> {
+            try {
+                budget.acquire(priority, 1);
+                grants.add(priority);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitQueueDepth(RpcBudget budget, RpcPriority priority, int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (budget.getQueueDepth(priority) < depth && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(budget.getQueueDepth(priority)).isGreaterThanOrEqualTo(depth);
+    }
+}
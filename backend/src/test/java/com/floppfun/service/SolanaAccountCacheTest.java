@@ -0,0 +1,135 @@
+package com.floppfun.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SolanaAccountCacheTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SolanaRpcClient rpcClient = mock(SolanaRpcClient.class);
+    private final AtomicInteger rpcCalls = new AtomicInteger();
+
+    @Test
+    void concurrentMissesShareOneCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(rpcClient.call(any(), any(), any(Object[].class))).thenAnswer(invocation -> {
+            rpcCalls.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return response(100);
+        });
+        SolanaAccountCache cache = cache(5);
+
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<JsonNode>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> cache.getAccountInfo(RpcPriority.USER, "acct", "base64", 0)));
+            }
+            // Everyone but the leader is parked on the leader's future before the answer arrives
+            long deadline = System.currentTimeMillis() + 2_000;
+            while (coalesced() < callers - 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            JsonNode first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<JsonNode> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(first);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(rpcCalls).hasValue(1);
+        assertThat(coalesced()).isEqualTo(callers - 1);
+    }
+
+    @Test
+    void minSlotNewerThanCachedForcesRefetch() {
+        AtomicLong slot = new AtomicLong(100);
+        when(rpcClient.call(any(), any(), any(Object[].class))).thenAnswer(invocation -> {
+            rpcCalls.incrementAndGet();
+            return response(slot.get());
+        });
+        SolanaAccountCache cache = cache(5);
+
+        cache.getAccountInfo(RpcPriority.USER, "acct", "base64", 0);
+        cache.getAccountInfo(RpcPriority.USER, "acct", "base64", 100);
+        assertThat(rpcCalls).hasValue(1);
+
+        slot.set(103);
+        JsonNode refreshed = cache.getAccountInfo(RpcPriority.USER, "acct", "base64", 101);
+        assertThat(rpcCalls).hasValue(2);
+        assertThat(refreshed.path("context").path("slot").asLong()).isEqualTo(103);
+    }
+
+    @Test
+    void entriesFallingBehindTheHighestSlotAreRefetched() {
+        AtomicLong slot = new AtomicLong(100);
+        when(rpcClient.call(any(), any(), any(Object[].class))).thenAnswer(invocation -> {
+            rpcCalls.incrementAndGet();
+            return response(slot.get());
+        });
+        SolanaAccountCache cache = cache(5);
+
+        cache.getAccountInfo(RpcPriority.USER, "a", "base64", 0);
+        slot.set(110);
+        cache.getAccountInfo(RpcPriority.USER, "b", "base64", 0);
+        assertThat(cache.getHighestSlot()).isEqualTo(110);
+
+        // "a" was read at 100, ten slots behind the newest response and past the lag of 5
+        JsonNode refreshed = cache.getAccountInfo(RpcPriority.USER, "a", "base64", 0);
+        assertThat(rpcCalls).hasValue(3);
+        assertThat(refreshed.path("context").path("slot").asLong()).isEqualTo(110);
+    }
+
+    @Test
+    void failedFetchIsNotCached() {
+        when(rpcClient.call(any(), any(), any(Object[].class)))
+                .thenThrow(new IllegalStateException("all endpoints down"))
+                .thenAnswer(invocation -> response(100));
+        SolanaAccountCache cache = cache(5);
+
+        assertThatThrownBy(() -> cache.getAccountInfo(RpcPriority.USER, "acct", "base64", 0))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(cache.getAccountInfo(RpcPriority.USER, "acct", "base64", 0).path("context").path("slot").asLong())
+                .isEqualTo(100);
+    }
+
+    private SolanaAccountCache cache(long maxSlotLag) {
+        return new SolanaAccountCache(rpcClient, meterRegistry, "confirmed", 1_000, 60_000, maxSlotLag);
+    }
+
+    private double coalesced() {
+        return meterRegistry.counter("floppfun.rpc.cache.coalesced").count();
+    }
+
+    private static JsonNode response(long slot) {
+        ObjectNode response = MAPPER.createObjectNode();
+        response.putObject("context").put("slot", slot);
+        response.putObject("value").put("lamports", 1_000_000);
+        return response;
+    }
+}
@@ -0,0 +1,202 @@
+package com.floppfun.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.floppfun.config.Bulkhead;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Routing, hedging, failover and circuit breaking against local stand-in RPC servers
+ * that inject latency and failures
+ */
+class SolanaRpcClientTest {
+
+    // Only the hedging test hedges; a cold client's first call can take longer than this on its own
+    private static final long HEDGE_MAX_DELAY_MS = 100;
+    private static final int FAILURE_THRESHOLD = 3;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private Bulkhead bulkhead;
+    private StandInServer first;
+    private StandInServer second;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        bulkhead = new Bulkhead("rpc", 4, 16, Duration.ofSeconds(10), meterRegistry);
+        first = new StandInServer("first");
+        second = new StandInServer("second");
+    }
+
+    @AfterEach
+    void tearDown() {
+        first.stop();
+        second.stop();
+        bulkhead.close();
+    }
+
+    @Test
+    void healthyPrimaryAnswersWithoutHedging() {
+        SolanaRpcClient client = client(false);
+
+        assertThat(client.call(RpcPriority.USER, "getSlot").asText()).isEqualTo("first");
+        assertThat(second.requests.get()).isZero();
+        assertThat(meterRegistry.counter("floppfun.rpc.hedges").count()).isZero();
+    }
+
+    @Test
+    void slowPrimaryIsHedgedAndRankedDownAfterLosing() throws InterruptedException {
+        first.delayMs = 2_000;
+        SolanaRpcClient client = client(true);
+
+        long start = System.nanoTime();
+        JsonNode result = client.call(RpcPriority.USER, "getSlot");
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(result.asText()).isEqualTo("second");
+        assertThat(elapsedMs).isLessThan(first.delayMs);
+        assertThat(meterRegistry.counter("floppfun.rpc.hedges").count()).isEqualTo(1);
+
+        // The cancelled loser still records how long it had taken, so it no longer ranks first
+        RpcEndpoint slow = endpoint(client, "first");
+        awaitCondition(() -> slow.getLatencyEwmaMs() >= HEDGE_MAX_DELAY_MS);
+        assertThat(client.getEndpoints().get(0).getUrl()).isEqualTo(second.url());
+    }
+
+    @Test
+    void failingEndpointFailsOverAndOpensItsBreaker() {
+        first.failWithStatus = 503;
+        SolanaRpcClient client = client(false);
+
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThat(client.call(RpcPriority.USER, "getSlot").asText()).isEqualTo("second");
+        }
+
+        RpcEndpoint failing = endpoint(client, "first");
+        assertThat(failing.getState()).isEqualTo(RpcEndpoint.State.OPEN);
+        assertThat(failing.tryAcquire()).isFalse();
+
+        int before = first.requests.get();
+        client.call(RpcPriority.USER, "getSlot");
+        assertThat(first.requests.get()).isEqualTo(before);
+    }
+
+    @Test
+    void jsonRpcErrorsAreNotRetriedElsewhere() {
+        first.rpcError = true;
+        SolanaRpcClient client = client(false);
+
+        assertThatThrownBy(() -> client.call(RpcPriority.USER, "getAccountInfo", "bad"))
+                .isInstanceOfSatisfying(SolanaRpcClient.SolanaRpcException.class,
+                        e -> assertThat(e.isRetryable()).isFalse());
+        assertThat(second.requests.get()).isZero();
+        assertThat(endpoint(client, "first").getErrorEwma()).isZero();
+    }
+
+    @Test
+    void everyEndpointFailingIsARetryableError() {
+        first.failWithStatus = 500;
+        second.failWithStatus = 429;
+        SolanaRpcClient client = client(false);
+
+        assertThatThrownBy(() -> client.call(RpcPriority.USER, "getSlot"))
+                .isInstanceOfSatisfying(SolanaRpcClient.SolanaRpcException.class,
+                        e -> assertThat(e.isRetryable()).isTrue());
+        assertThat(first.requests.get()).isEqualTo(1);
+        assertThat(second.requests.get()).isEqualTo(1);
+    }
+
+    private SolanaRpcClient client(boolean hedgeEnabled) {
+        RpcBudget budget = new RpcBudget(meterRegistry, 1_000, 1_000, 1_000);
+        return new SolanaRpcClient(bulkhead, budget, meterRegistry,
+                List.of(first.url(), second.url()),
+                1_000, 5_000, 0.2,
+                FAILURE_THRESHOLD, 60_000,
+                hedgeEnabled, 10, HEDGE_MAX_DELAY_MS,
+                3, 10);
+    }
+
+    private RpcEndpoint endpoint(SolanaRpcClient client, String name) {
+        String url = "first".equals(name) ? first.url() : second.url();
+        return client.getEndpoints().stream().filter(e -> e.getUrl().equals(url)).findFirst().orElseThrow();
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    /**
+     * Minimal JSON-RPC endpoint answering every call with its own name as the result
+     */
+    private static class StandInServer {
+        final String name;
+        final HttpServer server;
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        final AtomicInteger requests = new AtomicInteger();
+        volatile long delayMs;
+        volatile int failWithStatus;
+        volatile boolean rpcError;
+
+        StandInServer(String name) throws IOException {
+            this.name = name;
+            this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            this.server.createContext("/", this::handle);
+            this.server.setExecutor(executor);
+            this.server.start();
+        }
+
+        String url() {
+            return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        }
+
+        void stop() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            requests.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            try {
+                if (delayMs > 0) {
+                    Thread.sleep(delayMs);
+                }
+                if (failWithStatus > 0) {
+                    exchange.sendResponseHeaders(failWithStatus, -1);
+                    return;
+                }
+                String body = rpcError
+                        ? "{\"jsonrpc\":\"2.0\",\"id\":1,\"error\":{\"code\":-32602,\"message\":\"Invalid params\"}}"
+                        : "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"" + name + "\"}";
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                exchange.getResponseBody().write(bytes);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.floppfun.service;
+
+import com.floppfun.event.TradeRecordedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TradeConfirmationServiceTest {
+
+    private final SolanaService solanaService = mock(SolanaService.class);
+    private final TradingService tradingService = mock(TradingService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    // Status the stub reports per signature; anything missing is not found
+    private final Map<String, SolanaService.SignatureStatus> chain = new HashMap<>();
+    // Recorded trades are buys of 1000 tokens for 5_000_000 lamports unless listed here
+    private final Map<String, String> recordedTypes = new HashMap<>();
+    // On-chain effects of landed transactions; anything missing matches the recorded trade
+    private final Map<String, Optional<SolanaService.WalletEffect>> effects = new HashMap<>();
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private boolean rpcDown;
+
+    private TradeConfirmationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TradeConfirmationService(solanaService, tradingService, jdbcTemplate, meterRegistry,
+                "confirmed", 8, 180_000, 60_000, 2_500_000);
+        when(solanaService.getSignatureStatuses(anyList(), any(), anyBoolean())).thenAnswer(invocation -> {
+            if (rpcDown) {
+                throw new IllegalStateException("all endpoints down");
+            }
+            List<String> signatures = invocation.getArgument(0);
+            batchSizes.add(signatures.size());
+            return signatures.stream()
+                    .map(signature -> chain.getOrDefault(signature,
+                            new SolanaService.SignatureStatus(signature, false, false, null)))
+                    .toList();
+        });
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(invocation -> {
+            RowMapper<?> mapper = invocation.getArgument(1);
+            Object[] arguments = invocation.getArguments();
+            List<Object> rows = new ArrayList<>();
+            for (int i = 2; i < arguments.length; i++) {
+                rows.add(mapper.mapRow(recordedRow((String) arguments[i]), i - 2));
+            }
+            return rows;
+        });
+        when(solanaService.getWalletEffect(anyString(), anyString(), anyString(), any(), anyString()))
+                .thenAnswer(invocation -> effects.getOrDefault(invocation.<String>getArgument(0),
+                        Optional.of(new SolanaService.WalletEffect(true, true, 1_000, -5_000_000))));
+    }
+
+    @Test
+    void checksUpTo256SignaturesPerCall() {
+        List<String> signatures = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            String signature = "sig-" + i;
+            signatures.add(signature);
+            chain.put(signature, new SolanaService.SignatureStatus(signature, true, false, "confirmed"));
+            service.onTradeRecorded(new TradeRecordedEvent(signature, LocalDateTime.now()));
+        }
+
+        service.verifyPending();
+
+        assertThat(batchSizes).containsExactly(256, 256, 88);
+        List<String> confirmed = confirmedSignatures();
+        assertThat(confirmed).containsExactlyElementsOf(signatures);
+        assertThat(meterRegistry.counter("floppfun.trades.confirmation", "result", "confirmed").count()).isEqualTo(600);
+    }
+
+    @Test
+    void unsettledTradesStayQueuedUntilTheyExpire() {
+        chain.put("landed", new SolanaService.SignatureStatus("landed", true, false, "processed"));
+        chain.put("stuck", new SolanaService.SignatureStatus("stuck", true, false, "processed"));
+        chain.put("reverted", new SolanaService.SignatureStatus("reverted", true, true, "confirmed"));
+        service.onTradeRecorded(new TradeRecordedEvent("fresh", LocalDateTime.now()));
+        service.onTradeRecorded(new TradeRecordedEvent("landed", LocalDateTime.now()));
+        service.onTradeRecorded(new TradeRecordedEvent("lost", LocalDateTime.now().minusMinutes(10)));
+        service.onTradeRecorded(new TradeRecordedEvent("stuck", LocalDateTime.now().minusMinutes(10)));
+        service.onTradeRecorded(new TradeRecordedEvent("reverted", LocalDateTime.now()));
+
+        service.verifyPending();
+
+        // Old signatures are searched in the ledger, not only the recent status cache
+        verify(solanaService).getSignatureStatuses(anyList(), eq(RpcPriority.USER), eq(true));
+        // Past the expiry a trade fails whether or not the node has seen it
+        verify(tradingService).failTrades(List.of("lost", "stuck", "reverted"));
+        assertThat(meterRegistry.counter("floppfun.trades.confirmation", "result", "expired").count()).isEqualTo(2);
+
+        chain.put("landed", new SolanaService.SignatureStatus("landed", true, false, "confirmed"));
+        service.verifyPending();
+
+        assertThat(batchSizes).containsExactly(5, 2);
+        verify(tradingService).confirmTrades(List.of("landed"));
+    }
+
+    @Test
+    void landedTransactionsMustMatchTheRecordedTrade() {
+        for (String signature : List.of("ok", "sold", "wrong-amount", "unsigned", "self-transfer", "not-yet")) {
+            chain.put(signature, new SolanaService.SignatureStatus(signature, true, false, "confirmed"));
+            service.onTradeRecorded(new TradeRecordedEvent(signature, LocalDateTime.now()));
+        }
+        // Selling into a closed token account also returns its rent
+        recordedTypes.put("sold", "SELL");
+        effects.put("sold", Optional.of(new SolanaService.WalletEffect(true, true, -1_000, 5_000_000 + 2_039_280)));
+        effects.put("wrong-amount", Optional.of(new SolanaService.WalletEffect(true, true, 10, -5_000_000)));
+        effects.put("unsigned", Optional.of(new SolanaService.WalletEffect(false, true, 1_000, 0)));
+        effects.put("self-transfer", Optional.of(new SolanaService.WalletEffect(true, false, 1_000, -5_000_000)));
+        effects.put("not-yet", Optional.empty());
+
+        service.verifyPending();
+
+        verify(tradingService).confirmTrades(List.of("ok", "sold"));
+        verify(tradingService).failTrades(List.of("wrong-amount", "unsigned", "self-transfer"));
+        assertThat(meterRegistry.counter("floppfun.trades.confirmation", "result", "rejected").count()).isEqualTo(3);
+        assertThat(meterRegistry.counter("floppfun.trades.confirmation", "result", "failed").count()).isZero();
+
+        // The node couldn't return it yet, so it is checked again next tick
+        effects.remove("not-yet");
+        service.verifyPending();
+
+        assertThat(batchSizes).containsExactly(6, 1);
+        verify(tradingService).confirmTrades(List.of("not-yet"));
+    }
+
+    @Test
+    void failedRpcCallKeepsTheBatchQueued() {
+        service.onTradeRecorded(new TradeRecordedEvent("a", LocalDateTime.now()));
+        service.onTradeRecorded(new TradeRecordedEvent("b", LocalDateTime.now()));
+        chain.put("a", new SolanaService.SignatureStatus("a", true, false, "finalized"));
+        chain.put("b", new SolanaService.SignatureStatus("b", true, false, "finalized"));
+        rpcDown = true;
+
+        service.verifyPending();
+        verify(tradingService, never()).confirmTrades(anyList());
+
+        rpcDown = false;
+        service.verifyPending();
+        verify(tradingService).confirmTrades(List.of("a", "b"));
+    }
+
+    @Test
+    void signatureIsQueuedOnce() {
+        service.onTradeRecorded(new TradeRecordedEvent("dup", LocalDateTime.now()));
+        service.onTradeRecorded(new TradeRecordedEvent("dup", LocalDateTime.now()));
+
+        service.verifyPending();
+
+        assertThat(batchSizes).containsExactly(1);
+    }
+
+    private ResultSet recordedRow(String signature) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("signature")).thenReturn(signature);
+        when(rs.getString("transaction_type")).thenReturn(recordedTypes.getOrDefault(signature, "BUY"));
+        when(rs.getLong("token_amount")).thenReturn(1_000L);
+        when(rs.getLong("sol_amount")).thenReturn(5_000_000L);
+        when(rs.getString("wallet_address")).thenReturn("trader");
+        when(rs.getString("mint_address")).thenReturn("mint");
+        return rs;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> confirmedSignatures() {
+        ArgumentCaptor<List<String>> captor = ArgumentCaptor.forClass(List.class);
+        verify(tradingService, times(3)).confirmTrades(captor.capture());
+        return captor.getAllValues().stream().flatMap(List::stream).toList();
+    }
+}
@@ -82,6 +82,25 @@ function getAuthHeader(): Record<string, string> {
  * Authentication API
  */
 export const authAPI = {
+  /**
+   * Request a one-time login challenge (the exact message the wallet must sign)
+   */
+  async getNonce(walletAddress: string): Promise<{ nonce: string; message: string; expiresAt: number }> {
+    const response = await fetch(`${API_BASE_URL}/auth/nonce`, {
+      method: 'POST',
+      headers: {
+        'Content-Type': 'application/json',
+      },
+      body: JSON.stringify({ walletAddress }),
+    });
+
+    if (!response.ok) {
+      throw new Error('Failed to get login challenge');
+    }
+
+    return response.json();
+  },
+
   /**
    * Login with wallet signature
    */
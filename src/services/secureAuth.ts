@@ -26,18 +26,26 @@ export interface AuthResult {
 
 export class SecureAuthService {
   /**
-   * Generate an authentication challenge for a wallet address
+   * Request a one-time authentication challenge for a wallet address from the backend
    */
-  static generateChallenge(walletAddress: string): AuthChallenge {
-    const timestamp = Date.now();
-    const expiresAt = timestamp + 5 * 60 * 1000; // 5 minutes expiry
-    const random = Math.random().toString(36).substring(2, 15);
-    const challenge = `Sign this message to authenticate with FloppFun:\n\nWallet: ${walletAddress}\nTimestamp: ${timestamp}\nNonce: ${random}\n\nThis request will not trigger a blockchain transaction or cost any gas fees.`;
+  static async generateChallenge(walletAddress: string): Promise<AuthChallenge> {
+    const response = await fetch(`${API_BASE_URL}/auth/nonce`, {
+      method: 'POST',
+      headers: {
+        'Content-Type': 'application/json',
+      },
+      body: JSON.stringify({ walletAddress }),
+    });
+
+    if (!response.ok) {
+      throw new Error('Failed to get authentication challenge');
+    }
 
+    const data = await response.json();
     return {
-      challenge,
-      timestamp,
-      expiresAt,
+      challenge: data.message,
+      timestamp: Date.now(),
+      expiresAt: data.expiresAt,
     };
   }
 
@@ -122,8 +122,8 @@ export const useAuthStore = defineStore("auth", () => {
     try {
       isLoading.value = true;
 
-      // Create a message to sign
-      const message = `Sign in to FloppFun\n\nWallet: ${walletStore.walletAddress}\nTimestamp: ${Date.now()}`;
+      // Get a one-time challenge message from the backend
+      const { message } = await authAPI.getNonce(walletStore.walletAddress);
       const messageBytes = new TextEncoder().encode(message);
 
       // Request signature from wallet